@@ -0,0 +1,114 @@
+package benchmark;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import model.Event;
+import model.IEvent;
+import model.Time;
+
+/**
+ * Measures comparing events and checking whether they overlap, for events with different
+ * numbers of invitees.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class EventBenchmark {
+  @Param({"1", "8", "64"})
+  public int inviteesPerEvent;
+
+  private IEvent event;
+  private IEvent sameEvent;
+  private IEvent otherLocation;
+  private IEvent overlapping;
+  private IEvent later;
+
+  /**
+   * Makes the events to compare. The copy is made from a separate list of invitees in the
+   * opposite order, so nothing is shared with the original but the strings.
+   */
+  @Setup
+  public void setUp() {
+    List<String> invitees = Workloads.userNames(this.inviteesPerEvent);
+    List<String> reversed = Workloads.userNames(this.inviteesPerEvent);
+    Collections.reverse(reversed);
+    this.event = event("lecture", 9, 11, "Churchill Hall 101", invitees);
+    this.sameEvent = event("lecture", 9, 11, "Churchill Hall 101", reversed);
+    this.otherLocation = event("lecture", 9, 11, "Snell Library", invitees);
+    this.overlapping = event("office hours", 10, 12, "Churchill Hall 101", invitees);
+    this.later = event("office hours", 13, 15, "Churchill Hall 101", invitees);
+  }
+
+  /**
+   * Makes an event on Tuesday.
+   *
+   * @param name name of the event
+   * @param startHour hour the event starts at
+   * @param endHour hour the event ends at
+   * @param location location of the event
+   * @param invitees invitees of the event
+   * @return the event
+   */
+  private static IEvent event(String name, int startHour, int endHour, String location,
+                              List<String> invitees) {
+    return new Event(name, new Time(Time.Day.TUESDAY, startHour, 0),
+            new Time(Time.Day.TUESDAY, endHour, 0), false, location, invitees);
+  }
+
+  /**
+   * Compares an event with an equal one.
+   *
+   * @return true
+   */
+  @Benchmark
+  public boolean equalsSame() {
+    return this.event.equals(this.sameEvent);
+  }
+
+  /**
+   * Compares an event with one that only differs in its location.
+   *
+   * @return false
+   */
+  @Benchmark
+  public boolean equalsDifferent() {
+    return this.event.equals(this.otherLocation);
+  }
+
+  /**
+   * Checks two overlapping events.
+   *
+   * @return true
+   */
+  @Benchmark
+  public boolean overlappingEvents() {
+    return this.event.overlappingEvents(this.overlapping);
+  }
+
+  /**
+   * Checks two events that don't overlap.
+   *
+   * @return false
+   */
+  @Benchmark
+  public boolean separateEvents() {
+    return this.event.overlappingEvents(this.later);
+  }
+}
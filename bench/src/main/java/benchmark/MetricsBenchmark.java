@@ -0,0 +1,117 @@
+package benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import model.IEvent;
+import model.ITime;
+import model.IUser;
+import model.MetricsPlanner;
+import model.NUPlanner;
+import model.PlannerSystem;
+import model.Schedule;
+import model.User;
+
+/**
+ * Measures what recording metrics costs, by calling a planner with and without a
+ * {@link MetricsPlanner} around it. The difference between the two is the cost of the
+ * metrics for each call.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class MetricsBenchmark {
+  // number of random times looked up, in turn
+  private static final int PROBES = 1024;
+
+  @Param({"false", "true"})
+  public boolean withMetrics;
+
+  @Param({"256"})
+  public int eventsPerSchedule;
+
+  private PlannerSystem planner;
+  private IUser user;
+  private List<IEvent> gaps;
+  private ITime[] probes;
+  private long eventId;
+  private int cursor;
+
+  /**
+   * Makes a planner with one user holding the events of the grid, wrapped if metrics are
+   * recorded.
+   */
+  @Setup
+  public void setUp() {
+    List<String> invitees = Workloads.userNames(1);
+    NUPlanner nuPlanner = new NUPlanner();
+    this.planner = this.withMetrics ? new MetricsPlanner(nuPlanner) : nuPlanner;
+    this.planner.addUser(new User(invitees.get(0),
+            new Schedule(Workloads.gridEvents(this.eventsPerSchedule, invitees))));
+    this.user = this.planner.getUser(invitees.get(0));
+    this.gaps = Workloads.gapEvents(this.eventsPerSchedule, invitees);
+    this.probes = Workloads.randomTimes(PROBES);
+    this.eventId = this.planner.retrieveUserEvents(this.user).get(0).getId();
+  }
+
+  /**
+   * Looks up an event by its ID, the cheapest call to the planner.
+   *
+   * @return the event
+   */
+  @Benchmark
+  public IEvent getEvent() {
+    return this.planner.getEvent(this.eventId);
+  }
+
+  /**
+   * Looks up the event at a random time in the user's schedule.
+   *
+   * @return the event found, null if none
+   */
+  @Benchmark
+  public IEvent retrieveUserScheduleAtTime() {
+    return this.planner.retrieveUserScheduleAtTime(this.user,
+            this.probes[this.next(PROBES)]);
+  }
+
+  /**
+   * Adds an event in a free part of the user's schedule, then removes it again so the
+   * schedule keeps its size.
+   *
+   * @return the planner
+   */
+  @Benchmark
+  public PlannerSystem addEventForRelevantUsers() {
+    IEvent gap = this.gaps.get(this.next(this.gaps.size()));
+    this.planner.addEventForRelevantUsers(gap);
+    this.planner.removeEventForRelevantUsers(gap, this.user);
+    return this.planner;
+  }
+
+  /**
+   * Moves on to the next item of a list, going back to the first after the last.
+   *
+   * @param size number of items in the list
+   * @return index of the item
+   */
+  private int next(int size) {
+    this.cursor = this.cursor + 1 < size ? this.cursor + 1 : 0;
+    return this.cursor;
+  }
+}
@@ -0,0 +1,241 @@
+package benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+
+import controller.UtilsXML;
+import model.IEvent;
+import model.IUser;
+import model.MappedPlanner;
+import model.NUPlanner;
+import model.PlannerSnapshot;
+import model.PlannerSystem;
+import model.Schedule;
+import model.User;
+
+/**
+ * Measures reading and writing a user's schedule, both as an XML file and as a binary
+ * planner snapshot. The files are generated when the benchmark starts, holding as many events
+ * as asked for, and are deleted when it ends.
+ *
+ * <p> Besides the operations per second, every benchmark counts the bytes and events it
+ * reads or writes, which JMH reports per second next to the throughput. Run with the GC
+ * profiler, as {@link #main(String[])} does, to see the bytes allocated for each operation,
+ * which divided by the number of events is the allocation for each event. </p>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+@State(Scope.Thread)
+public class PersistenceBenchmark {
+  private static final String USER_NAME = "user0";
+
+  @Param({"1000", "10000", "100000"})
+  public int eventsPerSchedule;
+
+  @Param({"1", "8"})
+  public int inviteesPerEvent;
+
+  private Path directory;
+  private IUser user;
+  private NUPlanner planner;
+  private String xmlPath;
+  private String snapshotPath;
+  private String outputDirectory;
+  private long xmlBytes;
+  private long snapshotBytes;
+
+  /**
+   * Bytes and events read or written during an iteration, reported by JMH per second.
+   */
+  @State(Scope.Thread)
+  @AuxCounters(AuxCounters.Type.OPERATIONS)
+  public static class Processed {
+    public long bytes;
+    public long events;
+
+    /**
+     * Starts counting again for the next iteration.
+     */
+    @Setup(Level.Iteration)
+    public void reset() {
+      this.bytes = 0;
+      this.events = 0;
+    }
+
+    /**
+     * Counts a file read or written.
+     *
+     * @param fileBytes size of the file
+     * @param fileEvents number of events in the file
+     */
+    void add(long fileBytes, long fileEvents) {
+      this.bytes += fileBytes;
+      this.events += fileEvents;
+    }
+  }
+
+  /**
+   * Generates a schedule with the given number of events, and writes it out as an XML file
+   * and as a snapshot to read back.
+   */
+  @Setup(Level.Trial)
+  public void setUp() throws IOException {
+    this.directory = Files.createTempDirectory("planner-bench");
+    List<String> invitees = Workloads.userNames(this.inviteesPerEvent);
+    this.user = new User(USER_NAME,
+            new Schedule(Workloads.denseEvents(this.eventsPerSchedule, invitees)));
+    this.planner = new NUPlanner();
+    this.planner.addUser(this.user);
+
+    this.user.userSchedToXML(this.directory + File.separator);
+    this.xmlPath = this.directory.resolve(USER_NAME + "_schedule.xml").toString();
+    this.xmlBytes = Files.size(Path.of(this.xmlPath));
+    this.snapshotPath = this.directory.resolve("planner.snapshot").toString();
+    PlannerSnapshot.write(this.planner, this.snapshotPath);
+    this.snapshotBytes = Files.size(Path.of(this.snapshotPath));
+
+    Files.createDirectory(this.directory.resolve("out"));
+    this.outputDirectory = this.directory.resolve("out") + File.separator;
+  }
+
+  /**
+   * Deletes the generated files.
+   */
+  @TearDown(Level.Trial)
+  public void tearDown() throws IOException {
+    try (Stream<Path> files = Files.walk(this.directory)) {
+      for (Path file : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+        Files.delete(file);
+      }
+    }
+  }
+
+  /**
+   * Reads the XML file into a document, then turns the document into events.
+   *
+   * @param processed counts the bytes and events read
+   * @return the events
+   */
+  @Benchmark
+  public List<IEvent> readXml(Processed processed) {
+    List<IEvent> events = User.interpretXML(UtilsXML.readXML(this.xmlPath));
+    processed.add(this.xmlBytes, events.size());
+    return events;
+  }
+
+  /**
+   * Reads the events of the XML file one at a time, without building a document.
+   *
+   * @param processed counts the bytes and events read
+   * @return the number of events read
+   */
+  @Benchmark
+  public long streamXml(Processed processed) {
+    long count;
+    try (Stream<IEvent> events = UtilsXML.streamEvents(this.xmlPath)) {
+      count = events.count();
+    }
+    processed.add(this.xmlBytes, count);
+    return count;
+  }
+
+  /**
+   * Writes the schedule as an XML file, one event at a time.
+   *
+   * @param processed counts the bytes and events written
+   */
+  @Benchmark
+  public void writeXml(Processed processed) {
+    this.user.userSchedToXML(this.outputDirectory);
+    processed.add(this.xmlBytes, this.eventsPerSchedule);
+  }
+
+  /**
+   * Writes the schedule as an XML file after building all of it as a String.
+   *
+   * @param processed counts the bytes and events written
+   */
+  @Benchmark
+  public void writeXmlString(Processed processed) {
+    UtilsXML.writeToFile(this.outputDirectory + USER_NAME + "_schedule.xml", USER_NAME,
+            this.user.getSchedule().scheduleToXMLFormat());
+    processed.add(this.xmlBytes, this.eventsPerSchedule);
+  }
+
+  /**
+   * Reads the snapshot into a new planner.
+   *
+   * @param processed counts the bytes and events read
+   * @return the planner
+   */
+  @Benchmark
+  public PlannerSystem readSnapshot(Processed processed) {
+    PlannerSystem read = PlannerSnapshot.read(this.snapshotPath);
+    processed.add(this.snapshotBytes, this.eventsPerSchedule);
+    return read;
+  }
+
+  /**
+   * Maps the snapshot into memory and reads the user's events from it.
+   *
+   * @param processed counts the bytes and events read
+   * @return the events
+   */
+  @Benchmark
+  public List<IEvent> mapSnapshot(Processed processed) {
+    MappedPlanner mapped = new MappedPlanner(this.snapshotPath);
+    List<IEvent> events = mapped.retrieveUserEvents(mapped.getUser(USER_NAME));
+    processed.add(this.snapshotBytes, events.size());
+    return events;
+  }
+
+  /**
+   * Writes a snapshot of the planner.
+   *
+   * @param processed counts the bytes and events written
+   */
+  @Benchmark
+  public void writeSnapshot(Processed processed) {
+    PlannerSnapshot.write(this.planner, this.outputDirectory + "planner.snapshot");
+    processed.add(this.snapshotBytes, this.eventsPerSchedule);
+  }
+
+  /**
+   * Runs these benchmarks with the GC profiler, so the allocation of each operation is
+   * reported next to its throughput. Any arguments are passed on to JMH, e.g.
+   * "-p eventsPerSchedule=5000" for schedules of a different size.
+   *
+   * @param args command line options for JMH
+   * @throws CommandLineOptionException if the arguments are not valid options
+   * @throws RunnerException if the benchmarks can't be run
+   */
+  public static void main(String[] args) throws CommandLineOptionException, RunnerException {
+    Workloads.runWithGcProfiler(PersistenceBenchmark.class, args);
+  }
+}
@@ -0,0 +1,108 @@
+package benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import model.Event;
+import model.IEvent;
+import model.IUser;
+import model.NUPlanner;
+import model.Schedule;
+import model.User;
+
+/**
+ * Measures adding events for their invitees through the planner, for planners with different
+ * numbers of users, schedules of different sizes and events with different numbers of
+ * invitees.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class PlannerBenchmark {
+  // number of different meetings added, in turn
+  private static final int MEETINGS = 64;
+
+  @Param({"16", "256"})
+  public int usersPerPlanner;
+
+  @Param({"16", "256", "2048"})
+  public int eventsPerSchedule;
+
+  // capped at the number of users in the planner
+  @Param({"1", "8", "64"})
+  public int inviteesPerEvent;
+
+  private NUPlanner planner;
+  private List<IEvent> meetings;
+  private List<IUser> hosts;
+  private int cursor;
+
+  /**
+   * Fills a planner with users whose schedules each hold the events of the grid, and makes
+   * meetings in the free parts of the grid, each with a different set of invitees.
+   */
+  @Setup
+  public void setUp() {
+    List<String> names = Workloads.userNames(this.usersPerPlanner);
+    this.planner = new NUPlanner();
+    for (String name : names) {
+      this.planner.addUser(new User(name,
+              new Schedule(Workloads.gridEvents(this.eventsPerSchedule, List.of(name)))));
+    }
+
+    int invitees = Math.min(this.inviteesPerEvent, this.usersPerPlanner);
+    List<IEvent> gaps = Workloads.gapEvents(this.eventsPerSchedule, names);
+    this.meetings = new ArrayList<>(MEETINGS);
+    this.hosts = new ArrayList<>(MEETINGS);
+    for (int idx = 0; idx < MEETINGS; idx++) {
+      List<String> meetingInvitees = new ArrayList<>(invitees);
+      for (int invitee = 0; invitee < invitees; invitee++) {
+        meetingInvitees.add(names.get((idx + invitee) % names.size()));
+      }
+      IEvent gap = gaps.get(idx % gaps.size());
+      this.meetings.add(new Event("meeting " + idx, gap.getStartTime(),
+              gap.getEndTime(), true, "Zoom", meetingInvitees));
+      this.hosts.add(this.planner.getUser(meetingInvitees.get(0)));
+    }
+  }
+
+  /**
+   * Adds a meeting for its invitees, then has its host remove it again so the planner keeps
+   * its size.
+   *
+   * @return the planner
+   */
+  @Benchmark
+  public NUPlanner addEventForRelevantUsers() {
+    int idx = this.next();
+    this.planner.addEventForRelevantUsers(this.meetings.get(idx));
+    this.planner.removeEventForRelevantUsers(this.meetings.get(idx), this.hosts.get(idx));
+    return this.planner;
+  }
+
+  /**
+   * Moves on to the next meeting, going back to the first after the last.
+   *
+   * @return index of the meeting
+   */
+  private int next() {
+    this.cursor = this.cursor + 1 < MEETINGS ? this.cursor + 1 : 0;
+    return this.cursor;
+  }
+}
@@ -0,0 +1,137 @@
+package benchmark;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+
+import model.NUPlanner;
+import model.ReadOnlyPlanner;
+import model.Schedule;
+import model.User;
+import view.PlannerPanel;
+
+/**
+ * Measures painting a user's schedule in a planner panel, into an image off screen, so it
+ * can be run on a machine without a display. Every benchmark paints a whole frame. Run with
+ * the GC profiler, as {@link #main(String[])} does, to also see the bytes allocated for each
+ * frame.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = "-Djava.awt.headless=true")
+@State(Scope.Thread)
+public class RenderBenchmark {
+  private static final String USER_NAME = "user0";
+  // size of the panel, about that of the planner's window
+  private static final int WIDTH = 700;
+  private static final int HEIGHT = 800;
+
+  @Param({"10", "100", "1000", "10000"})
+  public int eventsPerSchedule;
+
+  private OffscreenPanel panel;
+  private BufferedImage image;
+
+  /**
+   * Planner panel whose schedule can be painted without the rest of the panel.
+   */
+  private static final class OffscreenPanel extends PlannerPanel {
+    /**
+     * Creates a panel showing the schedule of the given user.
+     *
+     * @param model planner holding the user
+     * @param userName name of the user to show
+     */
+    OffscreenPanel(ReadOnlyPlanner model, String userName) {
+      super(model);
+      this.selectUserButton.setSelectedItem(userName);
+      this.setCurrentUser();
+    }
+
+    /**
+     * Paints the grid and the user's events, the way Swing does when the panel is repainted.
+     *
+     * @param g graphics to paint with
+     */
+    void paintSchedule(Graphics2D g) {
+      this.paintComponent(g);
+    }
+  }
+
+  /**
+   * Makes a panel showing a user with the given number of events, laid out at the size of the
+   * image it is painted into. The events may overlap, so a schedule can hold more of them
+   * than fit in a week.
+   */
+  @Setup
+  public void setUp() {
+    NUPlanner planner = new NUPlanner();
+    planner.addUser(new User(USER_NAME, new Schedule(
+            Workloads.denseEvents(this.eventsPerSchedule, Workloads.userNames(1)))));
+    this.panel = new OffscreenPanel(planner, USER_NAME);
+    this.panel.setSize(WIDTH, HEIGHT);
+    this.panel.doLayout();
+    this.image = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_ARGB);
+  }
+
+  /**
+   * Paints the grid and the user's events.
+   *
+   * @return the image painted into
+   */
+  @Benchmark
+  public BufferedImage paintSchedule() {
+    Graphics2D g = this.image.createGraphics();
+    try {
+      this.panel.paintSchedule(g);
+    } finally {
+      g.dispose();
+    }
+    return this.image;
+  }
+
+  /**
+   * Paints the whole panel, its menu and buttons included.
+   *
+   * @return the image painted into
+   */
+  @Benchmark
+  public BufferedImage paintPanel() {
+    Graphics2D g = this.image.createGraphics();
+    try {
+      this.panel.paint(g);
+    } finally {
+      g.dispose();
+    }
+    return this.image;
+  }
+
+  /**
+   * Runs these benchmarks with the GC profiler, so the bytes allocated for each frame are
+   * reported next to the time it takes. Any arguments are passed on to JMH, e.g.
+   * "-p eventsPerSchedule=5000" for schedules of a different size.
+   *
+   * @param args command line options for JMH
+   * @throws CommandLineOptionException if the arguments are not valid options
+   * @throws RunnerException if the benchmarks can't be run
+   */
+  public static void main(String[] args) throws CommandLineOptionException, RunnerException {
+    Workloads.runWithGcProfiler(RenderBenchmark.class, args);
+  }
+}
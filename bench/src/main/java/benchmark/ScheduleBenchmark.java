@@ -0,0 +1,135 @@
+package benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import model.IEvent;
+import model.ITime;
+import model.Schedule;
+
+/**
+ * Measures adding, removing and looking up events in a single schedule, for schedules of
+ * different sizes.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class ScheduleBenchmark {
+  // number of random times looked up, in turn
+  private static final int PROBES = 1024;
+
+  @Param({"16", "256", "2048"})
+  public int eventsPerSchedule;
+
+  private List<IEvent> events;
+  private List<IEvent> gaps;
+  private ITime[] probes;
+  private Schedule schedule;
+  private int cursor;
+
+  /**
+   * Fills a schedule with the events of the grid.
+   */
+  @Setup
+  public void setUp() {
+    List<String> invitees = Workloads.userNames(1);
+    this.events = Workloads.gridEvents(this.eventsPerSchedule, invitees);
+    this.gaps = Workloads.gapEvents(this.eventsPerSchedule, invitees);
+    this.probes = Workloads.randomTimes(PROBES);
+    this.schedule = new Schedule(new ArrayList<>(this.events));
+  }
+
+  /**
+   * Adds every event of the grid to an empty schedule, one at a time.
+   *
+   * @return the filled schedule
+   */
+  @Benchmark
+  public Schedule fillSchedule() {
+    Schedule filled = new Schedule(new ArrayList<>());
+    for (IEvent event : this.events) {
+      filled.addEvent(event);
+    }
+    return filled;
+  }
+
+  /**
+   * Adds an event into a free part of the full schedule, then removes it again so the
+   * schedule keeps its size.
+   *
+   * @return the schedule
+   */
+  @Benchmark
+  public Schedule addEvent() {
+    IEvent gap = this.gaps.get(this.next(this.gaps.size()));
+    this.schedule.addEvent(gap);
+    this.schedule.removeEvent(gap);
+    return this.schedule;
+  }
+
+  /**
+   * Removes an event from the full schedule, then adds it back again so the schedule keeps
+   * its size.
+   *
+   * @return the schedule
+   */
+  @Benchmark
+  public Schedule removeEvent() {
+    IEvent event = this.events.get(this.next(this.events.size()));
+    this.schedule.removeEvent(event);
+    this.schedule.addEvent(event);
+    return this.schedule;
+  }
+
+  /**
+   * Tries to add an event that overlaps one already in the full schedule.
+   *
+   * @return whether the event was turned down, which it always is
+   */
+  @Benchmark
+  public boolean addOverlappingEvent() {
+    try {
+      this.schedule.addEvent(this.events.get(this.next(this.events.size())));
+      return false;
+    } catch (IllegalArgumentException ex) {
+      return true;
+    }
+  }
+
+  /**
+   * Looks up the event at a random time of the week in the full schedule.
+   *
+   * @return the event found, null if none
+   */
+  @Benchmark
+  public IEvent eventOccurring() {
+    return this.schedule.eventOccurring(this.probes[this.next(PROBES)]);
+  }
+
+  /**
+   * Moves on to the next item of a list, going back to the first after the last.
+   *
+   * @param size number of items in the list
+   * @return index of the item
+   */
+  private int next(int size) {
+    this.cursor = this.cursor + 1 < size ? this.cursor + 1 : 0;
+    return this.cursor;
+  }
+}
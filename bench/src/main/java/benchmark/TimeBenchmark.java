@@ -0,0 +1,83 @@
+package benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import model.ITime;
+import model.Time;
+
+/**
+ * Measures comparing times and reading them from the day and HHMM strings of the XML files.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class TimeBenchmark {
+  // number of times used, cycled through with a mask
+  private static final int TIMES = 1024;
+
+  private ITime[] times;
+  private String[] days;
+  private String[] hhmm;
+  private int cursor;
+
+  /**
+   * Picks random times, and writes each one out the way the XML files do.
+   */
+  @Setup
+  public void setUp() {
+    this.times = Workloads.randomTimes(TIMES);
+    this.days = new String[TIMES];
+    this.hhmm = new String[TIMES];
+    for (int idx = 0; idx < TIMES; idx++) {
+      this.days[idx] = this.times[idx].getDate().getDayString();
+      this.hhmm[idx] = String.format("%02d%02d", this.times[idx].getHours(),
+              this.times[idx].getMinutes());
+    }
+  }
+
+  /**
+   * Compares two random times.
+   *
+   * @return the outcome of the comparison
+   */
+  @Benchmark
+  public int compareTimes() {
+    int idx = this.next();
+    return this.times[idx].compareTimes(this.times[(idx + 1) & (TIMES - 1)]);
+  }
+
+  /**
+   * Reads a random time from its day and HHMM strings.
+   *
+   * @return the time
+   */
+  @Benchmark
+  public Time stringToTime() {
+    int idx = this.next();
+    return Time.stringToTime(this.days[idx], this.hhmm[idx]);
+  }
+
+  /**
+   * Moves on to the next time, going back to the first after the last.
+   *
+   * @return index of the time
+   */
+  private int next() {
+    this.cursor = (this.cursor + 1) & (TIMES - 1);
+    return this.cursor;
+  }
+}
@@ -0,0 +1,193 @@
+package benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import model.Event;
+import model.IEvent;
+import model.ITime;
+import model.Time;
+
+/**
+ * Builds the schedules and events the benchmarks work on. Events are laid out on a grid over
+ * the week: the week is cut into as many equal slots as there are events, each event takes up
+ * the start of its slot, and the middle of every slot is left free so events can be added
+ * there without overlapping anything. Also runs benchmarks with the GC profiler.
+ *
+ * <p> Times are only made with the {@link Time} constructor, so the same workloads can be run
+ * against older versions of the model. </p>
+ */
+final class Workloads {
+  // seed for every random choice, so runs measure the same workload
+  static final long SEED = 3500;
+  // minutes in each event that may overlap others
+  private static final int DENSE_LENGTH = 30;
+  private static final int MINUTES_PER_DAY = 24 * 60;
+  private static final int MINUTES_PER_WEEK = 7 * MINUTES_PER_DAY;
+  // days of the week, Sunday first
+  private static final Time.Day[] DAYS = Time.Day.values();
+
+  private Workloads() {
+  }
+
+  /**
+   * Makes the names of the given number of users.
+   *
+   * @param count number of users
+   * @return the names, user0 first
+   */
+  static List<String> userNames(int count) {
+    List<String> names = new ArrayList<>(count);
+    for (int idx = 0; idx < count; idx++) {
+      names.add("user" + idx);
+    }
+    return names;
+  }
+
+  /**
+   * Makes events filling the start of each slot of the grid, in order of start time.
+   *
+   * @param count number of events, at most a quarter of the minutes in a week
+   * @param invitees invitees of every event, host first
+   * @return the events
+   */
+  static ArrayList<IEvent> gridEvents(int count, List<String> invitees) {
+    ArrayList<IEvent> events = new ArrayList<>(count);
+    for (int idx = 0; idx < count; idx++) {
+      events.add(event("event " + idx, slotStart(idx, count), count, invitees));
+    }
+    return events;
+  }
+
+  /**
+   * Makes events in the free middle of each slot of the grid, in order of start time.
+   *
+   * @param count number of events in the grid
+   * @param invitees invitees of every event, host first
+   * @return the events
+   */
+  static ArrayList<IEvent> gapEvents(int count, List<String> invitees) {
+    ArrayList<IEvent> events = new ArrayList<>(count);
+    for (int idx = 0; idx < count; idx++) {
+      events.add(event("gap " + idx, slotStart(idx, count) + slotLength(count) / 2, count,
+              invitees));
+    }
+    return events;
+  }
+
+  /**
+   * Makes half hour events spread over the whole week, as many as asked for. Unlike the grid,
+   * the events may overlap each other, so there can be more of them than fit in a week. Such
+   * a schedule can still be written out and read back, as neither checks for overlaps.
+   *
+   * @param count number of events
+   * @param invitees invitees of every event, host first
+   * @return the events, in no particular order of start time
+   */
+  static ArrayList<IEvent> denseEvents(int count, List<String> invitees) {
+    Random random = new Random(SEED);
+    ArrayList<IEvent> events = new ArrayList<>(count);
+    for (int idx = 0; idx < count; idx++) {
+      int start = random.nextInt(MINUTES_PER_WEEK - DENSE_LENGTH);
+      events.add(new Event("event " + idx, time(start), time(start + DENSE_LENGTH),
+              idx % 2 == 0, "Churchill Hall 101", invitees));
+    }
+    return events;
+  }
+
+  /**
+   * Picks random times of the week.
+   *
+   * @param count number of times
+   * @return the times
+   */
+  static ITime[] randomTimes(int count) {
+    Random random = new Random(SEED);
+    ITime[] times = new ITime[count];
+    for (int idx = 0; idx < count; idx++) {
+      times[idx] = time(random.nextInt(MINUTES_PER_WEEK));
+    }
+    return times;
+  }
+
+  /**
+   * Makes an event starting at the given minute of the week, as long as an event on a grid of
+   * the given number of slots.
+   *
+   * @param name name of the event
+   * @param start minute of the week the event starts at
+   * @param count number of slots in the grid
+   * @param invitees invitees of the event, host first
+   * @return the event
+   */
+  private static IEvent event(String name, int start, int count, List<String> invitees) {
+    int length = Math.max(1, slotLength(count) / 4);
+    return new Event(name, time(start), time(start + length), false, "Churchill Hall 101",
+            invitees);
+  }
+
+  /**
+   * Makes the time at the given minute of the week.
+   *
+   * @param minuteOfWeek minutes since Sunday @00:00, before the end of the week
+   * @return the time
+   */
+  private static ITime time(int minuteOfWeek) {
+    return new Time(DAYS[minuteOfWeek / MINUTES_PER_DAY],
+            minuteOfWeek % MINUTES_PER_DAY / 60, minuteOfWeek % 60);
+  }
+
+  /**
+   * Finds the minute of the week a slot of the grid starts at.
+   *
+   * @param idx index of the slot
+   * @param count number of slots in the grid
+   * @return the first minute of the slot
+   */
+  private static int slotStart(int idx, int count) {
+    return idx * slotLength(count);
+  }
+
+  /**
+   * Finds how long each slot of the grid is.
+   *
+   * @param count number of slots in the grid
+   * @return minutes in a slot
+   * @throws IllegalArgumentException if the slots would be too short to leave a free middle
+   */
+  private static int slotLength(int count) {
+    int length = MINUTES_PER_WEEK / count;
+    if (length < 4) {
+      throw new IllegalArgumentException("Too many events for a week: " + count);
+    }
+    return length;
+  }
+
+  /**
+   * Runs the benchmarks of the given class with the GC profiler, so the bytes allocated for
+   * each operation are reported next to its time or throughput.
+   *
+   * @param benchmark class holding the benchmarks
+   * @param args command line options for JMH, e.g. "-p eventsPerSchedule=5000"
+   * @throws CommandLineOptionException if the arguments are not valid options
+   * @throws RunnerException if the benchmarks can't be run
+   */
+  static void runWithGcProfiler(Class<?> benchmark, String[] args)
+          throws CommandLineOptionException, RunnerException {
+    Options options = new OptionsBuilder()
+            .parent(new CommandLineOptions(args))
+            .include(benchmark.getSimpleName())
+            .addProfiler(GCProfiler.class)
+            .build();
+    new Runner(options).run();
+  }
+}
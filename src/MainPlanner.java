@@ -8,6 +8,7 @@ import model.IEvent;
 import model.NUPlanner;
 import model.PlannerSystem;
 import model.Schedule;
+import model.ScheduleLoadResult;
 import model.Time;
 import model.User;
 import view.EventView;
@@ -53,6 +54,13 @@ public class MainPlanner {
             new Schedule(new ArrayList<>(List.of(morningSnack, officeHours, sleep)))));
     model.addUser(new User("Me", new Schedule(new ArrayList<>(List.of(officeHours)))));
 
+    // a directory of exported schedules can be given to start the planner with
+    if (args.length > 0) {
+      for (ScheduleLoadResult result : model.loadSchedules(args[0])) {
+        System.out.println(result);
+      }
+    }
+
     IScheduleView schedView = new ScheduleView(model);
     IEventView eView = new EventView(model);
     IScheduleTextView tView = new ScheduleTextView(model, new StringBuilder());
@@ -0,0 +1,32 @@
+import controller.PlannerServer;
+import model.ConcurrentPlanner;
+import model.ScheduleLoadResult;
+
+/**
+ * Represents the class that runs the calendar system as a headless server, which other
+ * programs on the same machine talk to over the line protocol of {@link PlannerServer}.
+ */
+public class MainServer {
+  // port used when none is given
+  private static final int DEFAULT_PORT = 8189;
+
+  /**
+   * Main method to start the planner server. Runs until the process is stopped.
+   * @param args the port to listen on, optionally followed by a directory of exported
+   *             schedules to start the planner with
+   */
+  public static void main(String[] args) {
+    ConcurrentPlanner model = new ConcurrentPlanner();
+    if (args.length > 1) {
+      for (ScheduleLoadResult result : model.loadSchedules(args[1])) {
+        System.out.println(result);
+      }
+    }
+
+    PlannerServer server = new PlannerServer(model,
+            args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT);
+    Runtime.getRuntime().addShutdownHook(new Thread(server::close));
+    server.start();
+    System.out.println("Planner server listening on port " + server.getPort());
+  }
+}
@@ -1,18 +1,32 @@
 package controller;
 
 import java.util.HashMap;
+import java.util.List;
+import model.EventAddResult;
+import model.EventConflictException;
 import model.IEvent;
 import model.ITime;
+import model.IUser;
 import model.PlannerSystem;
+import model.Time;
 import view.IEventView;
 import view.IScheduleTextView;
 import view.IScheduleView;
 
+import static model.User.makeEvent;
+
 /**
  * Controller to control the functions of the Simon Game.
  */
 public class Controller implements ViewFeatures {
 
+  // how long a newly scheduled event lasts until the user changes it
+  private static final int SCHEDULED_EVENT_MINUTES = 60;
+
+  private final PlannerSystem model;
+
+  private final OperationLog log;
+
   private IScheduleView scheduleView;
 
   private IEventView eventView;
@@ -25,7 +39,18 @@ public class Controller implements ViewFeatures {
    * @param model model of calendar implementations reflected by controller
    */
   public Controller(PlannerSystem model) {
-    // creates a controller using given model
+    this(model, OperationLog.console());
+  }
+
+  /**
+   * Creates an instance of a Calendar Controller that responds to user input via mouse clicks
+   * or button presses, recording the changes users make in the given log.
+   * @param model model of calendar implementations reflected by controller
+   * @param log log to record the operations in
+   */
+  public Controller(PlannerSystem model, OperationLog log) {
+    this.model = model;
+    this.log = log;
   }
 
   /**
@@ -125,6 +150,31 @@ public class Controller implements ViewFeatures {
     eventView.resetPanel(host);
   }
 
+  /**
+   * Delegates to the view of the event to create empty fields in the panel, and to the model
+   * to find the earliest time the host is free for an event, which is filled in the panel.
+   * The time can be found again once more invitees are chosen, with {@link #findEventTime()}.
+   *
+   * @param host host of the event
+   */
+  public void scheduleEventView(String host) {
+    eventView.resetPanel(host);
+    this.findEventTime();
+  }
+
+  /**
+   * Delegates to the model to find the earliest time every invitee chosen in the view of the
+   * event is free, which is filled in the panel. Nothing is filled in if there is no such time.
+   */
+  public void findEventTime() {
+    ITime start = model.findFreeSlot(List.of(eventView.getUsersInput()),
+            SCHEDULED_EVENT_MINUTES);
+    if (start != null) {
+      eventView.fillTimes(start,
+              Time.ofMinuteOfWeek(start.minuteOfWeek() + SCHEDULED_EVENT_MINUTES));
+    }
+  }
+
   /**
    * Delegates to the view fo the even to populate the fields in the panel
    * with the event information given.
@@ -142,56 +192,104 @@ public class Controller implements ViewFeatures {
   }
 
   /**
-   * Delegate to the view of the event to take in a current event as a map of its contents
-   * and modify it.
-   * @param event a String of content tags to a String[] of content values
+   * Delegates to the model to modify the event with the given ID into the given event.
+   * @param eventId ID of the event being modified
+   * @param newEvent what the event should be modified to
    */
-  public void modifyEvent(IEvent event) {
+  public void modifyEvent(long eventId, IEvent newEvent) {
+    String host = newEvent.getUsers().get(0);
+    long start = System.nanoTime();
     try {
-      eventView.modifyEvent(event);
+      model.modifyEvent(eventId, newEvent);
+      this.record(OperationRecord.Operation.MODIFY_EVENT, host, eventId,
+              OperationRecord.Outcome.SUCCEEDED, start, newEvent.getEventName());
+    }
+    catch (EventConflictException exc) {
+      String message = "Error in modifying event: "
+              + String.join(", ", exc.getConflictingUsers()) + " can't attend.";
+      this.record(OperationRecord.Operation.MODIFY_EVENT, host, eventId,
+              OperationRecord.Outcome.FAILED, start, message);
+      throw new IllegalArgumentException(message);
     }
     catch (IllegalArgumentException | NullPointerException exc) {
-      throw new IllegalArgumentException("Error in modifying event: " +
-              "given event not part of system.");
+      String message = "Error in modifying event: given event not part of system.";
+      this.record(OperationRecord.Operation.MODIFY_EVENT, host, eventId,
+              OperationRecord.Outcome.FAILED, start, message);
+      throw new IllegalArgumentException(message);
     }
   }
 
   /**
-   * Delegates to the model to remove the given event from the relevant schedules
+   * Delegates to the model to remove the event with the given ID from the relevant schedules
    * depending on the current user.
-   * @param eventToRemove event that the model should remove.
+   * @param eventId ID of the event that the model should remove.
    */
-  public void removeEvent(IEvent eventToRemove) {
+  public void removeEvent(long eventId) {
+    long start = System.nanoTime();
+    String userName = null;
     try {
-      ITime startTime = eventToRemove.getStartTime();
+      IEvent eventToRemove = model.getEvent(eventId);
+      IUser currentUser = scheduleView.getCurrentUser();
+      userName = currentUser.getName();
       IEvent userEventAtStartTime =
-              scheduleView.getCurrentUser().getSchedule().eventOccurring(startTime);
-      System.out.println("user event at time: "
-              + scheduleTextView.eventToString(userEventAtStartTime));
-      System.out.println("event to remove: "
-              + scheduleTextView.eventToString(eventToRemove));
+              currentUser.getSchedule().eventOccurring(eventToRemove.getStartTime());
       if (eventToRemove.equals(userEventAtStartTime)) {
-        System.out.println("Remove event: ");
-        System.out.println("User from which event is being removed: "
-                + scheduleView.getCurrentUser().getName());
-        System.out.println(scheduleTextView.eventToString(eventToRemove));
-      }
-      else {
-        System.out.println("Error in removing event: Given event not part of system, check inputs");
+        model.removeEventForRelevantUsers(eventId, currentUser);
+        this.record(OperationRecord.Operation.REMOVE_EVENT, userName, eventId,
+                OperationRecord.Outcome.SUCCEEDED, start, eventToRemove.getEventName());
+        return;
       }
     }
     catch (NullPointerException | IllegalArgumentException ignored) {
-      System.out.println("Error in removing event: Given event not part of system, check inputs");
-
+      // reported below, like an event the user does not hold
     }
+    this.record(OperationRecord.Operation.REMOVE_EVENT, userName, eventId,
+            OperationRecord.Outcome.FAILED, start,
+            "Error in removing event: Given event not part of system, check inputs");
   }
 
   /**
-   * Delegate to the view of the event and create a new event.
+   * Delegates to the model to add the event filled in the view of the event for its invitees.
+   * The event counts as created if at least one invitee could take it, and the invitees who
+   * could not are named in the record of the operation.
    */
   @Override
   public void createEvent() {
-    eventView.createEvent();
+    long start = System.nanoTime();
+    IEvent event;
+    try {
+      event = makeEvent(eventView.storeOpenedEventMap());
+    }
+    catch (NullPointerException | IllegalArgumentException | IndexOutOfBoundsException exc) {
+      this.record(OperationRecord.Operation.CREATE_EVENT, null, IEvent.NO_ID,
+              OperationRecord.Outcome.FAILED, start,
+              "Could not create event: Event info not fully entered or error in given values");
+      return;
+    }
+    String host = event.getUsers().isEmpty() ? null : event.getUsers().get(0);
+    EventAddResult result = model.addEventsForRelevantUsers(List.of(event)).get(0);
+    if (!result.accepted()) {
+      String reason = result.getFailure();
+      if (reason == null && !result.getRejectedBy().isEmpty()) {
+        reason = String.join(", ", result.getRejectedBy()) + " can't attend";
+      }
+      else if (reason == null && result.getEvent().getId() != IEvent.NO_ID) {
+        // only an event the planner already has comes back with an ID
+        reason = "every invitee already has the event";
+      }
+      else if (reason == null) {
+        reason = "none of the invitees are users";
+      }
+      this.record(OperationRecord.Operation.CREATE_EVENT, host, IEvent.NO_ID,
+              OperationRecord.Outcome.FAILED, start, "Could not create event: " + reason);
+      return;
+    }
+    String detail = event.getEventName();
+    if (!result.getRejectedBy().isEmpty()) {
+      detail += "; " + String.join(", ", result.getRejectedBy()) + " can't attend";
+    }
+    this.record(OperationRecord.Operation.CREATE_EVENT, host, result.getEvent().getId(),
+            OperationRecord.Outcome.SUCCEEDED, start, detail);
   }
 
   /**
@@ -212,11 +310,42 @@ public class Controller implements ViewFeatures {
   }
 
   /**
-   * Delegate to the view of the schedule to save the calendar info to the planner system.
+   * Delegate to the view of the schedule to pick where to save the calendars, and to the model
+   * to save the schedules that changed since they were last saved there.
    */
   @Override
   public void saveCalendars() {
-    scheduleView.saveCalendarInfo();
+    String folder = scheduleView.saveCalendarInfo();
+    if (folder != null) {
+      long start = System.nanoTime();
+      try {
+        int saved = model.saveChangedSchedules(folder);
+        this.record(OperationRecord.Operation.SAVE_SCHEDULES, null, IEvent.NO_ID,
+                OperationRecord.Outcome.SUCCEEDED, start, "Saved schedules: " + saved);
+      }
+      catch (RuntimeException exc) {
+        this.record(OperationRecord.Operation.SAVE_SCHEDULES, null, IEvent.NO_ID,
+                OperationRecord.Outcome.FAILED, start, "Error in saving schedules: "
+                        + exc.getMessage());
+        throw exc;
+      }
+    }
+  }
+
+  /**
+   * Records an operation that has just finished in the log, without waiting for it to be
+   * written.
+   * @param operation the operation
+   * @param userName name of the user carrying it out, null if not known
+   * @param eventId ID of the event it was carried out on
+   * @param outcome whether it worked
+   * @param startNanos value of {@link System#nanoTime()} when the operation started
+   * @param detail what was done, or why it failed
+   */
+  private void record(OperationRecord.Operation operation, String userName, long eventId,
+                      OperationRecord.Outcome outcome, long startNanos, String detail) {
+    this.log.record(new OperationRecord(operation, userName, eventId, outcome,
+            System.nanoTime() - startNanos, detail));
   }
 
 }
@@ -0,0 +1,249 @@
+package controller;
+
+import java.io.Flushable;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Predicate;
+
+/**
+ * Log of the operations users carry out through the planner. Records are handed over through
+ * a fixed size ring buffer without taking a lock, and a background thread writes them out one
+ * per line, so recording an operation never waits for the output. If the buffer is full, e.g.
+ * because the output is stuck, new records are dropped and counted instead of waiting. The
+ * writer sleeps while there is nothing to write, and is only woken by the record handed over
+ * when the buffer was empty.
+ *
+ * <p> The most recent records written are also kept in memory, and can be looked up with
+ * {@link #getRecords()} and {@link #query(Predicate)}. </p>
+ */
+public class OperationLog {
+  // records that can wait to be written, a power of two
+  private static final int DEFAULT_CAPACITY = 1024;
+  // records kept in memory once written
+  private static final int HISTORY_LIMIT = 10_000;
+  // how long flush waits before checking again whether the records are written
+  private static final long FLUSH_POLL_NANOS = 100_000;
+  // set in the tail once the log is closed, after which no more slots are claimed
+  private static final long CLOSED = Long.MIN_VALUE;
+
+  private final Appendable out;
+  private final AtomicReferenceArray<OperationRecord> ring;
+  private final int mask;
+  // sequence number of the next record to claim a slot, with CLOSED set once the log is
+  // closed, and of the next record to write
+  private final AtomicLong tail;
+  private final AtomicLong head;
+  private final LongAdder dropped;
+  private final Deque<OperationRecord> history;
+  private final Thread writer;
+
+  /**
+   * Holds the log shared by everything writing to the console, made the first time it is used.
+   */
+  private static final class Console {
+    private static final OperationLog LOG = new OperationLog(System.out);
+  }
+
+  /**
+   * Creates a log writing to the given output, and starts its writer.
+   *
+   * @param out where to write the records
+   * @param capacity number of records that can wait to be written, a power of two
+   * @throws IllegalArgumentException if the capacity is not a positive power of two
+   */
+  public OperationLog(Appendable out, int capacity) {
+    if (capacity <= 0 || Integer.bitCount(capacity) != 1) {
+      throw new IllegalArgumentException("Capacity must be a positive power of two");
+    }
+    this.out = out;
+    this.ring = new AtomicReferenceArray<>(capacity);
+    this.mask = capacity - 1;
+    this.tail = new AtomicLong();
+    this.head = new AtomicLong();
+    this.dropped = new LongAdder();
+    this.history = new ArrayDeque<>();
+    this.writer = new Thread(this::writeRecords, "operation-log");
+    this.writer.setDaemon(true);
+    this.writer.start();
+  }
+
+  /**
+   * Creates a log writing to the given output, and starts its writer.
+   *
+   * @param out where to write the records
+   */
+  public OperationLog(Appendable out) {
+    this(out, DEFAULT_CAPACITY);
+  }
+
+  /**
+   * Observes the log writing to the console, shared by every view and controller that is not
+   * given a log of its own.
+   *
+   * @return the console log
+   */
+  public static OperationLog console() {
+    return Console.LOG;
+  }
+
+  /**
+   * Hands a record over to be written. Never waits.
+   *
+   * @param record the record
+   * @return true if the record will be written, false if it was dropped because the buffer is
+   *         full or the log is closed
+   */
+  public boolean record(OperationRecord record) {
+    long seq;
+    do {
+      seq = this.tail.get();
+      // a closed log has CLOSED set in its tail, so it never claims another slot
+      if ((seq & CLOSED) != 0 || seq - this.head.get() > this.mask) {
+        this.dropped.increment();
+        return false;
+      }
+    } while (!this.tail.compareAndSet(seq, seq + 1));
+    this.ring.set((int) seq & this.mask, record);
+    // the writer has written everything before this record, so it may be asleep
+    if (this.head.get() == seq) {
+      LockSupport.unpark(this.writer);
+    }
+    return true;
+  }
+
+  /**
+   * Waits until every record handed over before the call is written, or the log is closed.
+   * Should not be called from the UI thread.
+   */
+  public void flush() {
+    long target = this.tail.get() & ~CLOSED;
+    while (this.head.get() < target && this.writer.isAlive()) {
+      LockSupport.parkNanos(FLUSH_POLL_NANOS);
+    }
+  }
+
+  /**
+   * Writes every record handed over so far, then stops the writer. Records handed over
+   * afterwards are dropped.
+   */
+  public void close() {
+    long seq = this.tail.get();
+    while ((seq & CLOSED) == 0 && !this.tail.compareAndSet(seq, seq | CLOSED)) {
+      seq = this.tail.get();
+    }
+    LockSupport.unpark(this.writer);
+    try {
+      this.writer.join();
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /**
+   * Observes how many records were dropped.
+   *
+   * @return the number of records that were never written
+   */
+  public long getDropped() {
+    return this.dropped.sum();
+  }
+
+  /**
+   * Observes the most recent records written, up to the last 10,000.
+   *
+   * @return the records, oldest first
+   */
+  public List<OperationRecord> getRecords() {
+    synchronized (this.history) {
+      return new ArrayList<>(this.history);
+    }
+  }
+
+  /**
+   * Finds the most recent records written that match the given condition, among the last
+   * 10,000.
+   *
+   * @param condition condition the records should match
+   * @return the matching records, oldest first
+   */
+  public List<OperationRecord> query(Predicate<OperationRecord> condition) {
+    List<OperationRecord> found = new ArrayList<>();
+    for (OperationRecord record : this.getRecords()) {
+      if (condition.test(record)) {
+        found.add(record);
+      }
+    }
+    return found;
+  }
+
+  /**
+   * Writes records as they are handed over, until the log is closed and every record handed
+   * over is written.
+   */
+  private void writeRecords() {
+    while (true) {
+      // read before writing, so every slot claimed before closing is written
+      long seq = this.tail.get();
+      if (this.writeAvailable() == 0) {
+        if ((seq & CLOSED) != 0 && this.head.get() == (seq & ~CLOSED)) {
+          return;
+        }
+        // woken by the next record handed over, or by closing
+        LockSupport.park(this);
+      }
+    }
+  }
+
+  /**
+   * Writes the records waiting in the buffer, up to the first slot not filled in yet.
+   *
+   * @return the number of records written
+   */
+  private int writeAvailable() {
+    int written = 0;
+    long seq = this.head.get();
+    OperationRecord record = this.ring.get((int) seq & this.mask);
+    while (record != null) {
+      this.ring.set((int) seq & this.mask, null);
+      this.write(record);
+      // the slot is only handed out again once the head has moved past it
+      this.head.set(++seq);
+      written++;
+      record = this.ring.get((int) seq & this.mask);
+    }
+    if (written > 0 && this.out instanceof Flushable) {
+      try {
+        ((Flushable) this.out).flush();
+      } catch (IOException | RuntimeException ex) {
+        // the records are still kept in memory
+      }
+    }
+    return written;
+  }
+
+  /**
+   * Writes a record, and keeps it in memory.
+   *
+   * @param record the record
+   */
+  private void write(OperationRecord record) {
+    try {
+      this.out.append(record.toString()).append('\n');
+    } catch (IOException | RuntimeException ex) {
+      // the record is still kept in memory, and the writer goes on to the next one
+    }
+    synchronized (this.history) {
+      if (this.history.size() == HISTORY_LIMIT) {
+        this.history.removeFirst();
+      }
+      this.history.addLast(record);
+    }
+  }
+}
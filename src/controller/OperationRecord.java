@@ -0,0 +1,136 @@
+package controller;
+
+import java.time.Instant;
+import java.util.Objects;
+
+import model.IEvent;
+
+/**
+ * Record of one operation a user carried out through the planner, as kept by an
+ * {@link OperationLog}: what was done, by whom, to which event, whether it worked and how long
+ * it took.
+ */
+public class OperationRecord {
+  /**
+   * The operations that are recorded.
+   */
+  public enum Operation {
+    CREATE_EVENT, MODIFY_EVENT, REMOVE_EVENT, SAVE_SCHEDULES
+  }
+
+  /**
+   * Whether an operation worked.
+   */
+  public enum Outcome {
+    SUCCEEDED, FAILED
+  }
+
+  private final long timestampMillis;
+  private final Operation operation;
+  private final String userName;
+  private final long eventId;
+  private final Outcome outcome;
+  private final long latencyNanos;
+  private final String detail;
+
+  /**
+   * Creates the record of an operation that has just finished.
+   *
+   * @param operation the operation
+   * @param userName name of the user carrying it out, null if not known
+   * @param eventId ID of the event it was carried out on, {@link IEvent#NO_ID} if none
+   * @param outcome whether it worked
+   * @param latencyNanos how long it took, in nanoseconds
+   * @param detail what was done, or why it failed, e.g. the name of the event
+   */
+  public OperationRecord(Operation operation, String userName, long eventId, Outcome outcome,
+                         long latencyNanos, String detail) {
+    this.timestampMillis = System.currentTimeMillis();
+    this.operation = Objects.requireNonNull(operation);
+    this.userName = userName;
+    this.eventId = eventId;
+    this.outcome = Objects.requireNonNull(outcome);
+    this.latencyNanos = latencyNanos;
+    this.detail = detail == null ? "" : detail;
+  }
+
+  /**
+   * Observes when the operation finished.
+   *
+   * @return the time, in milliseconds since the epoch
+   */
+  public long getTimestampMillis() {
+    return this.timestampMillis;
+  }
+
+  /**
+   * Observes which operation was carried out.
+   *
+   * @return the operation
+   */
+  public Operation getOperation() {
+    return this.operation;
+  }
+
+  /**
+   * Observes who carried out the operation.
+   *
+   * @return name of the user, null if not known
+   */
+  public String getUserName() {
+    return this.userName;
+  }
+
+  /**
+   * Observes which event the operation was carried out on.
+   *
+   * @return ID of the event, {@link IEvent#NO_ID} if none
+   */
+  public long getEventId() {
+    return this.eventId;
+  }
+
+  /**
+   * Observes whether the operation worked.
+   *
+   * @return the outcome
+   */
+  public Outcome getOutcome() {
+    return this.outcome;
+  }
+
+  /**
+   * Observes how long the operation took.
+   *
+   * @return the time taken, in nanoseconds
+   */
+  public long getLatencyNanos() {
+    return this.latencyNanos;
+  }
+
+  /**
+   * Observes what was done, or why the operation failed.
+   *
+   * @return the detail, empty if there is none
+   */
+  public String getDetail() {
+    return this.detail;
+  }
+
+  /**
+   * Writes the record as a single line of tab separated fields: the time, operation, user,
+   * event ID, outcome, time taken in microseconds and detail. A missing user or event is
+   * written as "-".
+   *
+   * @return the line, without a line break
+   */
+  @Override
+  public String toString() {
+    return Instant.ofEpochMilli(this.timestampMillis) + "\t" + this.operation
+            + "\t" + (this.userName == null ? "-" : this.userName)
+            + "\t" + (this.eventId == IEvent.NO_ID ? "-" : String.valueOf(this.eventId))
+            + "\t" + this.outcome
+            + "\t" + this.latencyNanos / 1000 + "us"
+            + "\t" + this.detail;
+  }
+}
@@ -0,0 +1,548 @@
+package controller;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import model.Event;
+import model.EventAddResult;
+import model.EventConflictException;
+import model.IEvent;
+import model.ITime;
+import model.IUser;
+import model.PlannerSystem;
+import model.Schedule;
+import model.Time;
+import model.User;
+
+/**
+ * Serves a planner system to other programs over a line protocol on a local socket, without
+ * any views. Every request is a single line of tab separated fields, the first naming the
+ * operation, and is answered by a line starting with OK, CONFLICT or ERROR. Answers listing
+ * events or times give their number after OK, followed by one line for each of them.
+ *
+ * <p> The operations are: </p>
+ * <ul>
+ *   <li> USER name - adds a user with an empty schedule </li>
+ *   <li> ADD event - adds the event for its invitees, answers OK, its ID and the invitees who
+ *        could not take it, or CONFLICT and every invitee if nobody could </li>
+ *   <li> REMOVE id name - removes the event with the given ID as the given user </li>
+ *   <li> MODIFY id event - replaces the event with the given ID, answers CONFLICT and the
+ *        invitees who can't attend if it would overlap their schedules </li>
+ *   <li> EVENT id - the event with the given ID </li>
+ *   <li> EVENTS name - the events in the user's schedule </li>
+ *   <li> AT name day time - the event in the user's schedule at the given time, if any </li>
+ *   <li> FREE minutes slots name... - the earliest times in the week at which every given user
+ *        is free for the given number of minutes, at most the given number of them </li>
+ *   <li> USERS - the names of every user </li>
+ *   <li> QUIT - closes the connection </li>
+ * </ul>
+ *
+ * <p> An event is given as its name, start day, start time, end day, end time, whether it is
+ * online, its location and its invitees, host first. Days are names such as Monday and times
+ * are in the format HHMM, as in the XML files. Events are answered the same way, with their
+ * ID in front. </p>
+ *
+ * <p> A backslash, tab or line break inside a field is written as a backslash followed by
+ * \, t, n or r, both in requests and in answers, so fields never break up a line. A request
+ * longer than {@link #MAX_REQUEST_LENGTH} characters is answered with ERROR without being
+ * carried out. </p>
+ *
+ * <p> Each connection is served on its own thread, so the planner given should be one that
+ * can be used by many threads at once, such as a {@link model.ConcurrentPlanner}. </p>
+ */
+public class PlannerServer implements Closeable {
+  /**
+   * Most characters a request line may have.
+   */
+  public static final int MAX_REQUEST_LENGTH = 64 * 1024;
+
+  private static final String SEPARATOR = "\t";
+  private static final ITime START_OF_WEEK = Time.ofMinuteOfWeek(0);
+  private static final ITime END_OF_WEEK = Time.ofMinuteOfWeek(Time.MINUTES_PER_WEEK);
+
+  private final PlannerSystem planner;
+  private final ServerSocket serverSocket;
+  private final ExecutorService connections;
+  private final Set<Socket> open;
+  private final Thread acceptor;
+
+  /**
+   * Creates a server for the given planner, listening on the given port of the local machine.
+   * Connections are not accepted until the server is started.
+   *
+   * @param planner planner to serve
+   * @param port port to listen on, 0 for any free port
+   * @throws IllegalStateException if the port can't be listened on
+   */
+  public PlannerServer(PlannerSystem planner, int port) {
+    this.planner = planner;
+    try {
+      this.serverSocket = new ServerSocket(port, 0, InetAddress.getLoopbackAddress());
+    } catch (IOException ex) {
+      throw new IllegalStateException("Cannot listen on port " + port + ": " + ex.getMessage());
+    }
+    this.connections = Executors.newCachedThreadPool(task -> {
+      Thread thread = new Thread(task, "planner-connection");
+      thread.setDaemon(true);
+      return thread;
+    });
+    this.open = ConcurrentHashMap.newKeySet();
+    this.acceptor = new Thread(this::acceptConnections, "planner-server");
+  }
+
+  /**
+   * Starts accepting connections.
+   */
+  public void start() {
+    this.acceptor.start();
+  }
+
+  /**
+   * Observes the port the server listens on.
+   *
+   * @return the port
+   */
+  public int getPort() {
+    return this.serverSocket.getLocalPort();
+  }
+
+  /**
+   * Stops accepting connections and closes every open connection.
+   */
+  @Override
+  public void close() {
+    try {
+      this.serverSocket.close();
+    } catch (IOException ex) {
+      // the socket is closed either way
+    }
+    for (Socket socket : this.open) {
+      closeQuietly(socket);
+    }
+    this.connections.shutdown();
+  }
+
+  /**
+   * Accepts connections until the server is closed, handing each one to its own thread.
+   */
+  private void acceptConnections() {
+    while (!this.serverSocket.isClosed()) {
+      try {
+        Socket socket = this.serverSocket.accept();
+        this.open.add(socket);
+        this.connections.execute(() -> this.serve(socket));
+      } catch (SocketException ex) {
+        // the server was closed
+        return;
+      } catch (IOException ex) {
+        // the connection failed before it was accepted, keep accepting others
+      }
+    }
+  }
+
+  /**
+   * Answers the requests sent over the given connection until it is closed or asks to quit.
+   *
+   * @param socket the connection
+   */
+  private void serve(Socket socket) {
+    try (BufferedReader in = new BufferedReader(
+            new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+         Writer out = new BufferedWriter(
+                 new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8))) {
+      String line = readRequest(in);
+      while (line != null && !line.equals("QUIT")) {
+        if (line.length() > MAX_REQUEST_LENGTH) {
+          out.write("ERROR" + SEPARATOR + "Request is longer than " + MAX_REQUEST_LENGTH
+                  + " characters\n");
+        }
+        else {
+          out.write(this.answer(line));
+        }
+        out.flush();
+        line = readRequest(in);
+      }
+    } catch (IOException ex) {
+      // the client went away
+    } finally {
+      this.open.remove(socket);
+      closeQuietly(socket);
+    }
+  }
+
+  /**
+   * Reads the next request line, keeping at most one character more than
+   * {@link #MAX_REQUEST_LENGTH} of it, so a line that never ends can't use up the memory.
+   *
+   * @param in where the requests are read from
+   * @return the line without its line break, longer than the limit if the line was, null if
+   *         there are no more requests
+   * @throws IOException if the connection fails
+   */
+  private static String readRequest(BufferedReader in) throws IOException {
+    int next = in.read();
+    if (next < 0) {
+      return null;
+    }
+    StringBuilder line = new StringBuilder();
+    while (next >= 0 && next != '\n') {
+      if (line.length() <= MAX_REQUEST_LENGTH) {
+        line.append((char) next);
+      }
+      next = in.read();
+    }
+    if (line.length() > 0 && line.length() <= MAX_REQUEST_LENGTH
+            && line.charAt(line.length() - 1) == '\r') {
+      line.setLength(line.length() - 1);
+    }
+    return line.toString();
+  }
+
+  /**
+   * Carries out a single request.
+   *
+   * @param request the request line
+   * @return the answer, ending with a line break
+   */
+  private String answer(String request) {
+    String[] fields = request.split(SEPARATOR, -1);
+    for (int idx = 0; idx < fields.length; idx++) {
+      fields[idx] = unescape(fields[idx]);
+    }
+    try {
+      switch (fields[0]) {
+        case "USER":
+          checkFields(fields, 2);
+          this.planner.addUser(new User(fields[1], new Schedule(new ArrayList<>())));
+          return "OK\n";
+        case "ADD":
+          return this.add(toEvent(fields, 1));
+        case "REMOVE":
+          checkFields(fields, 3);
+          this.planner.removeEventForRelevantUsers(toId(fields[1]), this.user(fields[2]));
+          return "OK\n";
+        case "MODIFY":
+          IEvent newEvent = toEvent(fields, 2);
+          this.planner.modifyEvent(toId(fields[1]), newEvent);
+          return "OK\n";
+        case "EVENT":
+          checkFields(fields, 2);
+          return eventsAnswer(List.of(this.planner.getEvent(toId(fields[1]))));
+        case "EVENTS":
+          checkFields(fields, 2);
+          return eventsAnswer(this.planner.retrieveUserEvents(this.user(fields[1])));
+        case "AT":
+          checkFields(fields, 4);
+          IEvent occurring = this.planner.retrieveUserScheduleAtTime(this.user(fields[1]),
+                  Time.stringToTime(fields[2], fields[3]));
+          return eventsAnswer(occurring == null ? List.of() : List.of(occurring));
+        case "FREE":
+          return this.free(fields);
+        case "USERS":
+          return this.users();
+        default:
+          return "ERROR" + SEPARATOR + escape("Unknown operation " + fields[0]) + "\n";
+      }
+    } catch (EventConflictException ex) {
+      return "CONFLICT" + SEPARATOR + joinFields(ex.getConflictingUsers()) + "\n";
+    } catch (RuntimeException ex) {
+      // anything going wrong with one request is answered, rather than ending the connection
+      String message = ex.getMessage() != null ? ex.getMessage() : ex.toString();
+      return "ERROR" + SEPARATOR + escape(message) + "\n";
+    }
+  }
+
+  /**
+   * Adds the given event for its invitees.
+   *
+   * @param event the event
+   * @return the answer, with the event's ID and the invitees who could not take it
+   */
+  private String add(IEvent event) {
+    EventAddResult result = this.planner.addEventsForRelevantUsers(List.of(event)).get(0);
+    if (result.getFailure() != null) {
+      return "ERROR" + SEPARATOR + escape(result.getFailure()) + "\n";
+    }
+    if (!result.accepted() && result.getRejectedBy().isEmpty()) {
+      return "ERROR" + SEPARATOR + "None of the invitees are users\n";
+    }
+    if (!result.accepted()) {
+      return "CONFLICT" + SEPARATOR + joinFields(result.getRejectedBy()) + "\n";
+    }
+    StringBuilder answer = new StringBuilder("OK").append(SEPARATOR)
+            .append(result.getEvent().getId());
+    for (String rejected : result.getRejectedBy()) {
+      answer.append(SEPARATOR).append(escape(rejected));
+    }
+    return answer.append("\n").toString();
+  }
+
+  /**
+   * Finds the earliest times in the week at which the given users are all free.
+   *
+   * @param fields the fields of the request
+   * @return the answer, with the start of each time found
+   */
+  private String free(String[] fields) {
+    if (fields.length < 4) {
+      throw new IllegalArgumentException("Expected at least 4 fields");
+    }
+    List<ITime> slots = this.planner.findFreeSlots(
+            Arrays.asList(fields).subList(3, fields.length), toNumber(fields[1]),
+            START_OF_WEEK, END_OF_WEEK, toNumber(fields[2]));
+    StringBuilder answer = new StringBuilder("OK").append(SEPARATOR).append(slots.size())
+            .append("\n");
+    for (ITime slot : slots) {
+      answer.append(timeFields(slot)).append("\n");
+    }
+    return answer.toString();
+  }
+
+  /**
+   * Lists the names of every user.
+   *
+   * @return the answer, with one name on each line
+   */
+  private String users() {
+    List<String> names = new ArrayList<>();
+    for (IUser user : this.planner.getUsers()) {
+      names.add(user.getName());
+    }
+    StringBuilder answer = new StringBuilder("OK").append(SEPARATOR).append(names.size())
+            .append("\n");
+    for (String name : names) {
+      answer.append(escape(name)).append("\n");
+    }
+    return answer.toString();
+  }
+
+  /**
+   * Finds the user with the given name.
+   *
+   * @param name name of the user
+   * @return the user
+   * @throws IllegalArgumentException if there is no user with that name
+   */
+  private IUser user(String name) {
+    IUser user = this.planner.getUser(name);
+    if (user == null) {
+      throw new IllegalArgumentException("No user named " + name);
+    }
+    return user;
+  }
+
+  /**
+   * Lists the given events, one on each line.
+   *
+   * @param events the events
+   * @return the answer
+   */
+  private static String eventsAnswer(List<IEvent> events) {
+    StringBuilder answer = new StringBuilder("OK").append(SEPARATOR).append(events.size())
+            .append("\n");
+    for (IEvent event : events) {
+      answer.append(event.getId())
+              .append(SEPARATOR).append(escape(event.getEventName()))
+              .append(SEPARATOR).append(timeFields(event.getStartTime()))
+              .append(SEPARATOR).append(timeFields(event.getEndTime()))
+              .append(SEPARATOR).append(event.getOnline())
+              .append(SEPARATOR).append(escape(String.valueOf(event.getLocation())))
+              .append(SEPARATOR).append(joinFields(event.getUsers()))
+              .append("\n");
+    }
+    return answer.toString();
+  }
+
+  /**
+   * Reads an event from the fields of a request.
+   *
+   * @param fields the fields of the request
+   * @param from index of the event's name
+   * @return the event
+   * @throws IllegalArgumentException if the fields don't describe an event
+   */
+  private static IEvent toEvent(String[] fields, int from) {
+    if (fields.length < from + 8) {
+      throw new IllegalArgumentException("Expected at least " + (from + 8) + " fields");
+    }
+    String online = fields[from + 5];
+    if (!online.equals("true") && !online.equals("false")) {
+      throw new IllegalArgumentException("Online must be true or false");
+    }
+    return new Event(fields[from],
+            Time.stringToTime(fields[from + 1], fields[from + 2]),
+            Time.stringToTime(fields[from + 3], fields[from + 4]),
+            Boolean.parseBoolean(online),
+            fields[from + 6],
+            Arrays.asList(fields).subList(from + 7, fields.length));
+  }
+
+  /**
+   * Gives the day and time of the given time, as fields of an answer.
+   *
+   * @param time the time
+   * @return the day and time in the format HHMM, separated by a tab
+   */
+  private static String timeFields(ITime time) {
+    return time.getDate().getDayString() + SEPARATOR
+            + String.format("%02d%02d", time.getHours(), time.getMinutes());
+  }
+
+  /**
+   * Joins the given values into fields of an answer, escaping each one.
+   *
+   * @param values the values
+   * @return the values, separated by tabs
+   */
+  private static String joinFields(List<String> values) {
+    List<String> fields = new ArrayList<>();
+    for (String value : values) {
+      fields.add(escape(value));
+    }
+    return String.join(SEPARATOR, fields);
+  }
+
+  /**
+   * Escapes the backslashes, tabs and line breaks in a value, so it can be sent as one field.
+   *
+   * @param value the value
+   * @return the value as a field
+   */
+  private static String escape(String value) {
+    StringBuilder field = new StringBuilder(value.length());
+    for (int idx = 0; idx < value.length(); idx++) {
+      char next = value.charAt(idx);
+      switch (next) {
+        case '\\':
+          field.append("\\\\");
+          break;
+        case '\t':
+          field.append("\\t");
+          break;
+        case '\n':
+          field.append("\\n");
+          break;
+        case '\r':
+          field.append("\\r");
+          break;
+        default:
+          field.append(next);
+      }
+    }
+    return field.toString();
+  }
+
+  /**
+   * Reads back a value escaped by {@link #escape(String)}. A backslash followed by any other
+   * character, or ending the field, is kept as it is.
+   *
+   * @param field the field
+   * @return the value
+   */
+  private static String unescape(String field) {
+    if (field.indexOf('\\') < 0) {
+      return field;
+    }
+    StringBuilder value = new StringBuilder(field.length());
+    for (int idx = 0; idx < field.length(); idx++) {
+      char next = field.charAt(idx);
+      if (next != '\\' || idx + 1 == field.length()) {
+        value.append(next);
+        continue;
+      }
+      switch (field.charAt(idx + 1)) {
+        case '\\':
+          value.append('\\');
+          break;
+        case 't':
+          value.append('\t');
+          break;
+        case 'n':
+          value.append('\n');
+          break;
+        case 'r':
+          value.append('\r');
+          break;
+        default:
+          // not an escape, keep the backslash and read the next character as it is
+          value.append(next);
+          continue;
+      }
+      idx++;
+    }
+    return value.toString();
+  }
+
+  /**
+   * Reads an event ID.
+   *
+   * @param field the field holding the ID
+   * @return the ID
+   * @throws IllegalArgumentException if the field is not a number
+   */
+  private static long toId(String field) {
+    try {
+      return Long.parseLong(field);
+    } catch (NumberFormatException ex) {
+      throw new IllegalArgumentException("Invalid event ID " + field);
+    }
+  }
+
+  /**
+   * Reads a number.
+   *
+   * @param field the field holding the number
+   * @return the number
+   * @throws IllegalArgumentException if the field is not a number
+   */
+  private static int toNumber(String field) {
+    try {
+      return Integer.parseInt(field);
+    } catch (NumberFormatException ex) {
+      throw new IllegalArgumentException("Invalid number " + field);
+    }
+  }
+
+  /**
+   * Checks that a request has the given number of fields.
+   *
+   * @param fields the fields of the request
+   * @param count number of fields expected
+   * @throws IllegalArgumentException if there are a different number of fields
+   */
+  private static void checkFields(String[] fields, int count) {
+    if (fields.length != count) {
+      throw new IllegalArgumentException("Expected " + count + " fields");
+    }
+  }
+
+  /**
+   * Closes the given connection, ignoring any failure to do so.
+   *
+   * @param socket the connection
+   */
+  private static void closeQuietly(Socket socket) {
+    try {
+      socket.close();
+    } catch (IOException ex) {
+      // nothing more to do
+    }
+  }
+}
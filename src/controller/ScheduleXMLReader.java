@@ -0,0 +1,207 @@
+package controller;
+
+import java.io.BufferedInputStream;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import model.IEvent;
+import model.User;
+
+/**
+ * Reads the events of a schedule XML file one at a time with a pull parser, instead of
+ * building the whole document in memory first. Only the event currently being read is kept,
+ * so reading a schedule takes the same amount of memory no matter how large the file is.
+ *
+ * <p> The file is expected in the same format the planner exports, i.e. a schedule element
+ * containing event elements. Each event is converted the same way as
+ * {@link User#makeEvent(HashMap)} does, and events it cannot convert are skipped.
+ * The file is closed once the last event is read, or when the reader is closed. </p>
+ */
+public class ScheduleXMLReader implements Iterator<IEvent>, AutoCloseable {
+  private static final XMLInputFactory FACTORY = makeFactory();
+
+  private final InputStream input;
+  private final XMLStreamReader reader;
+  private final String userName;
+  private IEvent next;
+  private boolean closed;
+
+  /**
+   * Opens the schedule XML file at the given path and reads up to its first event.
+   *
+   * @param filePath file path where xml is located
+   * @throws IllegalStateException if the file can't be opened or parsed
+   */
+  public ScheduleXMLReader(String filePath) {
+    try {
+      this.input = new BufferedInputStream(new FileInputStream(filePath));
+    } catch (IOException ioEx) {
+      throw new IllegalStateException("Error in opening the file");
+    }
+    try {
+      this.reader = FACTORY.createXMLStreamReader(this.input);
+      if (!this.toStartOf("schedule")) {
+        throw new XMLStreamException("No schedule in the file");
+      }
+      this.userName = this.reader.getAttributeValue(null, "id");
+    } catch (XMLStreamException ex) {
+      this.close();
+      throw new IllegalStateException("Error in parsing the file");
+    }
+  }
+
+  /**
+   * Observes the id of the schedule being read, which is the name of the user it belongs to.
+   *
+   * @return the user's name, null if the schedule has no id
+   */
+  public String getUserName() {
+    return this.userName;
+  }
+
+  /**
+   * Determines whether there is another event in the file, reading it if it hasn't been yet.
+   *
+   * @return true if there is another event
+   * @throws IllegalStateException if the file can't be parsed
+   */
+  @Override
+  public boolean hasNext() {
+    while (this.next == null && !this.closed) {
+      try {
+        if (this.toStartOf("event")) {
+          this.next = User.makeEvent(this.readEvent());
+        }
+        else {
+          this.close();
+        }
+      } catch (XMLStreamException ex) {
+        this.close();
+        throw new IllegalStateException("Error in parsing the file");
+      }
+    }
+    return this.next != null;
+  }
+
+  /**
+   * Returns the next event in the file.
+   *
+   * @return the next event
+   * @throws NoSuchElementException if there are no more events
+   */
+  @Override
+  public IEvent next() {
+    if (!this.hasNext()) {
+      throw new NoSuchElementException("No more events in the schedule");
+    }
+    IEvent event = this.next;
+    this.next = null;
+    return event;
+  }
+
+  /**
+   * Closes the file. Closing a reader more than once has no effect.
+   */
+  @Override
+  public void close() {
+    if (this.closed) {
+      return;
+    }
+    this.closed = true;
+    try {
+      if (this.reader != null) {
+        this.reader.close();
+      }
+      this.input.close();
+    } catch (XMLStreamException | IOException ignored) {
+      // nothing left to read from the file either way
+    }
+  }
+
+  /**
+   * Moves the parser forward to the next start of an element with the given name.
+   *
+   * @param tagName name of the element
+   * @return false if the end of the file is reached first
+   * @throws XMLStreamException if the file can't be parsed
+   */
+  private boolean toStartOf(String tagName) throws XMLStreamException {
+    while (this.reader.hasNext()) {
+      if (this.reader.next() == XMLStreamConstants.START_ELEMENT
+              && this.reader.getLocalName().equals(tagName)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Reads the event the parser is at into a map of each attribute name to its values, the
+   * same way {@link User#interpretXML} does, i.e. "time" -> ["Tuesday", "0950", "Tuesday",
+   * "1230"]. Leaves the parser at the end of the event.
+   *
+   * @return map of attribute name to values
+   * @throws XMLStreamException if the file can't be parsed
+   */
+  private HashMap<String, String[]> readEvent() throws XMLStreamException {
+    HashMap<String, String[]> eventMap = new HashMap<>();
+    List<String> values = new ArrayList<>();
+    StringBuilder text = new StringBuilder();
+    String tagName = null;
+    // depth 1 is the event itself, depth 2 its attributes
+    int depth = 1;
+    int lastStartDepth = depth;
+    while (depth > 0) {
+      switch (this.reader.next()) {
+        case XMLStreamConstants.START_ELEMENT:
+          depth++;
+          lastStartDepth = depth;
+          if (depth == 2) {
+            tagName = this.reader.getLocalName().trim();
+            values.clear();
+          }
+          text.setLength(0);
+          break;
+        case XMLStreamConstants.CHARACTERS:
+        case XMLStreamConstants.CDATA:
+          text.append(this.reader.getText());
+          break;
+        case XMLStreamConstants.END_ELEMENT:
+          // only elements without any inner elements hold a value
+          if (depth == lastStartDepth && depth >= 2) {
+            values.add(text.toString().trim());
+          }
+          if (depth == 2) {
+            eventMap.put(tagName, values.toArray(new String[0]));
+          }
+          text.setLength(0);
+          depth--;
+          break;
+        case XMLStreamConstants.END_DOCUMENT:
+          throw new XMLStreamException("Event is not closed");
+        default:
+          break;
+      }
+    }
+    return eventMap;
+  }
+
+  private static XMLInputFactory makeFactory() {
+    XMLInputFactory factory = XMLInputFactory.newInstance();
+    factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+    factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+    factory.setProperty(XMLInputFactory.IS_COALESCING, true);
+    return factory;
+  }
+}
@@ -3,15 +3,23 @@ package controller;
 import org.w3c.dom.Document;
 import org.xml.sax.SAXException;
 
+import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.io.Writer;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
 
+import model.IEvent;
+import model.ISchedule;
+
 
 /**
  * Utils class contains static methods to read and write XML files.
@@ -27,18 +35,37 @@ public class UtilsXML {
    * @param xmlContents contents that XML file should contain. bulk of actual info of file
    */
   public static void writeToFile(String filePathToSave, String userName, String xmlContents) {
-    try {
-      Writer file = new FileWriter(filePathToSave);
+    try (Writer file = new BufferedWriter(new FileWriter(filePathToSave))) {
       file.write("<?xml version=\"1.0\"?>\n");
       file.write("<schedule id='" + userName + "'>");
       file.write(xmlContents);
       file.write("</schedule>");
-      file.close();
     } catch (IOException ex) {
       throw new RuntimeException(ex.getMessage());
     }
   }
 
+  /**
+   * Creates an XML file of the user's schedule in the directory given by the method, the same
+   * way as {@link #writeToFile(String, String, String)}. The events are written straight to a
+   * buffered file one at a time, instead of building the whole schedule as a String first.
+   *
+   * @param filePathToSave location where file should be saved
+   * @param userName extra information to make file path unique (to user's schedule)
+   * @param schedule schedule whose events the XML file should contain
+   * @throws IllegalStateException if the file can't be written
+   */
+  public static void writeToFile(String filePathToSave, String userName, ISchedule schedule) {
+    try (Writer file = new BufferedWriter(new FileWriter(filePathToSave))) {
+      file.write("<?xml version=\"1.0\"?>\n");
+      file.write("<schedule id='" + userName + "'>");
+      schedule.writeXML(file);
+      file.write("</schedule>");
+    } catch (IOException ex) {
+      throw new IllegalStateException(ex.getMessage(), ex);
+    }
+  }
+
   /**
    * Reads the specific file, based on the given file path.
    * @param filePath file path where xml is located
@@ -61,4 +88,18 @@ public class UtilsXML {
       throw new IllegalStateException("Error in parsing the file");
     }
   }
-}
\ No newline at end of file
+
+  /**
+   * Streams the events of the schedule XML file at the given path, reading them one at a time
+   * as the stream is consumed instead of reading the whole file first. The stream should be
+   * closed when done with it, e.g. with try-with-resources, in case not every event was read.
+   * @param filePath file path where xml is located
+   * @return a lazy stream of the events in the file, in the order they appear
+   * @throws IllegalStateException if the file can't be opened or parsed
+   */
+  public static Stream<IEvent> streamEvents(String filePath) {
+    ScheduleXMLReader reader = new ScheduleXMLReader(filePath);
+    return StreamSupport.stream(Spliterators.spliteratorUnknownSize(reader,
+            Spliterator.ORDERED | Spliterator.NONNULL), false).onClose(reader::close);
+  }
+}
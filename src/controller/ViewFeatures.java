@@ -32,7 +32,7 @@ public interface ViewFeatures {
 
 
   /**
-   * Delegate to the view of the event and create a new event.
+   * Delegates to the model to add the event filled in the view of the event for its invitees.
    */
   void createEvent();
 
@@ -44,11 +44,12 @@ public interface ViewFeatures {
   HashMap<String, String[]> storeEvent();
 
   /**
-   * Delegate to the view of the event to take in a current event as a map of its contents
-   * and modify it.
-   * @param event a String of content tags to a String[] of content values
+   * Delegates to the model to modify the event with the given ID into the given event,
+   * and to the view of the event to show the modified event.
+   * @param eventId ID of the event being modified
+   * @param newEvent what the event should be modified to
    */
-  void modifyEvent(IEvent event);
+  void modifyEvent(long eventId, IEvent newEvent);
 
 
   /**
@@ -89,12 +90,12 @@ public interface ViewFeatures {
   IEvent findEvent(ITime timeOfEvent);
 
   /**
-   * Delegates to the model to remove the given event from the relevant schedules
+   * Delegates to the model to remove the event with the given ID from the relevant schedules
    * depending on the current user.
-   * @param eventToRemove event that the model should remove.
+   * @param eventId ID of the event that the model should remove.
    */
 
-  void removeEvent(IEvent eventToRemove);
+  void removeEvent(long eventId);
 
   /**
    * Delegates to the view of the event to create empty fields in the panel.
@@ -104,6 +105,20 @@ public interface ViewFeatures {
 
   void resetPanelView(String host);
 
+  /**
+   * Delegates to the view of the event to create empty fields in the panel, with the times
+   * filled in with the earliest time the host is free.
+   *
+   * @param host host of the event
+   */
+  void scheduleEventView(String host);
+
+  /**
+   * Delegates to the model to find the earliest time every invitee chosen in the view of the
+   * event is free, which is filled in the panel.
+   */
+  void findEventTime();
+
   /**
    * Delegate to the view of the schedule to add the calendar info to the planner system.
    */
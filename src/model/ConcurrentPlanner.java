@@ -0,0 +1,458 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Planner system that can be used by many threads at once. Users are spread over a fixed
+ * number of stripes by the hash of their name, each guarded by its own read-write lock, and a
+ * change only locks the stripes of the users it touches, i.e. the invitees of the event
+ * and the user making the change. Changes touching different users run in parallel.
+ *
+ * <p> Reading a {@link Schedule} never takes a lock, as each change to one publishes a whole
+ * new version of it in a single step. Reads of a user's schedule, finding the event at a time
+ * and finding free slots therefore never wait, and each sees one whole version of every
+ * schedule it looks at. A read looking at several schedules one at a time may see one of them
+ * before a change and another after it. {@link #scheduleVersions()} hands out every schedule as
+ * published together at the end of a change, so the whole planner can be read without seeing a
+ * change half made. Schedules of other kinds, and the events indexed under a user's name, are
+ * still read under the read lock of the user's stripe. </p>
+ *
+ * <p> A change touching several users takes their stripes in increasing order, so two changes
+ * can never each hold a stripe the other one is waiting for. A change to an event found by its
+ * ID looks up the event's invitees before locking them, and starts over if the event was
+ * modified in the meantime. </p>
+ *
+ * <p> Everything is passed to the {@link NUPlanner} this planner wraps once the stripes are
+ * locked. The wrapped planner should not be used directly afterwards. Every user holding an
+ * event is expected to be one of its invitees, as is the case for events added through the
+ * planner. The users handed out are the planner's own, so their schedules should only be read
+ * through this planner. </p>
+ */
+public class ConcurrentPlanner implements PlannerSystem {
+  // enough stripes that users on different cores rarely share one
+  private static final int DEFAULT_STRIPES = 64;
+
+  private final NUPlanner delegate;
+  private final ReentrantReadWriteLock[] stripes;
+  // one change to the planner's set of users at a time, taken after any stripes
+  private final Lock usersLock;
+  // only one save at a time, taken before any stripes
+  private final Object saveLock;
+
+  /**
+   * Creates a planner that can be used by many threads at once, spreading the users over
+   * the given number of stripes.
+   *
+   * @param delegate planner to make the changes to
+   * @param stripeCount number of stripes to spread the users over
+   * @throws IllegalArgumentException if the number of stripes is not positive
+   */
+  public ConcurrentPlanner(NUPlanner delegate, int stripeCount) {
+    if (stripeCount <= 0) {
+      throw new IllegalArgumentException("Number of stripes must be positive");
+    }
+    this.delegate = delegate;
+    this.stripes = new ReentrantReadWriteLock[stripeCount];
+    for (int idx = 0; idx < stripeCount; idx++) {
+      this.stripes[idx] = new ReentrantReadWriteLock();
+    }
+    this.usersLock = new ReentrantLock();
+    this.saveLock = new Object();
+  }
+
+  /**
+   * Creates a planner that can be used by many threads at once.
+   *
+   * @param delegate planner to make the changes to
+   */
+  public ConcurrentPlanner(NUPlanner delegate) {
+    this(delegate, DEFAULT_STRIPES);
+  }
+
+  /**
+   * Creates an empty planner that can be used by many threads at once.
+   */
+  public ConcurrentPlanner() {
+    this(new NUPlanner());
+  }
+
+  /**
+   * Writes every user's schedule to an XML file. Changes can't be made while the schedules
+   * are written, but they can still be read.
+   *
+   * @param filePath where to save the XML files
+   */
+  @Override
+  public void exportScheduleAsXML(String filePath) {
+    synchronized (this.saveLock) {
+      List<Lock> held = this.lockAll(false);
+      try {
+        this.delegate.exportScheduleAsXML(filePath);
+      } finally {
+        unlock(held);
+      }
+    }
+  }
+
+  @Override
+  public int saveChangedSchedules(String filePath) {
+    synchronized (this.saveLock) {
+      List<Lock> held = this.lockAll(false);
+      try {
+        return this.delegate.saveChangedSchedules(filePath);
+      } finally {
+        unlock(held);
+      }
+    }
+  }
+
+  /**
+   * Observes the users in the system, as they are at the time of the call. Never waits for
+   * a user being added.
+   *
+   * @return the set of users
+   */
+  @Override
+  public Set<IUser> getUsers() {
+    return this.delegate.getUsers();
+  }
+
+  /**
+   * Observes the schedule of every user, all as they were at the end of the same change. Never
+   * waits for a change being made.
+   *
+   * @return each user's schedule, in the order the users were added
+   */
+  @Override
+  public Map<IUser, Schedule.Version> scheduleVersions() {
+    return this.delegate.scheduleVersions();
+  }
+
+  /**
+   * Loads every user schedule XML file in the given directory. Every stripe is locked while
+   * the files are read.
+   *
+   * @param directoryPath path of the directory holding the schedule files
+   * @return the outcome of loading each file, in order of file name
+   * @throws IllegalArgumentException if the path is not a readable directory
+   */
+  @Override
+  public List<ScheduleLoadResult> loadSchedules(String directoryPath) {
+    List<Lock> held = this.lockAll(true);
+    this.usersLock.lock();
+    try {
+      return this.delegate.loadSchedules(directoryPath);
+    } finally {
+      this.usersLock.unlock();
+      unlock(held);
+    }
+  }
+
+  @Override
+  public void removeEventForRelevantUsers(IEvent eventToRemove, IUser userRemovingEvent) {
+    List<Lock> held = this.lock(names(eventToRemove.getUsers(), userRemovingEvent.getName()),
+            true);
+    try {
+      this.delegate.removeEventForRelevantUsers(eventToRemove, userRemovingEvent);
+    } finally {
+      unlock(held);
+    }
+  }
+
+  @Override
+  public void removeEventForRelevantUsers(long eventId, IUser userRemovingEvent) {
+    while (true) {
+      IEvent eventToRemove = this.delegate.getEvent(eventId);
+      List<Lock> held = this.lock(names(eventToRemove.getUsers(), userRemovingEvent.getName()),
+              true);
+      try {
+        if (this.delegate.getEvent(eventId) == eventToRemove) {
+          this.delegate.removeEventForRelevantUsers(eventId, userRemovingEvent);
+          return;
+        }
+      } finally {
+        unlock(held);
+      }
+    }
+  }
+
+  @Override
+  public void modifyEvent(IEvent prevEvent, IEvent newEvent) {
+    List<Lock> held = this.lock(names(prevEvent.getUsers(), newEvent.getUsers()), true);
+    try {
+      this.delegate.modifyEvent(prevEvent, newEvent);
+    } finally {
+      unlock(held);
+    }
+  }
+
+  @Override
+  public void modifyEvent(long eventId, IEvent newEvent) {
+    while (true) {
+      IEvent prevEvent = this.delegate.getEvent(eventId);
+      List<Lock> held = this.lock(names(prevEvent.getUsers(), newEvent.getUsers()), true);
+      try {
+        if (this.delegate.getEvent(eventId) == prevEvent) {
+          this.delegate.modifyEvent(eventId, newEvent);
+          return;
+        }
+      } finally {
+        unlock(held);
+      }
+    }
+  }
+
+  @Override
+  public void addEventForRelevantUsers(IEvent eventToAdd) {
+    List<Lock> held = this.lock(eventToAdd.getUsers(), true);
+    try {
+      this.delegate.addEventForRelevantUsers(eventToAdd);
+    } finally {
+      unlock(held);
+    }
+  }
+
+  @Override
+  public List<EventAddResult> addEventsForRelevantUsers(Collection<IEvent> eventsToAdd) {
+    Set<String> invitees = new LinkedHashSet<>();
+    for (IEvent event : eventsToAdd) {
+      invitees.addAll(event.getUsers());
+    }
+    List<Lock> held = this.lock(invitees, true);
+    try {
+      return this.delegate.addEventsForRelevantUsers(eventsToAdd);
+    } finally {
+      unlock(held);
+    }
+  }
+
+  /**
+   * Adds a user to the planner system. Locks the user and every invitee of the events already
+   * in their schedule, as the planner records that the user holds those events.
+   *
+   * @param userToAdd user to add to Planner
+   */
+  @Override
+  public void addUser(IUser userToAdd) {
+    Set<String> touched = new LinkedHashSet<>();
+    touched.add(userToAdd.getName());
+    for (IEvent event : userToAdd.getSchedule().getEvents()) {
+      touched.addAll(event.getUsers());
+    }
+    List<Lock> held = this.lock(touched, true);
+    this.usersLock.lock();
+    try {
+      this.delegate.addUser(userToAdd);
+    } finally {
+      this.usersLock.unlock();
+      unlock(held);
+    }
+  }
+
+  @Override
+  public IEvent retrieveUserScheduleAtTime(IUser user, ITime givenTime) {
+    List<Lock> held = this.lockUnversioned(List.of(user));
+    try {
+      return this.delegate.retrieveUserScheduleAtTime(user, givenTime);
+    } finally {
+      unlock(held);
+    }
+  }
+
+  @Override
+  public IUser getUser(String name) {
+    return this.delegate.getUser(name);
+  }
+
+  /**
+   * Retrieves the events in this user's schedule, as they are at the time of the call.
+   *
+   * @param user desired user for whom to retrieve the schedule
+   * @return a copy of the list of this user's events
+   */
+  @Override
+  public List<IEvent> retrieveUserEvents(IUser user) {
+    List<Lock> held = this.lockUnversioned(List.of(user));
+    try {
+      return List.copyOf(this.delegate.retrieveUserEvents(user));
+    } finally {
+      unlock(held);
+    }
+  }
+
+  @Override
+  public List<IEvent> eventsInvitedTo(String userName) {
+    List<Lock> held = this.lock(List.of(userName), false);
+    try {
+      return this.delegate.eventsInvitedTo(userName);
+    } finally {
+      unlock(held);
+    }
+  }
+
+  @Override
+  public List<IEvent> eventsHostedBy(String userName) {
+    List<Lock> held = this.lock(List.of(userName), false);
+    try {
+      return this.delegate.eventsHostedBy(userName);
+    } finally {
+      unlock(held);
+    }
+  }
+
+  @Override
+  public List<ITime> findFreeSlots(Collection<String> userNames, int durationMinutes,
+                                   ITime windowStart, ITime windowEnd, int maxSlots) {
+    List<Lock> held = this.lockUnversioned(this.usersNamed(userNames));
+    try {
+      return this.delegate.findFreeSlots(userNames, durationMinutes, windowStart, windowEnd,
+              maxSlots);
+    } finally {
+      unlock(held);
+    }
+  }
+
+  @Override
+  public ITime findFreeSlot(Collection<String> userNames, int durationMinutes) {
+    List<Lock> held = this.lockUnversioned(this.usersNamed(userNames));
+    try {
+      return this.delegate.findFreeSlot(userNames, durationMinutes);
+    } finally {
+      unlock(held);
+    }
+  }
+
+  @Override
+  public IEvent getEvent(long eventId) {
+    return this.delegate.getEvent(eventId);
+  }
+
+  /**
+   * Locks the stripes of the users with the given names, in increasing order.
+   *
+   * @param userNames names of the users to lock
+   * @param write whether to take the write locks rather than the read locks
+   * @return the locks taken, in the order they were taken
+   */
+  private List<Lock> lock(Collection<String> userNames, boolean write) {
+    Set<Integer> stripeIdx = new TreeSet<>();
+    for (String userName : userNames) {
+      stripeIdx.add(this.stripeOf(userName));
+    }
+    List<Lock> held = new ArrayList<>();
+    for (int idx : stripeIdx) {
+      Lock lock = write ? this.stripes[idx].writeLock() : this.stripes[idx].readLock();
+      lock.lock();
+      held.add(lock);
+    }
+    return held;
+  }
+
+  /**
+   * Read-locks the stripes of the given users whose schedule is not a {@link Schedule}, in
+   * increasing order. Schedules publish every version whole, so they are read without locks.
+   *
+   * @param users users about to be read
+   * @return the locks taken, in the order they were taken
+   */
+  private List<Lock> lockUnversioned(Collection<IUser> users) {
+    List<String> unversioned = new ArrayList<>();
+    for (IUser user : users) {
+      if (!(user.getSchedule() instanceof Schedule)) {
+        unversioned.add(user.getName());
+      }
+    }
+    return unversioned.isEmpty() ? List.of() : this.lock(unversioned, false);
+  }
+
+  /**
+   * Finds the users in the planner with the given names.
+   *
+   * @param userNames names of the users
+   * @return the users found, leaving out names of users not in the planner
+   */
+  private List<IUser> usersNamed(Collection<String> userNames) {
+    List<IUser> found = new ArrayList<>();
+    for (String userName : userNames) {
+      IUser user = this.delegate.getUser(userName);
+      if (user != null) {
+        found.add(user);
+      }
+    }
+    return found;
+  }
+
+  /**
+   * Locks every stripe, in increasing order.
+   *
+   * @param write whether to take the write locks rather than the read locks
+   * @return the locks taken, in the order they were taken
+   */
+  private List<Lock> lockAll(boolean write) {
+    List<Lock> held = new ArrayList<>();
+    for (ReentrantReadWriteLock stripe : this.stripes) {
+      Lock lock = write ? stripe.writeLock() : stripe.readLock();
+      lock.lock();
+      held.add(lock);
+    }
+    return held;
+  }
+
+  /**
+   * Unlocks the given locks, in the opposite order they were taken.
+   *
+   * @param held the locks taken
+   */
+  private static void unlock(List<Lock> held) {
+    for (int idx = held.size() - 1; idx >= 0; idx--) {
+      held.get(idx).unlock();
+    }
+  }
+
+  /**
+   * Finds the stripe the user with the given name is in.
+   *
+   * @param userName name of the user
+   * @return index of the stripe
+   */
+  private int stripeOf(String userName) {
+    int hash = userName.hashCode();
+    // mix in the high bits, so every bit of the hash decides the stripe
+    return Math.floorMod(hash ^ (hash >>> 16), this.stripes.length);
+  }
+
+  /**
+   * Combines the given names with one more name.
+   *
+   * @param names names to combine
+   * @param name name to add
+   * @return every name, without repeats
+   */
+  private static Set<String> names(Collection<String> names, String name) {
+    Set<String> combined = new LinkedHashSet<>(names);
+    combined.add(name);
+    return combined;
+  }
+
+  /**
+   * Combines two collections of names.
+   *
+   * @param names names to combine
+   * @param others other names to combine them with
+   * @return every name, without repeats
+   */
+  private static Set<String> names(Collection<String> names, Collection<String> others) {
+    Set<String> combined = new LinkedHashSet<>(names);
+    combined.addAll(others);
+    return combined;
+  }
+}
@@ -1,6 +1,8 @@
 package model;
 
-import java.util.HashSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
 
@@ -13,6 +15,10 @@ import java.util.Objects;
  *
  * <p> If the end time is 'before' the start time of the event, it is assumed that this means that
  * the event starts this week but ends in the following week. </p>
+ *
+ * <p> Two events are equal when all of their fields match, ignoring the order of the invitees.
+ * To keep that check cheap, every event also keeps its invitees sorted, without duplicates and
+ * interned, and computes its hash code once when it is created. </p>
  */
 public class Event implements IEvent {
   private final String eventName;
@@ -22,6 +28,9 @@ public class Event implements IEvent {
   private final String location;
   private final List<String> users;
   // INVARIANT: users list must have at least one user in it (the host of event)
+  private final String[] sortedUsers;
+  private final int hash;
+  private final long id;
 
   /**
    * Creating an event to be added to the planner system.
@@ -50,12 +59,85 @@ public class Event implements IEvent {
     if (startTime.compareTimes(endTime) == 0) {
       throw new IllegalArgumentException("Start and end times must be different.");
     }
+    for (String user : users) {
+      if (user == null) {
+        throw new IllegalArgumentException("Null invitee not allowed");
+      }
+    }
     this.eventName = eventName;
     this.startTime = startTime;
     this.endTime = endTime;
     this.online = online;
     this.location = location;
-    this.users = users;
+    this.users = Collections.unmodifiableList(new ArrayList<>(users));
+    this.sortedUsers = canonicalUsers(users);
+    this.hash = Objects.hash(this.eventName, this.startTime, this.endTime, this.online,
+            this.location, Arrays.hashCode(this.sortedUsers));
+    this.id = NO_ID;
+  }
+
+  /**
+   * Copies an event, giving the copy the given ID.
+   *
+   * @param event event to copy
+   * @param id ID of the copy
+   */
+  private Event(Event event, long id) {
+    this.eventName = event.eventName;
+    this.startTime = event.startTime;
+    this.endTime = event.endTime;
+    this.online = event.online;
+    this.location = event.location;
+    this.users = event.users;
+    this.sortedUsers = event.sortedUsers;
+    this.hash = event.hash;
+    this.id = id;
+  }
+
+  /**
+   * Sorts the given invitees and removes any duplicates. Every name is interned, so the
+   * invitees of two events can be compared by reference.
+   *
+   * @param users invitees of an event
+   * @return sorted array of unique, interned invitee names
+   */
+  private static String[] canonicalUsers(List<String> users) {
+    String[] sorted = users.toArray(new String[0]);
+    Arrays.sort(sorted);
+    int unique = 0;
+    for (String user : sorted) {
+      if (unique == 0 || !sorted[unique - 1].equals(user)) {
+        sorted[unique++] = user.intern();
+      }
+    }
+    return unique == sorted.length ? sorted : Arrays.copyOf(sorted, unique);
+  }
+
+  /**
+   * Getting the ID the planner system knows this event by.
+   *
+   * @return the event's ID, or NO_ID if it has not been added to a planner system
+   */
+  public long getId() {
+    return this.id;
+  }
+
+  /**
+   * Copies this event with the ID the planner system knows it by. An event's ID never changes
+   * once it has been given one. The ID is not part of the event's equality.
+   *
+   * @param id ID of the event
+   * @return this event if it already has that ID, otherwise a copy of it with that ID
+   * @throws IllegalStateException if the event already has a different ID
+   */
+  public IEvent withId(long id) {
+    if (this.id == id) {
+      return this;
+    }
+    if (this.id != NO_ID) {
+      throw new IllegalStateException("Event already has an ID");
+    }
+    return new Event(this, id);
   }
 
   /**
@@ -125,29 +207,50 @@ public class Event implements IEvent {
    * @return true if the events are equal, false otherwise
    */
   public boolean equals(Object other) {
+    if (this == other) {
+      return true;
+    }
     if (!(other instanceof Event)) {
       return false;
     }
     Event that = (Event) other;
-    return this.eventName.equals(that.eventName)
+    return this.hash == that.hash
             && this.online == that.online
             && (this.endTime.compareTimes(that.endTime) == 0)
             && (this.startTime.compareTimes(that.startTime) == 0)
-            && this.location.equals(that.location)
-            && new HashSet<>(this.users).containsAll(that.users)
-            && new HashSet<>(that.users).containsAll(this.users);
+            && this.eventName.equals(that.eventName)
+            && Objects.equals(this.location, that.location)
+            && sameUsers(this.sortedUsers, that.sortedUsers);
+  }
+
+  /**
+   * Compares two sorted arrays of interned invitee names.
+   *
+   * @param users invitees of one event
+   * @param otherUsers invitees of another event
+   * @return true if both events have the same invitees
+   */
+  private static boolean sameUsers(String[] users, String[] otherUsers) {
+    if (users.length != otherUsers.length) {
+      return false;
+    }
+    for (int idx = 0; idx < users.length; idx++) {
+      if (users[idx] != otherUsers[idx]) {
+        return false;
+      }
+    }
+    return true;
   }
 
   /**
    * Equals method was overriden, so overriding hashCode as well using the event's fields.
+   * Computed once when the event is created.
    *
    * @return hashCode representation of this event.
    */
   @Override
   public int hashCode() {
-    return Objects.hashCode(this.eventName) + Objects.hashCode(this.endTime)
-            + Objects.hashCode(this.startTime) + Objects.hashCode(this.online)
-            + Objects.hashCode(this.location) + Objects.hashCode(this.users);
+    return this.hash;
   }
 
 
@@ -0,0 +1,89 @@
+package model;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Outcome of adding a single event to the planner system as part of a batch, as reported by
+ * {@link PlannerSystem#addEventsForRelevantUsers(java.util.Collection)}. Records which invitees
+ * the event was added for and which could not take it because it overlaps one of their events,
+ * or why the event was not added at all.
+ */
+public class EventAddResult {
+  private final IEvent event;
+  private final List<String> addedFor;
+  private final List<String> rejectedBy;
+  private final String failure;
+
+  /**
+   * Creates the outcome of adding an event.
+   *
+   * @param event the event
+   * @param addedFor names of the invitees the event was added for
+   * @param rejectedBy names of the invitees whose schedule the event overlaps
+   * @param failure why the event was not added for anyone, null if it was looked at
+   */
+  public EventAddResult(IEvent event, List<String> addedFor, List<String> rejectedBy,
+                        String failure) {
+    this.event = event;
+    this.addedFor = Collections.unmodifiableList(addedFor);
+    this.rejectedBy = Collections.unmodifiableList(rejectedBy);
+    this.failure = failure;
+  }
+
+  /**
+   * Observes the event that was added.
+   *
+   * @return the event
+   */
+  public IEvent getEvent() {
+    return this.event;
+  }
+
+  /**
+   * Observes the invitees the event was added for. Invitees who already had the event are
+   * not included.
+   *
+   * @return the names of the invitees, in invitee order
+   */
+  public List<String> getAddedFor() {
+    return this.addedFor;
+  }
+
+  /**
+   * Observes the invitees who could not take the event because it overlaps another event in
+   * their schedule, or an event earlier in the week in the same batch.
+   *
+   * @return the names of the invitees, in invitee order
+   */
+  public List<String> getRejectedBy() {
+    return this.rejectedBy;
+  }
+
+  /**
+   * Observes why the event was not added for anyone, other than overlapping.
+   *
+   * @return description of the failure, null if there is none
+   */
+  public String getFailure() {
+    return this.failure;
+  }
+
+  /**
+   * Determines whether the event was added for at least one invitee.
+   *
+   * @return true if the event was added
+   */
+  public boolean accepted() {
+    return !this.addedFor.isEmpty();
+  }
+
+  @Override
+  public String toString() {
+    if (this.failure != null) {
+      return this.event.getEventName() + ": failed (" + this.failure + ")";
+    }
+    return this.event.getEventName() + ": added for " + this.addedFor
+            + ", rejected by " + this.rejectedBy;
+  }
+}
@@ -0,0 +1,54 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Thrown when an event can't be modified because it would overlap other events in the
+ * schedules of some of its invitees. Records, for each of those invitees, the events that are
+ * in the way, so the caller can tell the user who can't attend. The events are not kept when
+ * the exception is serialized, only its message.
+ */
+public class EventConflictException extends IllegalArgumentException {
+  private static final long serialVersionUID = 1L;
+
+  // events are not serializable, so a deserialized exception has no conflicts
+  private final transient Map<String, List<IEvent>> conflicts;
+
+  /**
+   * Creates the exception for the given conflicts.
+   *
+   * @param conflicts name of each invitee who can't attend -> the events in their schedule
+   *                  the modified event would overlap, in invitee order
+   */
+  public EventConflictException(Map<String, List<IEvent>> conflicts) {
+    super("Event overlaps events in the schedules of " + conflicts.keySet());
+    Map<String, List<IEvent>> copy = new LinkedHashMap<>();
+    for (Map.Entry<String, List<IEvent>> entry : conflicts.entrySet()) {
+      copy.put(entry.getKey(), List.copyOf(entry.getValue()));
+    }
+    this.conflicts = Collections.unmodifiableMap(copy);
+  }
+
+  /**
+   * Observes the invitees who can't attend the modified event.
+   *
+   * @return the names of the invitees, in invitee order
+   */
+  public List<String> getConflictingUsers() {
+    return new ArrayList<>(this.getConflicts().keySet());
+  }
+
+  /**
+   * Observes the events in the way of the modified event in each invitee's schedule.
+   *
+   * @return name of each invitee who can't attend -> the events the modified event would
+   *         overlap, empty if the exception was deserialized
+   */
+  public Map<String, List<IEvent>> getConflicts() {
+    return this.conflicts == null ? Collections.emptyMap() : this.conflicts;
+  }
+}
@@ -0,0 +1,288 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Balanced interval tree holding the events of a schedule, ordered by the start minute of the
+ * week of each interval. Every node also keeps the latest end minute found anywhere in its
+ * subtree, so overlap checks and "what is happening at this time" lookups only walk the branches
+ * that can possibly match instead of every event in the schedule.
+ *
+ * <p> The tree stores whichever interval it is given for an event. It does not split events that
+ * go into the following week, that is up to the schedule using it. </p>
+ *
+ * <p> A tree never changes once built. Adding or removing an interval gives back a new tree
+ * that shares every node off the path to the change with the old one, so an older tree can
+ * still be read safely while newer ones are being built. </p>
+ */
+class EventIntervalTree {
+  // the tree without any intervals
+  static final EventIntervalTree EMPTY = new EventIntervalTree(null, 0);
+
+  private final Node root;
+  private final long nextSeq;
+
+  /**
+   * A single interval [lo, hi) of an event. Nodes are ordered by lo, and by insertion order
+   * when two intervals start at the same minute.
+   */
+  private static final class Node {
+    private final int lo;
+    private final int hi;
+    private final long seq;
+    private final IEvent event;
+    private final int maxHi;
+    private final int height;
+    private final Node left;
+    private final Node right;
+
+    private Node(int lo, int hi, long seq, IEvent event, Node left, Node right) {
+      this.lo = lo;
+      this.hi = hi;
+      this.seq = seq;
+      this.event = event;
+      this.left = left;
+      this.right = right;
+      this.height = 1 + Math.max(height(left), height(right));
+      int max = hi;
+      if (left != null) {
+        max = Math.max(max, left.maxHi);
+      }
+      if (right != null) {
+        max = Math.max(max, right.maxHi);
+      }
+      this.maxHi = max;
+    }
+
+    /**
+     * Copies this node with different children.
+     */
+    private Node with(Node left, Node right) {
+      return new Node(this.lo, this.hi, this.seq, this.event, left, right);
+    }
+  }
+
+  private EventIntervalTree(Node root, long nextSeq) {
+    this.root = root;
+    this.nextSeq = nextSeq;
+  }
+
+  /**
+   * Adds the interval [lo, hi) of the given event. Does not check for overlaps.
+   *
+   * @param lo first minute of the interval
+   * @param hi minute the interval ends at
+   * @param event event the interval belongs to
+   * @return the tree with the interval added
+   */
+  EventIntervalTree insert(int lo, int hi, IEvent event) {
+    Node toAdd = new Node(lo, hi, this.nextSeq, event, null, null);
+    return new EventIntervalTree(insert(this.root, toAdd), this.nextSeq + 1);
+  }
+
+  /**
+   * Removes every interval starting at the given minute that belongs to an event equal
+   * to the given event.
+   *
+   * @param lo first minute of the intervals to remove
+   * @param event event the intervals belong to
+   * @return the tree with the intervals removed
+   */
+  EventIntervalTree remove(int lo, IEvent event) {
+    List<Node> matches = new ArrayList<>();
+    collectStartingAt(this.root, lo, event, matches);
+    Node newRoot = this.root;
+    for (Node match : matches) {
+      newRoot = delete(newRoot, match.lo, match.seq);
+    }
+    return new EventIntervalTree(newRoot, this.nextSeq);
+  }
+
+  /**
+   * Determines whether any interval in the tree overlaps [lo, hi), i.e. starts before hi and
+   * ends after lo. Two intervals that only touch do not overlap.
+   *
+   * @param lo first minute of the interval to check
+   * @param hi minute the interval to check ends at
+   * @return true if any interval in the tree overlaps the given one
+   */
+  boolean overlapsAny(int lo, int hi) {
+    Node curr = this.root;
+    while (curr != null) {
+      if (curr.lo < hi && curr.hi > lo) {
+        return true;
+      }
+      // if anything in the left subtree ends after lo but none of it overlaps, every interval
+      // there starts at or after hi, so the right subtree cannot overlap either
+      if (curr.left != null && curr.left.maxHi > lo) {
+        curr = curr.left;
+      }
+      else {
+        curr = curr.right;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Finds the event occurring at the given minute of the week. An interval is occurring at both
+   * its start and end minute. If several events are occurring, the one that starts first
+   * is returned.
+   *
+   * @param minute minute of the week to look at
+   * @return the event occurring at that minute, null if there is none
+   */
+  IEvent eventAt(int minute) {
+    Node found = eventAt(this.root, minute);
+    return found == null ? null : found.event;
+  }
+
+  /**
+   * Collects the events overlapping the interval [lo, hi) in order of their start minute.
+   * An event with several intervals in the tree is only listed once.
+   *
+   * @param lo first minute of the interval
+   * @param hi minute the interval ends at, exclusive
+   * @return list of overlapping events
+   */
+  List<IEvent> overlapping(int lo, int hi) {
+    List<IEvent> result = new ArrayList<>();
+    overlapping(this.root, lo, hi, result);
+    return result;
+  }
+
+  private static Node eventAt(Node node, int minute) {
+    if (node == null || node.maxHi < minute) {
+      return null;
+    }
+    Node found = eventAt(node.left, minute);
+    if (found != null) {
+      return found;
+    }
+    if (node.lo > minute) {
+      return null;
+    }
+    if (node.hi >= minute) {
+      return node;
+    }
+    return eventAt(node.right, minute);
+  }
+
+  private static void overlapping(Node node, int lo, int hi, List<IEvent> result) {
+    if (node == null || node.maxHi <= lo) {
+      return;
+    }
+    overlapping(node.left, lo, hi, result);
+    if (node.lo >= hi) {
+      return;
+    }
+    if (node.hi > lo && !containsSame(result, node.event)) {
+      result.add(node.event);
+    }
+    overlapping(node.right, lo, hi, result);
+  }
+
+  private static boolean containsSame(List<IEvent> events, IEvent event) {
+    for (IEvent existing : events) {
+      if (existing == event) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static void collectStartingAt(Node node, int lo, IEvent event, List<Node> matches) {
+    if (node == null) {
+      return;
+    }
+    if (lo <= node.lo) {
+      collectStartingAt(node.left, lo, event, matches);
+    }
+    if (node.lo == lo && node.event.equals(event)) {
+      matches.add(node);
+    }
+    if (lo >= node.lo) {
+      collectStartingAt(node.right, lo, event, matches);
+    }
+  }
+
+  private static int compare(int lo, long seq, Node node) {
+    if (lo != node.lo) {
+      return Integer.compare(lo, node.lo);
+    }
+    return Long.compare(seq, node.seq);
+  }
+
+  private static Node insert(Node node, Node toAdd) {
+    if (node == null) {
+      return toAdd;
+    }
+    if (compare(toAdd.lo, toAdd.seq, node) < 0) {
+      return rebalance(node.with(insert(node.left, toAdd), node.right));
+    }
+    return rebalance(node.with(node.left, insert(node.right, toAdd)));
+  }
+
+  private static Node delete(Node node, int lo, long seq) {
+    if (node == null) {
+      return null;
+    }
+    int cmp = compare(lo, seq, node);
+    if (cmp < 0) {
+      return rebalance(node.with(delete(node.left, lo, seq), node.right));
+    }
+    if (cmp > 0) {
+      return rebalance(node.with(node.left, delete(node.right, lo, seq)));
+    }
+    if (node.left == null) {
+      return node.right;
+    }
+    if (node.right == null) {
+      return node.left;
+    }
+    Node successor = node.right;
+    while (successor.left != null) {
+      successor = successor.left;
+    }
+    return rebalance(successor.with(node.left, deleteMin(node.right)));
+  }
+
+  private static Node deleteMin(Node node) {
+    if (node.left == null) {
+      return node.right;
+    }
+    return rebalance(node.with(deleteMin(node.left), node.right));
+  }
+
+  private static int height(Node node) {
+    return node == null ? 0 : node.height;
+  }
+
+  private static Node rotateLeft(Node node) {
+    Node newRoot = node.right;
+    return newRoot.with(node.with(node.left, newRoot.left), newRoot.right);
+  }
+
+  private static Node rotateRight(Node node) {
+    Node newRoot = node.left;
+    return newRoot.with(newRoot.left, node.with(newRoot.right, node.right));
+  }
+
+  private static Node rebalance(Node node) {
+    int balance = height(node.left) - height(node.right);
+    if (balance > 1) {
+      if (height(node.left.left) < height(node.left.right)) {
+        node = node.with(rotateLeft(node.left), node.right);
+      }
+      return rotateRight(node);
+    }
+    if (balance < -1) {
+      if (height(node.right.right) < height(node.right.left)) {
+        node = node.with(node.left, rotateRight(node.right));
+      }
+      return rotateLeft(node);
+    }
+    return node;
+  }
+}
@@ -8,6 +8,28 @@ import java.util.List;
  */
 public interface IEvent {
 
+  /**
+   * ID of an event that has not been added to a planner system yet.
+   */
+  long NO_ID = 0;
+
+  /**
+   * Getting the ID the planner system knows this event by.
+   *
+   * @return the event's ID, or NO_ID if it has not been added to a planner system
+   */
+  long getId();
+
+  /**
+   * Copies this event with the ID the planner system knows it by. An event's ID never changes
+   * once it has been given one. The ID is not part of the event's equality.
+   *
+   * @param id ID of the event
+   * @return this event if it already has that ID, otherwise a copy of it with that ID
+   * @throws IllegalStateException if the event already has a different ID
+   */
+  IEvent withId(long id);
+
   /**
    * Getting the users invited to the event. The first user is the host of the event.
    *
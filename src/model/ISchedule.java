@@ -1,5 +1,6 @@
 package model;
 
+import java.io.IOException;
 import java.util.HashMap;
 import java.util.List;
 
@@ -42,10 +43,47 @@ public interface ISchedule {
    */
   String scheduleToXMLFormat();
 
+  /**
+   * Writes the schedule in XML format straight to the given output, one event at a time.
+   *
+   * @param out where to write the XML
+   * @throws IOException if writing to the output fails
+   */
+  void writeXML(Appendable out) throws IOException;
+
   /**
    * Return the event occurring at a given time. Schedule can only have one event at any given time
    * @param time the time to search for events occurring during
    * @return the event at the given time. returns null if no event is occurring
    */
   IEvent eventOccurring(ITime time);
+
+  /**
+   * Finds the events overlapping the period from the start time up to the end time.
+   * If the end time is before the start time, the period goes into the following week.
+   *
+   * @param start start of the period
+   * @param end end of the period, exclusive
+   * @return the overlapping events, ordered by start time
+   */
+  List<IEvent> eventsOverlapping(ITime start, ITime end);
+
+  /**
+   * Determines whether an event is taking up the given time. Unlike
+   * {@link #eventOccurring(ITime)}, an event is not taking up the minute it ends at.
+   *
+   * @param time time to check
+   * @return true if the schedule is busy at that time
+   */
+  boolean isBusyAt(ITime time);
+
+  /**
+   * Determines whether no event takes up any time from the start time up to the end time.
+   * If the end time is before the start time, the period goes into the following week.
+   *
+   * @param start start of the period
+   * @param end end of the period, exclusive
+   * @return true if the whole period is free
+   */
+  boolean isFree(ITime start, ITime end);
 }
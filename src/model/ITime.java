@@ -43,4 +43,11 @@ public interface ITime {
    */
   int minutesSinceMidnight();
 
+  /**
+   * Calculates the # of minutes since the start of the week (Sunday @00:00).
+   *
+   * @return # of minutes since the start of the week
+   */
+  int minuteOfWeek();
+
 }
\ No newline at end of file
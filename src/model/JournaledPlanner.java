@@ -0,0 +1,279 @@
+package model;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Planner system that records every change made through it in a {@link PlannerJournal}
+ * before returning, so no change is lost if the program stops before the schedules are saved.
+ * Everything else is passed straight to the planner it wraps.
+ *
+ * <p> A change is only recorded once the wrapped planner has made it, and a method returns
+ * once its change is on disk. Each change is made and recorded under one lock, so the journal
+ * holds the changes in the order they were made even when several threads make them, and
+ * replaying it gives the same planner. Waiting for the disk happens after letting go of the
+ * lock, so changes made at about the same time are still forced to disk together.
+ * A journaled planner is restarted with {@link #recover(String, String)}, which reads the last
+ * snapshot and replays the journal on top of it. {@link #checkpoint(String)} writes a new
+ * snapshot and empties the journal. </p>
+ */
+public class JournaledPlanner implements PlannerSystem {
+  private final PlannerSystem delegate;
+  private final PlannerJournal journal;
+  // held while making a change and recording it, so the journal is in the order of the changes
+  private final Object order;
+
+  /**
+   * Creates a planner recording every change made to the given planner in the given journal.
+   *
+   * @param delegate planner to make the changes to
+   * @param journal journal to record the changes in
+   */
+  public JournaledPlanner(PlannerSystem delegate, PlannerJournal journal) {
+    this.delegate = delegate;
+    this.journal = journal;
+    this.order = new Object();
+  }
+
+  /**
+   * Restores a planner from the snapshot at the given path and every change recorded in the
+   * journal at the given path since, and keeps recording changes in that journal.
+   *
+   * @param snapshotPath where the last snapshot is located, an empty planner is used if there
+   *                     is no snapshot
+   * @param journalPath where the journal is located, it is created if there is no journal
+   * @return the restored planner
+   * @throws IllegalStateException if the snapshot or journal can't be read
+   */
+  public static JournaledPlanner recover(String snapshotPath, String journalPath) {
+    PlannerSystem planner = Files.exists(Paths.get(snapshotPath))
+            ? PlannerSnapshot.read(snapshotPath) : new NUPlanner();
+    PlannerJournal.replay(journalPath, planner);
+    return new JournaledPlanner(planner, new PlannerJournal(journalPath));
+  }
+
+  /**
+   * Writes a snapshot of the planner to the given path and empties the journal, as every change
+   * in it is now part of the snapshot. The previous snapshot is only replaced once the new one
+   * is completely written and on disk. No change can be made from taking the snapshot until
+   * the journal is empty, so no change is left out of both.
+   *
+   * @param snapshotPath where to save the snapshot
+   * @throws IllegalStateException if the snapshot can't be written
+   */
+  public void checkpoint(String snapshotPath) {
+    Path snapshot = Paths.get(snapshotPath);
+    Path partial = Paths.get(snapshotPath + ".tmp");
+    synchronized (this.order) {
+      PlannerSnapshot.write(this.delegate, partial.toString());
+      try (FileChannel written = FileChannel.open(partial, StandardOpenOption.WRITE)) {
+        written.force(true);
+      } catch (IOException ex) {
+        throw new IllegalStateException("Error in writing the snapshot");
+      }
+      try {
+        Files.move(partial, snapshot, StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+      } catch (IOException ex) {
+        throw new IllegalStateException("Error in writing the snapshot");
+      }
+      this.journal.clear();
+    }
+  }
+
+  /**
+   * Closes the journal. Changes can't be made through this planner afterwards.
+   */
+  public void close() {
+    this.journal.close();
+  }
+
+  @Override
+  public void exportScheduleAsXML(String filePath) {
+    this.delegate.exportScheduleAsXML(filePath);
+  }
+
+  @Override
+  public int saveChangedSchedules(String filePath) {
+    return this.delegate.saveChangedSchedules(filePath);
+  }
+
+  @Override
+  public Set<IUser> getUsers() {
+    return this.delegate.getUsers();
+  }
+
+  @Override
+  public Map<IUser, Schedule.Version> scheduleVersions() {
+    return this.delegate.scheduleVersions();
+  }
+
+  /**
+   * Loads every user schedule XML file in the given directory, and records each user that
+   * was added.
+   *
+   * @param directoryPath path of the directory holding the schedule files
+   * @return the outcome of loading each file, in order of file name
+   * @throws IllegalArgumentException if the path is not a readable directory
+   */
+  @Override
+  public List<ScheduleLoadResult> loadSchedules(String directoryPath) {
+    List<ScheduleLoadResult> results;
+    long ticket = 0;
+    synchronized (this.order) {
+      results = this.delegate.loadSchedules(directoryPath);
+      for (ScheduleLoadResult result : results) {
+        if (result.succeeded()) {
+          ticket = this.journal.logAddUser(this.delegate.getUser(result.getUserName()));
+        }
+      }
+    }
+    this.journal.sync(ticket);
+    return results;
+  }
+
+  @Override
+  public void removeEventForRelevantUsers(IEvent eventToRemove, IUser userRemovingEvent) {
+    long ticket;
+    synchronized (this.order) {
+      this.delegate.removeEventForRelevantUsers(eventToRemove, userRemovingEvent);
+      ticket = this.journal.logRemoveEvent(eventToRemove, userRemovingEvent.getName());
+    }
+    this.journal.sync(ticket);
+  }
+
+  @Override
+  public void removeEventForRelevantUsers(long eventId, IUser userRemovingEvent) {
+    long ticket;
+    synchronized (this.order) {
+      IEvent eventToRemove = this.delegate.getEvent(eventId);
+      this.delegate.removeEventForRelevantUsers(eventId, userRemovingEvent);
+      ticket = this.journal.logRemoveEvent(eventToRemove, userRemovingEvent.getName());
+    }
+    this.journal.sync(ticket);
+  }
+
+  @Override
+  public void modifyEvent(IEvent prevEvent, IEvent newEvent) {
+    long ticket;
+    synchronized (this.order) {
+      this.delegate.modifyEvent(prevEvent, newEvent);
+      ticket = this.journal.logModifyEvent(prevEvent, newEvent);
+    }
+    this.journal.sync(ticket);
+  }
+
+  @Override
+  public void modifyEvent(long eventId, IEvent newEvent) {
+    long ticket;
+    synchronized (this.order) {
+      IEvent prevEvent = this.delegate.getEvent(eventId);
+      this.delegate.modifyEvent(eventId, newEvent);
+      ticket = this.journal.logModifyEvent(prevEvent, newEvent);
+    }
+    this.journal.sync(ticket);
+  }
+
+  @Override
+  public void addEventForRelevantUsers(IEvent eventToAdd) {
+    long ticket;
+    synchronized (this.order) {
+      this.delegate.addEventForRelevantUsers(eventToAdd);
+      ticket = this.journal.logAddEvent(eventToAdd);
+    }
+    this.journal.sync(ticket);
+  }
+
+  /**
+   * Adds many events at once, and records each event that was added for anyone. The events
+   * are recorded in order of start time, so replaying them one at a time adds each one for
+   * the same users. The records are forced to disk together.
+   *
+   * @param eventsToAdd events to add to the relevant user schedules
+   * @return the outcome of adding each event, in the order the events were given
+   */
+  @Override
+  public List<EventAddResult> addEventsForRelevantUsers(Collection<IEvent> eventsToAdd) {
+    List<EventAddResult> results;
+    long ticket;
+    synchronized (this.order) {
+      results = this.delegate.addEventsForRelevantUsers(eventsToAdd);
+      List<IEvent> added = new ArrayList<>();
+      for (EventAddResult result : results) {
+        if (result.accepted()) {
+          added.add(result.getEvent());
+        }
+      }
+      added.sort(Comparator.comparingInt(event -> event.getStartTime().minuteOfWeek()));
+      ticket = this.journal.logAddEvents(added);
+    }
+    this.journal.sync(ticket);
+    return results;
+  }
+
+  @Override
+  public void addUser(IUser userToAdd) {
+    long ticket = 0;
+    synchronized (this.order) {
+      boolean isNew = this.delegate.getUser(userToAdd.getName()) == null;
+      this.delegate.addUser(userToAdd);
+      if (isNew) {
+        ticket = this.journal.logAddUser(userToAdd);
+      }
+    }
+    this.journal.sync(ticket);
+  }
+
+  @Override
+  public IEvent retrieveUserScheduleAtTime(IUser user, ITime givenTime) {
+    return this.delegate.retrieveUserScheduleAtTime(user, givenTime);
+  }
+
+  @Override
+  public IUser getUser(String name) {
+    return this.delegate.getUser(name);
+  }
+
+  @Override
+  public List<IEvent> retrieveUserEvents(IUser user) {
+    return this.delegate.retrieveUserEvents(user);
+  }
+
+  @Override
+  public List<IEvent> eventsInvitedTo(String userName) {
+    return this.delegate.eventsInvitedTo(userName);
+  }
+
+  @Override
+  public List<IEvent> eventsHostedBy(String userName) {
+    return this.delegate.eventsHostedBy(userName);
+  }
+
+  @Override
+  public List<ITime> findFreeSlots(Collection<String> userNames, int durationMinutes,
+                                   ITime windowStart, ITime windowEnd, int maxSlots) {
+    return this.delegate.findFreeSlots(userNames, durationMinutes, windowStart, windowEnd,
+            maxSlots);
+  }
+
+  @Override
+  public ITime findFreeSlot(Collection<String> userNames, int durationMinutes) {
+    return this.delegate.findFreeSlot(userNames, durationMinutes);
+  }
+
+  @Override
+  public IEvent getEvent(long eventId) {
+    return this.delegate.getEvent(eventId);
+  }
+}
@@ -0,0 +1,132 @@
+package model;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histogram of how long calls took, in nanoseconds, that many threads can record into at once.
+ * Like an HDR histogram, every power of two is split into the same number of equal buckets,
+ * so a value is known to within an eighth of itself however large it is, from a nanosecond up
+ * to the longest time a long can hold.
+ *
+ * <p> Every bucket is a striped counter, which is only made the first time a value falls into
+ * it, so recording a value takes a few nanoseconds and threads recording at once don't wait
+ * on each other. </p>
+ */
+public final class LatencyHistogram {
+  // each power of two is split into 2^SUB_BUCKET_BITS buckets
+  private static final int SUB_BUCKET_BITS = 3;
+  private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+  // values below SUB_BUCKETS get a bucket each, then each higher power of two gets SUB_BUCKETS
+  static final int BUCKETS = (Long.SIZE - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+  private final AtomicReferenceArray<LongAdder> buckets;
+  private final LongAdder total;
+  private final LongAccumulator max;
+
+  /**
+   * Creates an empty histogram.
+   */
+  public LatencyHistogram() {
+    this.buckets = new AtomicReferenceArray<>(BUCKETS);
+    this.total = new LongAdder();
+    this.max = new LongAccumulator(Math::max, 0);
+  }
+
+  /**
+   * Records how long a call took.
+   *
+   * @param nanos time taken, in nanoseconds, negative times are counted as 0
+   */
+  public void record(long nanos) {
+    long value = Math.max(0, nanos);
+    int idx = bucketOf(value);
+    LongAdder bucket = this.buckets.get(idx);
+    if (bucket == null) {
+      this.buckets.compareAndSet(idx, null, new LongAdder());
+      bucket = this.buckets.get(idx);
+    }
+    bucket.increment();
+    this.total.add(value);
+    this.max.accumulate(value);
+  }
+
+  /**
+   * Observes the number of values recorded.
+   *
+   * @return the number of values
+   */
+  public long getCount() {
+    long count = 0;
+    for (long bucketCount : this.bucketCounts()) {
+      count += bucketCount;
+    }
+    return count;
+  }
+
+  /**
+   * Observes the sum of the values recorded.
+   *
+   * @return the total, in nanoseconds
+   */
+  public long getTotalNanos() {
+    return this.total.sum();
+  }
+
+  /**
+   * Observes the largest value recorded.
+   *
+   * @return the largest value, in nanoseconds, 0 if none was recorded
+   */
+  public long getMaxNanos() {
+    return this.max.get();
+  }
+
+  /**
+   * Counts the values that fell into each bucket so far. Values recorded while counting may
+   * or may not be included.
+   *
+   * @return the number of values in each bucket, in increasing order of value
+   */
+  long[] bucketCounts() {
+    long[] counts = new long[BUCKETS];
+    for (int idx = 0; idx < BUCKETS; idx++) {
+      LongAdder bucket = this.buckets.get(idx);
+      counts[idx] = bucket == null ? 0 : bucket.sum();
+    }
+    return counts;
+  }
+
+  /**
+   * Finds the bucket a value falls into.
+   *
+   * @param value a value that is not negative
+   * @return index of the bucket
+   */
+  static int bucketOf(long value) {
+    if (value < SUB_BUCKETS) {
+      return (int) value;
+    }
+    int magnitude = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+    int shift = magnitude - SUB_BUCKET_BITS;
+    // the top bit is always set, so the sub-bucket is in the bits just below it
+    int sub = (int) (value >>> shift) & (SUB_BUCKETS - 1);
+    return (shift + 1) * SUB_BUCKETS + sub;
+  }
+
+  /**
+   * Finds the largest value that falls into a bucket.
+   *
+   * @param idx index of the bucket
+   * @return the largest value in the bucket
+   */
+  static long highestValueIn(int idx) {
+    if (idx < SUB_BUCKETS) {
+      return idx;
+    }
+    int shift = idx / SUB_BUCKETS - 1;
+    long lowest = (long) (SUB_BUCKETS + idx % SUB_BUCKETS) << shift;
+    return lowest + ((1L << shift) - 1);
+  }
+}
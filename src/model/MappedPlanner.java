@@ -0,0 +1,538 @@
+package model;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static controller.UtilsXML.writeToFile;
+
+/**
+ * Read-only planner backed by a {@link PlannerSnapshot} file mapped into memory. Nothing is
+ * read from the snapshot up front, users and events are only decoded from the mapped file when
+ * they are asked for, so opening even a very large snapshot is instant and the file's pages are
+ * shared with every other program mapping it.
+ *
+ * <p> Finding the event at a given time only decodes the start and end of each of the user's
+ * events, plus the event found. Events are given the ID of their position in the snapshot,
+ * starting at 1, and are decoded again every time they are asked for. </p>
+ *
+ * <p> The users handed out cannot be changed. Snapshots larger than 2GB can't be mapped. </p>
+ */
+public class MappedPlanner implements ReadOnlyPlanner {
+  private final ByteBuffer buffer;
+  private final int stringsPos;
+  private final int eventsPos;
+  private final int usersPos;
+  private Set<IUser> users;
+  // name -> position of the user in the snapshot, filled in the first time a user is looked up
+  private Map<String, Integer> userIdxByName;
+  // string -> index in the dictionary, filled in the first time a string is looked up
+  private Map<String, Integer> stringIdxByValue;
+
+  /**
+   * Maps the snapshot at the given path into memory.
+   *
+   * @param filePath where the snapshot is located
+   * @throws IllegalStateException if the file can't be opened, is not a planner snapshot, or its
+   *                               sections don't fit in it
+   */
+  public MappedPlanner(String filePath) {
+    try (FileChannel channel = FileChannel.open(Paths.get(filePath), StandardOpenOption.READ)) {
+      this.buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+    } catch (IOException ex) {
+      throw new IllegalStateException("Error in opening the snapshot");
+    }
+    if (this.buffer.capacity() < PlannerSnapshot.HEADER_SIZE) {
+      throw new IllegalStateException("File is not a planner snapshot");
+    }
+    PlannerSnapshot.checkHeader(this.intAt(0), this.shortAt(4));
+    this.stringsPos = this.intAt(6);
+    this.eventsPos = this.intAt(10);
+    this.usersPos = this.intAt(14);
+    int stringsEnd = this.tableEnd(this.stringsPos, PlannerSnapshot.HEADER_SIZE, this.eventsPos);
+    int eventsEnd = this.tableEnd(this.eventsPos, stringsEnd, this.usersPos);
+    this.tableEnd(this.usersPos, eventsEnd, this.buffer.capacity());
+    // a truncated snapshot is missing the end of its last user
+    int userCount = this.intAt(this.usersPos);
+    if (userCount > 0) {
+      int lastPos = this.recordPos(this.usersPos, userCount - 1);
+      if (lastPos > this.buffer.capacity() - PlannerSnapshot.USER_FIXED_SIZE
+              - 4L * this.count(lastPos + 4)) {
+        throw new IllegalStateException("Error in reading the snapshot");
+      }
+    }
+  }
+
+  /**
+   * Retrieves the users in the snapshot. Only creates a small handle for each user, their
+   * names and schedules are decoded when asked for.
+   *
+   * @return set of users in the snapshot, in snapshot order
+   */
+  @Override
+  public synchronized Set<IUser> getUsers() {
+    if (this.users == null) {
+      Set<IUser> handles = new LinkedHashSet<>();
+      int userCount = this.intAt(this.usersPos);
+      for (int idx = 0; idx < userCount; idx++) {
+        handles.add(new MappedUser(idx));
+      }
+      this.users = Collections.unmodifiableSet(handles);
+    }
+    return this.users;
+  }
+
+  /**
+   * Retrieves the user in the snapshot with the given name.
+   *
+   * @param name name of the user
+   * @return the user with that name, null if there is no such user
+   */
+  @Override
+  public IUser getUser(String name) {
+    Integer userIdx = this.userIdxByName().get(name);
+    return userIdx == null ? null : new MappedUser(userIdx);
+  }
+
+  /**
+   * Decodes the events in this user's schedule from the snapshot.
+   *
+   * @param user desired user for whom to retrieve the schedule
+   * @return a list of this user's events
+   */
+  @Override
+  public List<IEvent> retrieveUserEvents(IUser user) {
+    Integer userIdx = this.userIdxOf(user);
+    if (userIdx == null) {
+      return user.getSchedule().getEvents();
+    }
+    int userPos = this.recordPos(this.usersPos, userIdx);
+    int eventCount = this.count(userPos + 4);
+    List<IEvent> events = new ArrayList<>(eventCount);
+    for (int idx = 0; idx < eventCount; idx++) {
+      events.add(this.event(this.intAt(userPos + PlannerSnapshot.USER_FIXED_SIZE
+              + 4 * idx)));
+    }
+    return events;
+  }
+
+  /**
+   * Return event in a user's schedule at a given time, the same way
+   * {@link ISchedule#eventOccurring(ITime)} does. Only the event found is decoded.
+   *
+   * @param user      the user to examine
+   * @param givenTime the time to look at event within
+   * @return an event. return null if no events at that time
+   */
+  @Override
+  public IEvent retrieveUserScheduleAtTime(IUser user, ITime givenTime) {
+    Integer userIdx = this.userIdxOf(user);
+    if (userIdx == null) {
+      return user.getSchedule().eventOccurring(givenTime);
+    }
+    int minute = givenTime.minuteOfWeek();
+    int userPos = this.recordPos(this.usersPos, userIdx);
+    int eventCount = this.intAt(userPos + 4);
+    int found = -1;
+    int foundStart = Integer.MAX_VALUE;
+    for (int idx = 0; idx < eventCount; idx++) {
+      int eventIdx = this.intAt(userPos + PlannerSnapshot.USER_FIXED_SIZE + 4 * idx);
+      int eventPos = this.recordPos(this.eventsPos, eventIdx);
+      int start = this.shortAt(eventPos + 8);
+      int end = this.shortAt(eventPos + 10);
+      // an event going into the following week also occurs from the start of this week
+      int occurringFrom = -1;
+      if (start <= minute && (minute <= end || end < start)) {
+        occurringFrom = start;
+      }
+      else if (end < start && minute <= end) {
+        occurringFrom = 0;
+      }
+      if (occurringFrom >= 0 && occurringFrom < foundStart) {
+        found = eventIdx;
+        foundStart = occurringFrom;
+      }
+    }
+    return found < 0 ? null : this.event(found);
+  }
+
+  /**
+   * Decodes the events in the snapshot whose invitee list includes the given name. Goes
+   * through every event, but only compares the dictionary indices of the invitees.
+   *
+   * @param userName name of the user
+   * @return list of events the user is invited to, in snapshot order
+   */
+  @Override
+  public List<IEvent> eventsInvitedTo(String userName) {
+    return this.eventsWithInvitee(userName, false);
+  }
+
+  /**
+   * Decodes the events in the snapshot hosted by the user with the given name.
+   *
+   * @param userName name of the host
+   * @return list of events the user hosts, in snapshot order
+   */
+  @Override
+  public List<IEvent> eventsHostedBy(String userName) {
+    return this.eventsWithInvitee(userName, true);
+  }
+
+  /**
+   * Finds the earliest times within the given window at which every given user is free for
+   * the given number of minutes. Only the start and end of the users' events are decoded.
+   * The slots found do not overlap. Names of users not in the snapshot are ignored.
+   *
+   * @param userNames names of the users who all need to be free
+   * @param durationMinutes how long each slot lasts, in minutes
+   * @param windowStart earliest time a slot may start at
+   * @param windowEnd time every slot has to end by
+   * @param maxSlots most slots to find
+   * @return the start time of each slot found, earliest first
+   * @throws IllegalArgumentException if the duration or number of slots is not positive, or the
+   *                                  window ends before it starts
+   */
+  @Override
+  public List<ITime> findFreeSlots(Collection<String> userNames, int durationMinutes,
+                                   ITime windowStart, ITime windowEnd, int maxSlots) {
+    OccupancyBitmap busy = new OccupancyBitmap();
+    for (String userName : new LinkedHashSet<>(userNames)) {
+      Integer userIdx = this.userIdxByName().get(userName);
+      if (userIdx == null) {
+        continue;
+      }
+      int userPos = this.recordPos(this.usersPos, userIdx);
+      int eventCount = this.intAt(userPos + 4);
+      for (int idx = 0; idx < eventCount; idx++) {
+        int eventPos = this.recordPos(this.eventsPos,
+                this.intAt(userPos + PlannerSnapshot.USER_FIXED_SIZE + 4 * idx));
+        busy.setSpan(this.shortAt(eventPos + 8), this.shortAt(eventPos + 10));
+      }
+    }
+    List<ITime> slots = new ArrayList<>();
+    for (int start : busy.findFree(durationMinutes, windowStart.minuteOfWeek(),
+            windowEnd.minuteOfWeek(), maxSlots)) {
+      slots.add(Time.ofMinuteOfWeek(start));
+    }
+    return slots;
+  }
+
+  /**
+   * Finds the earliest time in the week at which every given user is free for the given number
+   * of minutes. Names of users not in the planner are ignored.
+   *
+   * @param userNames names of the users who all need to be free
+   * @param durationMinutes how long the slot lasts, in minutes
+   * @return the start time of the slot, null if there is no such time
+   * @throws IllegalArgumentException if the duration is not positive
+   */
+  @Override
+  public ITime findFreeSlot(Collection<String> userNames, int durationMinutes) {
+    return NUPlanner.firstFreeSlot(this, userNames, durationMinutes);
+  }
+
+  /**
+   * Decodes the event with the given ID, i.e. its position in the snapshot plus 1.
+   *
+   * @param eventId ID of the event
+   * @return the event with that ID
+   * @throws IllegalArgumentException if no event in the snapshot has that ID
+   */
+  @Override
+  public IEvent getEvent(long eventId) {
+    if (eventId < 1 || eventId > this.intAt(this.eventsPos)) {
+      throw new IllegalArgumentException("No event with ID " + eventId);
+    }
+    return this.event((int) (eventId - 1));
+  }
+
+  /**
+   * Finds where a record starts, using the offset table of its section.
+   *
+   * @param sectionPos position of the section
+   * @param idx index of the record in the section
+   * @return position of the record
+   * @throws IllegalStateException if there is no such record or it lies past the end of the
+   *                               snapshot
+   */
+  private int recordPos(int sectionPos, int idx) {
+    if (idx < 0 || idx >= this.intAt(sectionPos)) {
+      throw new IllegalStateException("Error in reading the snapshot");
+    }
+    int pos = this.intAt(sectionPos + 4 + 4 * idx);
+    int fixedSize = 2;
+    if (sectionPos == this.eventsPos) {
+      fixedSize = PlannerSnapshot.EVENT_FIXED_SIZE;
+    }
+    else if (sectionPos == this.usersPos) {
+      fixedSize = PlannerSnapshot.USER_FIXED_SIZE;
+    }
+    if (pos < sectionPos || pos > this.buffer.capacity() - fixedSize) {
+      throw new IllegalStateException("Error in reading the snapshot");
+    }
+    return pos;
+  }
+
+  /**
+   * Checks that the offset table of a section lies between the given positions.
+   *
+   * @param sectionPos position of the section
+   * @param from position the section may start at the earliest
+   * @param to position the section has to start before
+   * @return position just after the section's offset table
+   * @throws IllegalStateException if the table does not lie between the positions
+   */
+  private int tableEnd(int sectionPos, int from, int to) {
+    if (sectionPos < from || sectionPos > to - 4) {
+      throw new IllegalStateException("Error in reading the snapshot");
+    }
+    long end = sectionPos + 4 + 4L * this.count(sectionPos);
+    if (end > to) {
+      throw new IllegalStateException("Error in reading the snapshot");
+    }
+    return (int) end;
+  }
+
+  /**
+   * Reads a count of records or entries from the snapshot.
+   *
+   * @param pos position of the count
+   * @return the count
+   * @throws IllegalStateException if the count is negative or past the end of the snapshot
+   */
+  private int count(int pos) {
+    int count = this.intAt(pos);
+    if (count < 0) {
+      throw new IllegalStateException("Error in reading the snapshot");
+    }
+    return count;
+  }
+
+  /**
+   * Reads an int from the snapshot.
+   *
+   * @param pos position of the int
+   * @return the int
+   * @throws IllegalStateException if the int is past the end of the snapshot
+   */
+  private int intAt(int pos) {
+    if (pos < 0 || pos > this.buffer.capacity() - 4) {
+      throw new IllegalStateException("Error in reading the snapshot");
+    }
+    return this.buffer.getInt(pos);
+  }
+
+  /**
+   * Reads an unsigned short from the snapshot.
+   *
+   * @param pos position of the short
+   * @return the short
+   * @throws IllegalStateException if the short is past the end of the snapshot
+   */
+  private int shortAt(int pos) {
+    if (pos < 0 || pos > this.buffer.capacity() - 2) {
+      throw new IllegalStateException("Error in reading the snapshot");
+    }
+    return this.buffer.getShort(pos) & 0xFFFF;
+  }
+
+  /**
+   * Decodes a string from the dictionary.
+   *
+   * @param stringIdx index of the string
+   * @return the string
+   */
+  private String string(int stringIdx) {
+    int pos = this.recordPos(this.stringsPos, stringIdx);
+    byte[] encoded = new byte[2 + this.shortAt(pos)];
+    if (pos > this.buffer.capacity() - encoded.length) {
+      throw new IllegalStateException("Error in reading the snapshot");
+    }
+    this.buffer.get(pos, encoded);
+    try {
+      return new DataInputStream(new ByteArrayInputStream(encoded)).readUTF();
+    } catch (IOException ex) {
+      throw new IllegalStateException("Error in reading the snapshot");
+    }
+  }
+
+  /**
+   * Decodes an event.
+   *
+   * @param eventIdx index of the event
+   * @return the event, with an ID of its index plus 1
+   */
+  private IEvent event(int eventIdx) {
+    int pos = this.recordPos(this.eventsPos, eventIdx);
+    int locationIdx = this.intAt(pos + 4);
+    List<String> invitees = new ArrayList<>();
+    int inviteeCount = this.intAt(pos + 13);
+    for (int idx = 0; idx < inviteeCount; idx++) {
+      invitees.add(this.string(this.intAt(pos + PlannerSnapshot.EVENT_FIXED_SIZE
+              + 4 * idx)));
+    }
+    return new Event(this.string(this.intAt(pos)),
+            Time.ofMinuteOfWeek(this.shortAt(pos + 8)),
+            Time.ofMinuteOfWeek(this.shortAt(pos + 10)),
+            this.buffer.get(pos + 12) != 0,
+            locationIdx == PlannerSnapshot.NO_STRING ? null : this.string(locationIdx),
+            invitees).withId(eventIdx + 1);
+  }
+
+  /**
+   * Decodes the events with the given name among their invitees.
+   *
+   * @param userName name to look for
+   * @param hostOnly whether only the host, i.e. the first invitee, should be compared
+   * @return list of the events, in snapshot order
+   */
+  private List<IEvent> eventsWithInvitee(String userName, boolean hostOnly) {
+    List<IEvent> events = new ArrayList<>();
+    int stringIdx = this.stringIdxOf(userName);
+    if (stringIdx < 0) {
+      return events;
+    }
+    int eventCount = this.intAt(this.eventsPos);
+    for (int eventIdx = 0; eventIdx < eventCount; eventIdx++) {
+      int pos = this.recordPos(this.eventsPos, eventIdx);
+      int inviteeCount = hostOnly ? 1 : this.intAt(pos + 13);
+      for (int idx = 0; idx < inviteeCount; idx++) {
+        if (this.intAt(pos + PlannerSnapshot.EVENT_FIXED_SIZE + 4 * idx) == stringIdx) {
+          events.add(this.event(eventIdx));
+          break;
+        }
+      }
+    }
+    return events;
+  }
+
+  /**
+   * Finds the dictionary index of the given string, decoding the dictionary the first time it
+   * is needed.
+   *
+   * @param string string to look for
+   * @return its index, -1 if it is not in the dictionary
+   */
+  private int stringIdxOf(String string) {
+    return this.stringIdxByValue().getOrDefault(string, -1);
+  }
+
+  /**
+   * Maps every string in the dictionary to its index, decoding the dictionary the first time
+   * it is needed.
+   *
+   * @return map of string to index
+   */
+  private synchronized Map<String, Integer> stringIdxByValue() {
+    if (this.stringIdxByValue == null) {
+      Map<String, Integer> byValue = new HashMap<>();
+      int stringCount = this.intAt(this.stringsPos);
+      for (int idx = 0; idx < stringCount; idx++) {
+        byValue.putIfAbsent(this.string(idx), idx);
+      }
+      this.stringIdxByValue = byValue;
+    }
+    return this.stringIdxByValue;
+  }
+
+  /**
+   * Finds the position in the snapshot of the given user.
+   *
+   * @param user user to look for
+   * @return the user's position, null if the user is not from this snapshot
+   */
+  private Integer userIdxOf(IUser user) {
+    if (user instanceof MappedUser && ((MappedUser) user).planner() == this) {
+      return ((MappedUser) user).userIdx;
+    }
+    return this.userIdxByName().get(user.getName());
+  }
+
+  /**
+   * Maps the name of every user to their position in the snapshot, decoding the names the first
+   * time it is needed.
+   *
+   * @return map of name to position
+   */
+  private synchronized Map<String, Integer> userIdxByName() {
+    if (this.userIdxByName == null) {
+      Map<String, Integer> byName = new HashMap<>();
+      int userCount = this.intAt(this.usersPos);
+      for (int idx = 0; idx < userCount; idx++) {
+        byName.put(this.string(this.intAt(this.recordPos(this.usersPos, idx))), idx);
+      }
+      this.userIdxByName = byName;
+    }
+    return this.userIdxByName;
+  }
+
+  /**
+   * A user in the snapshot, only holding their position in it.
+   */
+  private final class MappedUser implements IUser {
+    private final int userIdx;
+
+    private MappedUser(int userIdx) {
+      this.userIdx = userIdx;
+    }
+
+    private MappedPlanner planner() {
+      return MappedPlanner.this;
+    }
+
+    @Override
+    public String getName() {
+      return string(intAt(recordPos(usersPos, this.userIdx)));
+    }
+
+    /**
+     * Decodes the user's schedule. Changes to it are not kept.
+     *
+     * @return the user's schedule
+     */
+    @Override
+    public ISchedule getSchedule() {
+      return new Schedule(new ArrayList<>(retrieveUserEvents(this)));
+    }
+
+    @Override
+    public void userSchedToXML(String filePathToSave) {
+      writeToFile(filePathToSave + this.getName() + "_schedule.xml", this.getName(),
+              this.getSchedule());
+    }
+
+    @Override
+    public void addEventForUser(IEvent event) {
+      throw new IllegalStateException("Users in a mapped snapshot cannot be changed");
+    }
+
+    @Override
+    public void removeEventForUser(IEvent event) {
+      throw new IllegalStateException("Users in a mapped snapshot cannot be changed");
+    }
+
+    @Override
+    public boolean equals(Object other) {
+      return other instanceof MappedUser && ((MappedUser) other).planner() == this.planner()
+              && ((MappedUser) other).userIdx == this.userIdx;
+    }
+
+    @Override
+    public int hashCode() {
+      return this.userIdx;
+    }
+  }
+}
@@ -0,0 +1,438 @@
+package model;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Planner system that records, for every operation, how often it is called, how often it
+ * fails and how long the calls take, and passes everything to the planner it wraps. The
+ * metrics are kept in striped counters and {@link LatencyHistogram}s, so recording a call
+ * only costs reading the clock twice and a few counter increments, and calls from many threads
+ * don't wait on each other.
+ *
+ * <p> A call fails if it throws, or if an invitee could not take the event it added or
+ * modified, which the wrapped planner does not throw for. Both overloads of an operation are
+ * recorded under the same name. {@link #getMetrics()} takes the metrics as they are at the
+ * time of the call. </p>
+ */
+public class MetricsPlanner implements PlannerSystem {
+  private final PlannerSystem delegate;
+  private final Map<String, Recorder> recorders;
+
+  private final Recorder exportScheduleAsXML;
+  private final Recorder saveChangedSchedules;
+  private final Recorder getUsers;
+  private final Recorder scheduleVersions;
+  private final Recorder loadSchedules;
+  private final Recorder removeEventForRelevantUsers;
+  private final Recorder modifyEvent;
+  private final Recorder addEventForRelevantUsers;
+  private final Recorder addEventsForRelevantUsers;
+  private final Recorder addUser;
+  private final Recorder retrieveUserScheduleAtTime;
+  private final Recorder getUser;
+  private final Recorder retrieveUserEvents;
+  private final Recorder eventsInvitedTo;
+  private final Recorder eventsHostedBy;
+  private final Recorder findFreeSlots;
+  private final Recorder findFreeSlot;
+  private final Recorder getEvent;
+
+  /**
+   * Counts the calls to one operation and how long they take.
+   */
+  private static final class Recorder {
+    private final LongAdder errors = new LongAdder();
+    private final LatencyHistogram latency = new LatencyHistogram();
+  }
+
+  /**
+   * Creates a planner recording the metrics of every call to the given planner.
+   *
+   * @param delegate planner to pass the calls to
+   */
+  public MetricsPlanner(PlannerSystem delegate) {
+    this.delegate = delegate;
+    this.recorders = new LinkedHashMap<>();
+    this.exportScheduleAsXML = this.recorder("exportScheduleAsXML");
+    this.saveChangedSchedules = this.recorder("saveChangedSchedules");
+    this.getUsers = this.recorder("getUsers");
+    this.scheduleVersions = this.recorder("scheduleVersions");
+    this.loadSchedules = this.recorder("loadSchedules");
+    this.removeEventForRelevantUsers = this.recorder("removeEventForRelevantUsers");
+    this.modifyEvent = this.recorder("modifyEvent");
+    this.addEventForRelevantUsers = this.recorder("addEventForRelevantUsers");
+    this.addEventsForRelevantUsers = this.recorder("addEventsForRelevantUsers");
+    this.addUser = this.recorder("addUser");
+    this.retrieveUserScheduleAtTime = this.recorder("retrieveUserScheduleAtTime");
+    this.getUser = this.recorder("getUser");
+    this.retrieveUserEvents = this.recorder("retrieveUserEvents");
+    this.eventsInvitedTo = this.recorder("eventsInvitedTo");
+    this.eventsHostedBy = this.recorder("eventsHostedBy");
+    this.findFreeSlots = this.recorder("findFreeSlots");
+    this.findFreeSlot = this.recorder("findFreeSlot");
+    this.getEvent = this.recorder("getEvent");
+  }
+
+  /**
+   * Makes the recorder of the operation with the given name.
+   *
+   * @param name name of the operation
+   * @return the recorder
+   */
+  private Recorder recorder(String name) {
+    Recorder recorder = new Recorder();
+    this.recorders.put(name, recorder);
+    return recorder;
+  }
+
+  /**
+   * Takes the metrics of every operation as they are now.
+   *
+   * @return name of each operation -> its metrics, in the order of the planner's methods
+   */
+  public Map<String, OperationMetrics> getMetrics() {
+    Map<String, OperationMetrics> metrics = new LinkedHashMap<>();
+    for (Map.Entry<String, Recorder> entry : this.recorders.entrySet()) {
+      Recorder recorder = entry.getValue();
+      metrics.put(entry.getKey(), new OperationMetrics(entry.getKey(),
+              recorder.errors.sum(), recorder.latency));
+    }
+    return Collections.unmodifiableMap(metrics);
+  }
+
+  @Override
+  public void exportScheduleAsXML(String filePath) {
+    long start = System.nanoTime();
+    try {
+      this.delegate.exportScheduleAsXML(filePath);
+    } catch (RuntimeException ex) {
+      this.exportScheduleAsXML.errors.increment();
+      throw ex;
+    } finally {
+      this.exportScheduleAsXML.latency.record(System.nanoTime() - start);
+    }
+  }
+
+  @Override
+  public int saveChangedSchedules(String filePath) {
+    long start = System.nanoTime();
+    try {
+      return this.delegate.saveChangedSchedules(filePath);
+    } catch (RuntimeException ex) {
+      this.saveChangedSchedules.errors.increment();
+      throw ex;
+    } finally {
+      this.saveChangedSchedules.latency.record(System.nanoTime() - start);
+    }
+  }
+
+  @Override
+  public Set<IUser> getUsers() {
+    long start = System.nanoTime();
+    try {
+      return this.delegate.getUsers();
+    } catch (RuntimeException ex) {
+      this.getUsers.errors.increment();
+      throw ex;
+    } finally {
+      this.getUsers.latency.record(System.nanoTime() - start);
+    }
+  }
+
+  @Override
+  public Map<IUser, Schedule.Version> scheduleVersions() {
+    long start = System.nanoTime();
+    try {
+      return this.delegate.scheduleVersions();
+    } catch (RuntimeException ex) {
+      this.scheduleVersions.errors.increment();
+      throw ex;
+    } finally {
+      this.scheduleVersions.latency.record(System.nanoTime() - start);
+    }
+  }
+
+  /**
+   * Loads every user schedule XML file in the given directory. Every file that could not be
+   * loaded counts as a failure.
+   *
+   * @param directoryPath path of the directory holding the schedule files
+   * @return the outcome of loading each file, in order of file name
+   * @throws IllegalArgumentException if the path is not a readable directory
+   */
+  @Override
+  public List<ScheduleLoadResult> loadSchedules(String directoryPath) {
+    long start = System.nanoTime();
+    try {
+      List<ScheduleLoadResult> results = this.delegate.loadSchedules(directoryPath);
+      for (ScheduleLoadResult result : results) {
+        if (!result.succeeded()) {
+          this.loadSchedules.errors.increment();
+        }
+      }
+      return results;
+    } catch (RuntimeException ex) {
+      this.loadSchedules.errors.increment();
+      throw ex;
+    } finally {
+      this.loadSchedules.latency.record(System.nanoTime() - start);
+    }
+  }
+
+  @Override
+  public void removeEventForRelevantUsers(IEvent eventToRemove, IUser userRemovingEvent) {
+    long start = System.nanoTime();
+    try {
+      this.delegate.removeEventForRelevantUsers(eventToRemove, userRemovingEvent);
+    } catch (RuntimeException ex) {
+      this.removeEventForRelevantUsers.errors.increment();
+      throw ex;
+    } finally {
+      this.removeEventForRelevantUsers.latency.record(System.nanoTime() - start);
+    }
+  }
+
+  @Override
+  public void removeEventForRelevantUsers(long eventId, IUser userRemovingEvent) {
+    long start = System.nanoTime();
+    try {
+      this.delegate.removeEventForRelevantUsers(eventId, userRemovingEvent);
+    } catch (RuntimeException ex) {
+      this.removeEventForRelevantUsers.errors.increment();
+      throw ex;
+    } finally {
+      this.removeEventForRelevantUsers.latency.record(System.nanoTime() - start);
+    }
+  }
+
+  /**
+   * Modifies an event. Leaving the host out of the modified event counts as a failure, as the
+   * planner leaves the event as it is.
+   *
+   * @param prevEvent event to be modified
+   * @param newEvent what the previous event should be modified to
+   */
+  @Override
+  public void modifyEvent(IEvent prevEvent, IEvent newEvent) {
+    long start = System.nanoTime();
+    try {
+      this.delegate.modifyEvent(prevEvent, newEvent);
+      this.countDroppedHost(prevEvent, newEvent);
+    } catch (RuntimeException ex) {
+      this.modifyEvent.errors.increment();
+      throw ex;
+    } finally {
+      this.modifyEvent.latency.record(System.nanoTime() - start);
+    }
+  }
+
+  /**
+   * Modifies the event with the given ID. Leaving the host out of the modified event counts
+   * as a failure, as the planner leaves the event as it is.
+   *
+   * @param eventId ID of the event to be modified
+   * @param newEvent what the previous event should be modified to
+   */
+  @Override
+  public void modifyEvent(long eventId, IEvent newEvent) {
+    long start = System.nanoTime();
+    try {
+      IEvent prevEvent = this.delegate.getEvent(eventId);
+      this.delegate.modifyEvent(eventId, newEvent);
+      this.countDroppedHost(prevEvent, newEvent);
+    } catch (RuntimeException ex) {
+      this.modifyEvent.errors.increment();
+      throw ex;
+    } finally {
+      this.modifyEvent.latency.record(System.nanoTime() - start);
+    }
+  }
+
+  /**
+   * Counts a modification as failed if it left out the host of the previous event.
+   *
+   * @param prevEvent event to be modified
+   * @param newEvent what the previous event should be modified to
+   */
+  private void countDroppedHost(IEvent prevEvent, IEvent newEvent) {
+    if (!newEvent.getUsers().contains(prevEvent.getUsers().get(0))) {
+      this.modifyEvent.errors.increment();
+    }
+  }
+
+  /**
+   * Adds an event for its invitees. Every invitee in the planner who could not take the event
+   * because it overlaps their schedule counts as a failure, as reported by the wrapped
+   * planner for a batch of just this event.
+   *
+   * @param eventToAdd event to add to the relevant user schedule
+   * @throws IllegalArgumentException if the event's ID now belongs to a modified version of it
+   */
+  @Override
+  public void addEventForRelevantUsers(IEvent eventToAdd) {
+    long start = System.nanoTime();
+    try {
+      EventAddResult result =
+              this.delegate.addEventsForRelevantUsers(List.of(eventToAdd)).get(0);
+      if (result.getFailure() != null) {
+        throw new IllegalArgumentException(result.getFailure());
+      }
+      this.addEventForRelevantUsers.errors.add(result.getRejectedBy().size());
+    } catch (RuntimeException ex) {
+      this.addEventForRelevantUsers.errors.increment();
+      throw ex;
+    } finally {
+      this.addEventForRelevantUsers.latency.record(System.nanoTime() - start);
+    }
+  }
+
+  /**
+   * Adds many events for their invitees at once. Every event that was not looked at, and
+   * every invitee who could not take an event, counts as a failure.
+   *
+   * @param eventsToAdd events to add to the relevant user schedules
+   * @return the outcome of adding each event, in the order given
+   */
+  @Override
+  public List<EventAddResult> addEventsForRelevantUsers(Collection<IEvent> eventsToAdd) {
+    long start = System.nanoTime();
+    try {
+      List<EventAddResult> results = this.delegate.addEventsForRelevantUsers(eventsToAdd);
+      for (EventAddResult result : results) {
+        this.addEventsForRelevantUsers.errors.add(result.getRejectedBy().size()
+                + (result.getFailure() == null ? 0 : 1));
+      }
+      return results;
+    } catch (RuntimeException ex) {
+      this.addEventsForRelevantUsers.errors.increment();
+      throw ex;
+    } finally {
+      this.addEventsForRelevantUsers.latency.record(System.nanoTime() - start);
+    }
+  }
+
+  @Override
+  public void addUser(IUser userToAdd) {
+    long start = System.nanoTime();
+    try {
+      this.delegate.addUser(userToAdd);
+    } catch (RuntimeException ex) {
+      this.addUser.errors.increment();
+      throw ex;
+    } finally {
+      this.addUser.latency.record(System.nanoTime() - start);
+    }
+  }
+
+  @Override
+  public IEvent retrieveUserScheduleAtTime(IUser user, ITime givenTime) {
+    long start = System.nanoTime();
+    try {
+      return this.delegate.retrieveUserScheduleAtTime(user, givenTime);
+    } catch (RuntimeException ex) {
+      this.retrieveUserScheduleAtTime.errors.increment();
+      throw ex;
+    } finally {
+      this.retrieveUserScheduleAtTime.latency.record(System.nanoTime() - start);
+    }
+  }
+
+  @Override
+  public IUser getUser(String name) {
+    long start = System.nanoTime();
+    try {
+      return this.delegate.getUser(name);
+    } catch (RuntimeException ex) {
+      this.getUser.errors.increment();
+      throw ex;
+    } finally {
+      this.getUser.latency.record(System.nanoTime() - start);
+    }
+  }
+
+  @Override
+  public List<IEvent> retrieveUserEvents(IUser user) {
+    long start = System.nanoTime();
+    try {
+      return this.delegate.retrieveUserEvents(user);
+    } catch (RuntimeException ex) {
+      this.retrieveUserEvents.errors.increment();
+      throw ex;
+    } finally {
+      this.retrieveUserEvents.latency.record(System.nanoTime() - start);
+    }
+  }
+
+  @Override
+  public List<IEvent> eventsInvitedTo(String userName) {
+    long start = System.nanoTime();
+    try {
+      return this.delegate.eventsInvitedTo(userName);
+    } catch (RuntimeException ex) {
+      this.eventsInvitedTo.errors.increment();
+      throw ex;
+    } finally {
+      this.eventsInvitedTo.latency.record(System.nanoTime() - start);
+    }
+  }
+
+  @Override
+  public List<IEvent> eventsHostedBy(String userName) {
+    long start = System.nanoTime();
+    try {
+      return this.delegate.eventsHostedBy(userName);
+    } catch (RuntimeException ex) {
+      this.eventsHostedBy.errors.increment();
+      throw ex;
+    } finally {
+      this.eventsHostedBy.latency.record(System.nanoTime() - start);
+    }
+  }
+
+  @Override
+  public List<ITime> findFreeSlots(Collection<String> userNames, int durationMinutes,
+                                   ITime windowStart, ITime windowEnd, int maxSlots) {
+    long start = System.nanoTime();
+    try {
+      return this.delegate.findFreeSlots(userNames, durationMinutes, windowStart, windowEnd,
+              maxSlots);
+    } catch (RuntimeException ex) {
+      this.findFreeSlots.errors.increment();
+      throw ex;
+    } finally {
+      this.findFreeSlots.latency.record(System.nanoTime() - start);
+    }
+  }
+
+  @Override
+  public ITime findFreeSlot(Collection<String> userNames, int durationMinutes) {
+    long start = System.nanoTime();
+    try {
+      return this.delegate.findFreeSlot(userNames, durationMinutes);
+    } catch (RuntimeException ex) {
+      this.findFreeSlot.errors.increment();
+      throw ex;
+    } finally {
+      this.findFreeSlot.latency.record(System.nanoTime() - start);
+    }
+  }
+
+  @Override
+  public IEvent getEvent(long eventId) {
+    long start = System.nanoTime();
+    try {
+      return this.delegate.getEvent(eventId);
+    } catch (RuntimeException ex) {
+      this.getEvent.errors.increment();
+      throw ex;
+    } finally {
+      this.getEvent.latency.record(System.nanoTime() - start);
+    }
+  }
+}
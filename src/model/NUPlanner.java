@@ -1,27 +1,103 @@
 package model;
 
 
+import java.io.File;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import controller.ScheduleXMLReader;
 
 /**
  * Planner system that contains a set of users and their corresponding schedules.
  * Allows a user to display their schedule, create new events, modify existing events, and
  * remove old events. Also allows users to upload their schedules in the form of an XML file
  * or export their schedules as XML.
+ *
+ * <p> Every event in the planner is given an ID. The planner keeps track of the event with each
+ * ID and of which users have it in their schedule, so removing or modifying an event goes
+ * straight to the schedules holding it. </p>
+ *
+ * <p> The maps indexing users and events can be updated from several threads at once, but
+ * everything kept per user, i.e. their schedule and the events indexed under their name, is
+ * not guarded. {@link ConcurrentPlanner} locks the users a change touches before making it
+ * here. </p>
+ *
+ * <p> Once a change is made, the versions of the schedules it touched are published together
+ * with the versions of every other schedule, in a single step, see
+ * {@link #scheduleVersions()}. </p>
  */
 public class NUPlanner implements PlannerSystem {
 
+  // IDs are handed out across every planner, so an event never has two different IDs
+  private static final AtomicLong NEXT_ID = new AtomicLong(IEvent.NO_ID + 1);
+
+  // ending of the file names User.userSchedToXML writes schedules to
+  private static final String SCHEDULE_FILE_SUFFIX = "_schedule.xml";
+
+  // end of the week, Saturday @24:00, which free slots have to end by unless told otherwise
+  private static final ITime END_OF_WEEK = Time.ofMinuteOfWeek(Time.MINUTES_PER_WEEK);
+
   /**
    * Planner system that contains a list of users and their corresponding schedules.
    * Assumptions to be made is that all users that will ever be invited to an event
    * are already in the system and that every user has exactly one schedule. Duplicate
    * users cannot be added to the system by the inclusion of a set of users
    * instead of a list.
+   *
+   * <p> The set is never changed once handed out. Adding a user publishes a new set that
+   * shares its array of users with the previous one, so reading the users never waits for a
+   * user to be added. </p>
    */
-  private final Set<IUser> users;
+  private volatile UsersView users;
+  // every user in the order they were added, the start of which is shared by each set of users
+  private IUser[] userSlots;
+  // name -> where in the order of users the user with that name is
+  private final Map<String, Integer> slotsByName;
+  // every user's schedule as of the end of the last change, swapped whole by each change
+  private final AtomicReference<ScheduleVersions> versions;
+
+  // name -> user with that name, so invitees are found without going through every user
+  private final Map<String, IUser> usersByName;
+
+  // ID -> event with that ID
+  private final Map<Long, IEvent> eventsById;
+  // ID -> users whose schedule holds the event with that ID
+  private final Map<Long, Set<IUser>> holdersById;
+  // event -> its ID, for callers that only have the event's contents
+  private final Map<IEvent, Long> idsByEvent;
+
+  // name -> IDs of the events with that name in their invitee list, host included
+  private final Map<String, Set<Long>> idsByInvitee;
+  // name -> IDs of the events hosted by the user with that name
+  private final Map<String, Set<Long>> idsByHost;
+
+  // names of the users whose schedule changed since it was last saved
+  private final Set<String> changedUsers;
+  // where the schedules were last saved, null if they never were
+  private String lastSavePath;
 
   /**
    * Initialize a planner system with a given set of users.
@@ -29,18 +105,32 @@ public class NUPlanner implements PlannerSystem {
    * @param users non-duplicate user list in the system
    */
   public NUPlanner(Set<IUser> users) {
-    this.users = new LinkedHashSet<>(users);
+    this.userSlots = new IUser[users.size()];
+    this.users = new UsersView(this.userSlots, 0);
+    this.slotsByName = new ConcurrentHashMap<>();
+    this.versions = new AtomicReference<>(new ScheduleVersions(this.users,
+            new Schedule.Version[0], this.slotsByName));
+    this.usersByName = new ConcurrentHashMap<>();
+    this.eventsById = new ConcurrentHashMap<>();
+    this.holdersById = new ConcurrentHashMap<>();
+    this.idsByEvent = new ConcurrentHashMap<>();
+    this.idsByInvitee = new ConcurrentHashMap<>();
+    this.idsByHost = new ConcurrentHashMap<>();
+    this.changedUsers = ConcurrentHashMap.newKeySet();
+    for (IUser user : users) {
+      this.addUser(user);
+    }
   }
 
   /**
    * Initialize a planner system with an empty list of users.
    */
   public NUPlanner() {
-    this.users = new LinkedHashSet<>();
+    this(new LinkedHashSet<>());
   }
 
   /**
-   * Observe the users in the system.
+   * Observe the users in the system. The set does not change as users are added afterwards.
    * @return a set of users
    */
 
@@ -48,6 +138,28 @@ public class NUPlanner implements PlannerSystem {
     return this.users;
   }
 
+  /**
+   * Observes the schedule of every user, all as they were at the end of the same change.
+   * Never waits for a change being made.
+   *
+   * @return each user's schedule, in the order the users were added
+   */
+  @Override
+  public Map<IUser, Schedule.Version> scheduleVersions() {
+    return this.versions.get();
+  }
+
+  /**
+   * Retrieves the user in the system with the given name.
+   *
+   * @param name name of the user
+   * @return the user with that name, null if there is no such user
+   */
+  @Override
+  public IUser getUser(String name) {
+    return this.usersByName.get(name);
+  }
+
   /**
    * Retrieves the events in this user's schedule.
    *
@@ -59,13 +171,184 @@ public class NUPlanner implements PlannerSystem {
     return user.getSchedule().getEvents();
   }
 
+  /**
+   * Retrieves the event with the given ID.
+   *
+   * @param eventId ID of the event
+   * @return the event with that ID
+   * @throws IllegalArgumentException if no event in the planner has that ID
+   */
+  @Override
+  public IEvent getEvent(long eventId) {
+    IEvent event = this.eventsById.get(eventId);
+    if (event == null) {
+      throw new IllegalArgumentException("No event with ID " + eventId);
+    }
+    return event;
+  }
+
+  /**
+   * Retrieves the events in the planner that the user with the given name is invited to,
+   * including the ones they host, in the order they were added.
+   *
+   * @param userName name of the user
+   * @return list of events the user is invited to
+   */
+  @Override
+  public List<IEvent> eventsInvitedTo(String userName) {
+    return this.eventsWithIds(this.idsByInvitee.get(userName));
+  }
+
+  /**
+   * Retrieves the events in the planner hosted by the user with the given name,
+   * in the order they were added.
+   *
+   * @param userName name of the host
+   * @return list of events the user hosts
+   */
+  @Override
+  public List<IEvent> eventsHostedBy(String userName) {
+    return this.eventsWithIds(this.idsByHost.get(userName));
+  }
+
+  /**
+   * Finds the earliest times within the given window at which every given user is free for
+   * the given number of minutes, by combining the busy minutes of every user into a single
+   * bitmap a word at a time. The slots found do not overlap. Names of users not in the planner
+   * are ignored.
+   *
+   * @param userNames names of the users who all need to be free
+   * @param durationMinutes how long each slot lasts, in minutes
+   * @param windowStart earliest time a slot may start at
+   * @param windowEnd time every slot has to end by
+   * @param maxSlots most slots to find
+   * @return the start time of each slot found, earliest first
+   * @throws IllegalArgumentException if the duration or number of slots is not positive, or the
+   *                                  window ends before it starts
+   */
+  @Override
+  public List<ITime> findFreeSlots(Collection<String> userNames, int durationMinutes,
+                                   ITime windowStart, ITime windowEnd, int maxSlots) {
+    OccupancyBitmap busy = new OccupancyBitmap();
+    for (String userName : new LinkedHashSet<>(userNames)) {
+      IUser user = this.usersByName.get(userName);
+      if (user == null) {
+        continue;
+      }
+      if (user.getSchedule() instanceof Schedule) {
+        ((Schedule) user.getSchedule()).markBusyIn(busy);
+      }
+      else {
+        for (IEvent event : user.getSchedule().getEvents()) {
+          busy.setSpan(event.getStartTime().minuteOfWeek(), event.getEndTime().minuteOfWeek());
+        }
+      }
+    }
+    List<ITime> slots = new ArrayList<>();
+    for (int start : busy.findFree(durationMinutes, windowStart.minuteOfWeek(),
+            windowEnd.minuteOfWeek(), maxSlots)) {
+      slots.add(Time.ofMinuteOfWeek(start));
+    }
+    return slots;
+  }
+
+  /**
+   * Finds the earliest time in the week at which every given user is free for the given number
+   * of minutes. Names of users not in the planner are ignored.
+   *
+   * @param userNames names of the users who all need to be free
+   * @param durationMinutes how long the slot lasts, in minutes
+   * @return the start time of the slot, null if there is no such time
+   * @throws IllegalArgumentException if the duration is not positive
+   */
+  @Override
+  public ITime findFreeSlot(Collection<String> userNames, int durationMinutes) {
+    return firstFreeSlot(this, userNames, durationMinutes);
+  }
+
+  /**
+   * Finds the earliest time in the week at which every given user of a planner is free for the
+   * given number of minutes, using the planner's own {@link #findFreeSlots}.
+   *
+   * @param planner planner to look in
+   * @param userNames names of the users who all need to be free
+   * @param durationMinutes how long the slot lasts, in minutes
+   * @return the start time of the slot, null if there is no such time
+   * @throws IllegalArgumentException if the duration is not positive
+   */
+  static ITime firstFreeSlot(ReadOnlyPlanner planner, Collection<String> userNames,
+                             int durationMinutes) {
+    List<ITime> slots = planner.findFreeSlots(userNames, durationMinutes,
+            Time.ofMinuteOfWeek(0), END_OF_WEEK, 1);
+    return slots.isEmpty() ? null : slots.get(0);
+  }
+
   /**
    * Write each user's schedule in the system to an XML file and store it.
+   * Each user's file is written by its own task, with at most one task per processor
+   * running at a time. Returns once every file is written.
    * @param filePathToSave where to save the XML file
+   * @throws IllegalStateException if any of the files can't be written
    */
   public void exportScheduleAsXML(String filePathToSave) {
-    for (IUser user: this.users) {
-      user.userSchedToXML(filePathToSave);
+    this.exportSchedules(this.users, filePathToSave);
+    this.changedUsers.clear();
+    this.lastSavePath = filePathToSave;
+  }
+
+  /**
+   * Write the schedules that changed since they were last saved to their XML files.
+   * If the schedules were last saved somewhere else, or never saved, every schedule is written.
+   * @param filePathToSave where to save the XML files
+   * @return the number of schedules written
+   * @throws IllegalStateException if any of the files can't be written
+   */
+  public int saveChangedSchedules(String filePathToSave) {
+    if (!filePathToSave.equals(this.lastSavePath)) {
+      this.exportScheduleAsXML(filePathToSave);
+      return this.users.size();
+    }
+    List<IUser> changed = new ArrayList<>();
+    for (String userName : this.changedUsers) {
+      IUser user = this.usersByName.get(userName);
+      if (user != null) {
+        changed.add(user);
+      }
+    }
+    this.exportSchedules(changed, filePathToSave);
+    this.changedUsers.clear();
+    return changed.size();
+  }
+
+  /**
+   * Writes the schedules of the given users to their XML files, each by its own task with at most
+   * one task per processor running at a time. The tasks run on threads shared by every export.
+   * Returns once every file is written.
+   * @param usersToSave users whose schedules to write
+   * @param filePathToSave where to save the XML files
+   * @throws IllegalStateException if any of the files can't be written
+   */
+  private void exportSchedules(Collection<IUser> usersToSave, String filePathToSave) {
+    if (usersToSave.isEmpty()) {
+      return;
+    }
+    List<Callable<Void>> tasks = new ArrayList<>();
+    for (IUser user: usersToSave) {
+      tasks.add(() -> {
+        user.userSchedToXML(filePathToSave);
+        return null;
+      });
+    }
+    try {
+      for (Future<Void> task : ExportPool.POOL.invokeAll(tasks)) {
+        task.get();
+      }
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while exporting schedules");
+    } catch (ExecutionException ex) {
+      throw new IllegalStateException("Error in exporting schedules: "
+              + ex.getCause().getMessage(), ex.getCause());
     }
   }
 
@@ -84,60 +367,399 @@ public class NUPlanner implements PlannerSystem {
 
   /**
    * Add events for the users listed in the event's invitee list.
+   * The schedules get a copy of the event with the ID the planner knows it by, if it does not
+   * have one yet.
    *
    * @param eventToAdd event to add to the relevant user schedule
+   * @throws IllegalArgumentException if the event's ID now belongs to a modified version of it
    */
   public void addEventForRelevantUsers(IEvent eventToAdd) {
-    for (IUser currUser : this.users) {
-      if (eventToAdd.getUsers().contains(currUser.getName())) {
+    Set<IUser> touched = new LinkedHashSet<>();
+    this.addForInvitees(eventToAdd, touched);
+    this.publishVersions(null, touched);
+  }
+
+  /**
+   * Adds the event for the users listed in its invitee list, without publishing their new
+   * schedules.
+   *
+   * @param eventToAdd event to add to the relevant user schedule
+   * @param touched where to put the users whose schedule changed
+   * @throws IllegalArgumentException if the event's ID now belongs to a modified version of it
+   */
+  private void addForInvitees(IEvent eventToAdd, Set<IUser> touched) {
+    long eventId = this.idFor(eventToAdd);
+    IEvent registered = this.eventsById.get(eventId);
+    if (registered != null && !registered.equals(eventToAdd)) {
+      throw new IllegalArgumentException("Event has been modified since it was added");
+    }
+    IEvent event = registered != null ? registered : eventToAdd.withId(eventId);
+    Set<IUser> holders = this.holdersById.computeIfAbsent(eventId, id -> new LinkedHashSet<>());
+    for (String invitee : event.getUsers()) {
+      IUser currUser = this.usersByName.get(invitee);
+      if (currUser != null && !holders.contains(currUser)) {
         try {
           // add event to current user's schedule
-          currUser.addEventForUser(eventToAdd);
+          currUser.addEventForUser(event);
+          holders.add(currUser);
+          this.changedUsers.add(currUser.getName());
+          touched.add(currUser);
+        } catch (IllegalArgumentException e) {
+          // event is not added because it overlaps
+        }
+      }
+    }
+    if (holders.isEmpty()) {
+      // nobody could take the event, so the planner does not know about it
+      this.unregister(eventId);
+    }
+    else {
+      this.register(eventId, event);
+    }
+  }
+
+  /**
+   * Adds many events for the users listed in each event's invitee list at once. The events are
+   * sorted by start time and grouped by invitee, and each invitee's events are checked against
+   * their schedule in a single pass before any event is added. Where events in the batch
+   * overlap for an invitee, the one starting first is added. An event that overlaps an
+   * invitee's schedule is still added for the other invitees, like in
+   * {@link #addEventForRelevantUsers(IEvent)}. The schedules get a copy of each event with the
+   * ID the planner knows it by, if it does not have one yet. An event not added for anyone is
+   * reported as it was given, so an event the planner does not know about has no ID.
+   *
+   * @param eventsToAdd events to add to the relevant user schedules
+   * @return the outcome of adding each event, in the order the events were given
+   */
+  @Override
+  public List<EventAddResult> addEventsForRelevantUsers(Collection<IEvent> eventsToAdd) {
+    List<IEvent> given = new ArrayList<>(eventsToAdd);
+    List<IEvent> batch = new ArrayList<>(given);
+    String[] failures = new String[batch.size()];
+    List<Integer> order = new ArrayList<>();
+    Set<Long> seen = new HashSet<>();
+    // events without an ID that are equal get the same one
+    Map<IEvent, Long> newIds = new HashMap<>();
+    for (int idx = 0; idx < batch.size(); idx++) {
+      IEvent event = batch.get(idx);
+      long eventId = event.getId() != IEvent.NO_ID ? event.getId()
+              : newIds.computeIfAbsent(event, this::idFor);
+      IEvent registered = this.eventsById.get(eventId);
+      if (registered != null && !registered.equals(event)) {
+        failures[idx] = "Event has been modified since it was added";
+      }
+      else if (!seen.add(eventId)) {
+        failures[idx] = "Event is already earlier in the batch";
+      }
+      else {
+        batch.set(idx, registered != null ? registered : event.withId(eventId));
+        order.add(idx);
+      }
+    }
+    // a stable sort, so events starting at the same time keep the order they were given in
+    order.sort(Comparator.comparingInt(idx -> batch.get(idx).getStartTime().minuteOfWeek()));
+
+    Map<IUser, List<Integer>> byInvitee = new LinkedHashMap<>();
+    for (int idx : order) {
+      IEvent event = batch.get(idx);
+      Set<IUser> holders = this.holdersById.getOrDefault(event.getId(), Collections.emptySet());
+      for (String invitee : event.getUsers()) {
+        IUser currUser = this.usersByName.get(invitee);
+        if (currUser != null && !holders.contains(currUser)) {
+          List<Integer> userEvents = byInvitee.computeIfAbsent(currUser,
+              user -> new ArrayList<>());
+          // an invitee listed twice only takes the event once
+          if (userEvents.isEmpty() || userEvents.get(userEvents.size() - 1) != idx) {
+            userEvents.add(idx);
+          }
+        }
+      }
+    }
+
+    // check every schedule before changing any of them
+    List<Set<String>> addedFor = new ArrayList<>();
+    List<Set<String>> rejectedBy = new ArrayList<>();
+    for (int idx = 0; idx < batch.size(); idx++) {
+      addedFor.add(new HashSet<>());
+      rejectedBy.add(new HashSet<>());
+    }
+    Map<IUser, List<IEvent>> toAdd = new LinkedHashMap<>();
+    for (Map.Entry<IUser, List<Integer>> entry : byInvitee.entrySet()) {
+      IUser currUser = entry.getKey();
+      List<IEvent> candidates = new ArrayList<>();
+      for (int idx : entry.getValue()) {
+        candidates.add(batch.get(idx));
+      }
+      boolean[] fits = this.fitting(currUser, candidates);
+      List<IEvent> fitting = new ArrayList<>();
+      for (int pos = 0; pos < fits.length; pos++) {
+        int idx = entry.getValue().get(pos);
+        if (fits[pos]) {
+          fitting.add(candidates.get(pos));
+          addedFor.get(idx).add(currUser.getName());
+        }
+        else {
+          rejectedBy.get(idx).add(currUser.getName());
+        }
+      }
+      toAdd.put(currUser, fitting);
+    }
+
+    Set<IUser> touched = new LinkedHashSet<>();
+    for (Map.Entry<IUser, List<IEvent>> entry : toAdd.entrySet()) {
+      IUser currUser = entry.getKey();
+      if (entry.getValue().isEmpty()) {
+        continue;
+      }
+      if (currUser.getSchedule() instanceof Schedule) {
+        ((Schedule) currUser.getSchedule()).addChecked(entry.getValue());
+      }
+      else {
+        for (IEvent event : entry.getValue()) {
+          currUser.addEventForUser(event);
+        }
+      }
+      for (IEvent event : entry.getValue()) {
+        this.holdersById.computeIfAbsent(event.getId(), id -> new LinkedHashSet<>())
+                .add(currUser);
+        this.register(event.getId(), event);
+      }
+      this.changedUsers.add(currUser.getName());
+      touched.add(currUser);
+    }
+    this.publishVersions(null, touched);
+
+    List<EventAddResult> results = new ArrayList<>();
+    for (int idx = 0; idx < batch.size(); idx++) {
+      IEvent event = batch.get(idx);
+      List<String> added = new ArrayList<>(event.getUsers());
+      added.retainAll(addedFor.get(idx));
+      List<String> rejected = new ArrayList<>(event.getUsers());
+      rejected.retainAll(rejectedBy.get(idx));
+      // the ID handed out to an event nobody took is not the ID of any event
+      IEvent reported = this.eventsById.containsKey(event.getId()) ? event : given.get(idx);
+      results.add(new EventAddResult(reported, added, rejected, failures[idx]));
+    }
+    return results;
+  }
+
+  /**
+   * Checks that every invitee of the given event in the planner can take it, with the
+   * replaced event taken out of their schedule. Each invitee's schedule is only searched
+   * around the event's time.
+   *
+   * @param newEvent event to check
+   * @param replaced event the new event replaces, null if it replaces none
+   * @throws EventConflictException if any invitee can't take the event
+   */
+  private void checkConflicts(IEvent newEvent, IEvent replaced) {
+    Map<String, List<IEvent>> conflicts = new LinkedHashMap<>();
+    for (String invitee : new LinkedHashSet<>(newEvent.getUsers())) {
+      IUser currUser = this.usersByName.get(invitee);
+      if (currUser == null) {
+        continue;
+      }
+      Schedule schedule = currUser.getSchedule() instanceof Schedule
+              ? (Schedule) currUser.getSchedule()
+              : new Schedule(new ArrayList<>(currUser.getSchedule().getEvents()));
+      List<IEvent> inTheWay = schedule.conflictsWith(newEvent, replaced);
+      if (!inTheWay.isEmpty()) {
+        conflicts.put(invitee, inTheWay);
+      }
+    }
+    if (!conflicts.isEmpty()) {
+      throw new EventConflictException(conflicts);
+    }
+  }
+
+  /**
+   * Finds which of the given events could be added to the given user's schedule together.
+   * A schedule other than a {@link Schedule} is checked through a copy of it.
+   *
+   * @param user user whose schedule to check
+   * @param candidates events to check, ordered by start time
+   * @return whether each event fits, in the same order
+   */
+  private boolean[] fitting(IUser user, List<IEvent> candidates) {
+    if (user.getSchedule() instanceof Schedule) {
+      return ((Schedule) user.getSchedule()).fitting(candidates);
+    }
+    Schedule copy = new Schedule(new ArrayList<>(user.getSchedule().getEvents()));
+    return copy.fitting(candidates);
+  }
+
+  /**
+   * Loads every user schedule XML file in the given directory, i.e. every file ending in
+   * "_schedule.xml", and adds the users to the planner. The files are read in parallel, each
+   * into its own user, and the users are only added to the planner once every file is read,
+   * in order of file name. A file that can't be read, or whose user is already in the planner,
+   * is reported as failed and does not stop the others from loading. Events overlapping an
+   * earlier event in the same file are left out, like when adding them to a schedule.
+   *
+   * @param directoryPath path of the directory holding the schedule files
+   * @return the outcome of loading each file, in order of file name
+   * @throws IllegalArgumentException if the path is not a readable directory
+   */
+  @Override
+  public List<ScheduleLoadResult> loadSchedules(String directoryPath) {
+    File[] files = new File(directoryPath).listFiles(
+            (dir, name) -> name.endsWith(SCHEDULE_FILE_SUFFIX));
+    if (files == null) {
+      throw new IllegalArgumentException("Cannot read schedules from " + directoryPath);
+    }
+    Arrays.sort(files);
+
+    // each file is read into its own slot, so the tasks never share anything
+    IUser[] loadedUsers = new IUser[files.length];
+    ScheduleLoadResult[] results = new ScheduleLoadResult[files.length];
+    List<Callable<Void>> tasks = new ArrayList<>();
+    for (int idx = 0; idx < files.length; idx++) {
+      int fileIdx = idx;
+      tasks.add(() -> {
+        results[fileIdx] = loadScheduleFile(files[fileIdx], loadedUsers, fileIdx);
+        return null;
+      });
+    }
+    ForkJoinPool pool = new ForkJoinPool();
+    try {
+      for (Future<Void> task : pool.invokeAll(tasks)) {
+        task.get();
+      }
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while loading schedules");
+    } catch (ExecutionException ex) {
+      throw new IllegalStateException("Error in loading schedules: " + ex.getCause());
+    } finally {
+      pool.shutdown();
+    }
+
+    // merge the users into the planner in one go
+    for (int idx = 0; idx < files.length; idx++) {
+      IUser user = loadedUsers[idx];
+      if (user == null) {
+        continue;
+      }
+      if (this.usersByName.containsKey(user.getName())) {
+        results[idx] = new ScheduleLoadResult(results[idx].getFilePath(), null, 0,
+                results[idx].getElapsedNanos(),
+                "User " + user.getName() + " is already in the planner");
+      }
+      else {
+        this.addUser(user);
+      }
+    }
+    return Arrays.asList(results);
+  }
+
+  /**
+   * Reads a single schedule file into a new user. The user is named after the schedule's id,
+   * or after the file name if the schedule has none.
+   *
+   * @param file schedule file to read
+   * @param loadedUsers where to put the new user
+   * @param fileIdx index of the file, which is where in loadedUsers its user goes
+   * @return the outcome of reading the file
+   */
+  private static ScheduleLoadResult loadScheduleFile(File file, IUser[] loadedUsers,
+                                                     int fileIdx) {
+    long start = System.nanoTime();
+    try (ScheduleXMLReader reader = new ScheduleXMLReader(file.getPath())) {
+      String userName = reader.getUserName();
+      if (userName == null) {
+        String fileName = file.getName();
+        userName = fileName.substring(0, fileName.length() - SCHEDULE_FILE_SUFFIX.length());
+      }
+      ISchedule schedule = new Schedule(new ArrayList<>());
+      int eventCount = 0;
+      while (reader.hasNext()) {
+        try {
+          schedule.addEvent(reader.next());
+          eventCount++;
         } catch (IllegalArgumentException e) {
           // event is not added because it overlaps
         }
       }
+      loadedUsers[fileIdx] = new User(userName, schedule);
+      return new ScheduleLoadResult(file.getPath(), userName, eventCount,
+              System.nanoTime() - start, null);
+    } catch (RuntimeException ex) {
+      // whatever is wrong with one file, the other files are still loaded
+      return new ScheduleLoadResult(file.getPath(), null, 0, System.nanoTime() - start,
+              ex.getMessage() != null ? ex.getMessage() : ex.toString());
     }
   }
 
   /**
    * Adding a user to the planner system. A user has a schedule.
+   * Nothing happens if a user with the same name is already in the system.
    *
    * @param userToAdd user to add to Planner
    */
   @Override
   public void addUser(IUser userToAdd) {
-    this.users.add(userToAdd);
+    if (this.usersByName.putIfAbsent(userToAdd.getName(), userToAdd) == null) {
+      this.publishUser(userToAdd);
+      this.registerSchedule(userToAdd);
+      this.changedUsers.add(userToAdd.getName());
+      this.publishVersions(this.users, List.of(userToAdd));
+    }
   }
 
   /**
    * Events can only be modified if all users can attend the event.
+   * Every invitee is checked before any schedule is changed, so either every invitee gets the
+   * modified event or nothing changes.
    * @param prevEvent event to be modified
    * @param newEvent what the previous event should be modified to
-   * @throws IllegalArgumentException if user listed cannot attend the modified event
+   * @throws EventConflictException if user listed cannot attend the modified event
    **/
   public void modifyEvent(IEvent prevEvent, IEvent newEvent) {
-    IUser host = null;
-    for (IUser user: this.users) {
-      if (user.getName().equals(prevEvent.getUsers().get(0))) {
-        host = new User(user.getName(), user.getSchedule());
-      }
+    Long eventId = this.findId(prevEvent);
+    if (eventId != null) {
+      this.modifyEvent(eventId, newEvent);
     }
+    // only allow modification if the old event and updated event
+    // still have the same host
+    else if (newEvent.getUsers().contains(prevEvent.getUsers().get(0))) {
+      // previous event is not in the planner, so there is nothing to remove
+      this.checkConflicts(newEvent, null);
+      this.addEventForRelevantUsers(newEvent);
+    }
+  }
 
+  /**
+   * Modifies the event with the given ID. The modified event keeps the same ID.
+   * Events can only be modified if all users can attend the event.
+   * Every invitee is checked before any schedule is changed, so either every invitee gets the
+   * modified event or nothing changes.
+   * @param eventId ID of the event to be modified
+   * @param newEvent what the previous event should be modified to
+   * @throws IllegalArgumentException if no event has that ID, or the new event is already
+   *         known by a different ID
+   * @throws EventConflictException if user listed cannot attend the modified event
+   **/
+  public void modifyEvent(long eventId, IEvent newEvent) {
+    IEvent prevEvent = this.getEvent(eventId);
+    if (newEvent.getId() != IEvent.NO_ID && newEvent.getId() != eventId) {
+      throw new IllegalArgumentException("New event is already part of the planner");
+    }
     // only allow modification if the old event and updated event
     // still have the same host
     if (newEvent.getUsers().contains(prevEvent.getUsers().get(0))) {
-      try {
-        // remove the previous event from the user's schedule
-        removeEventForRelevantUsers(prevEvent, host);
-        // add the new event to the user's schedule
-        addEventForRelevantUsers(newEvent);
-
-      }
-      catch (IllegalArgumentException e) {
-        // if an exception is thrown, leave the list of events alone to avoid
-        // causing conflict in any user's schedule
+      this.checkConflicts(newEvent, prevEvent);
+      Set<IUser> touched = new LinkedHashSet<>();
+      // remove the previous event from the schedules holding it
+      for (IUser holder : this.holdersById.get(eventId)) {
+        holder.removeEventForUser(prevEvent);
+        this.changedUsers.add(holder.getName());
+        touched.add(holder);
       }
+      this.unregister(eventId);
+      // add the new event to the user's schedule
+      this.addForInvitees(newEvent.withId(eventId), touched);
+      // published once both are done, so the event is never seen missing or in two places
+      this.publishVersions(null, touched);
     }
   }
 
@@ -150,28 +772,368 @@ public class NUPlanner implements PlannerSystem {
    * @param userRemovingEvent user removing the event
    */
   public void removeEventForRelevantUsers(IEvent eventToRemove, IUser userRemovingEvent) {
-    Iterator<IUser> iterUsers = this.users.iterator();
+    Long eventId = this.findId(eventToRemove);
+    Set<IUser> touched = new LinkedHashSet<>();
+    if (eventId != null) {
+      this.removeEventForRelevantUsers(eventId, userRemovingEvent);
+    }
+    // the host removing an event the planner does not know about, from whoever has it
+    else if (userRemovingEvent.getName().equals(eventToRemove.getUsers().get(0))) {
+      for (String invitee : eventToRemove.getUsers()) {
+        IUser currUser = this.usersByName.get(invitee);
+        if (currUser != null) {
+          currUser.removeEventForUser(eventToRemove);
+          this.changedUsers.add(currUser.getName());
+          touched.add(currUser);
+        }
+      }
+    }
+    // just an invitee trying to remove an event the planner does not know about
+    else {
+      userRemovingEvent.removeEventForUser(eventToRemove);
+      this.changedUsers.add(userRemovingEvent.getName());
+      touched.add(userRemovingEvent);
+    }
+    this.publishVersions(null, touched);
+  }
+
+  /**
+   * Remove the event with the given ID from planner system for relevant users.
+   * If host (first user in invitee list) is removing event, remove for all users.
+   * If any other user, only remove event from their schedule.
+   *
+   * @param eventId ID of the event to remove from planner system
+   * @param userRemovingEvent user removing the event
+   * @throws IllegalArgumentException if no event has that ID
+   */
+  public void removeEventForRelevantUsers(long eventId, IUser userRemovingEvent) {
+    IEvent eventToRemove = this.getEvent(eventId);
+    Set<IUser> holders = this.holdersById.get(eventId);
+    Set<IUser> touched = new LinkedHashSet<>();
 
     if (userRemovingEvent.getName().equals(eventToRemove.getUsers().get(0))) {
-      while (iterUsers.hasNext()) {
-        IUser currUser = iterUsers.next();
-        if (eventToRemove.getUsers().contains(currUser.getName())) {
-          try {
-            // remove the event from the current user's schedule
-            currUser.removeEventForUser(eventToRemove);
-          }
-          // given event is not in schedule
-          catch (IllegalArgumentException e) {
-            // ignoring exception because event will not be removed for this user
-          }
-        }
+      for (IUser holder : holders) {
+        // remove the event from the current user's schedule
+        holder.removeEventForUser(eventToRemove);
+        this.changedUsers.add(holder.getName());
+        touched.add(holder);
       }
+      this.unregister(eventId);
     }
     // just an invitee trying to remove an event
     else {
       userRemovingEvent.removeEventForUser(eventToRemove);
+      this.changedUsers.add(userRemovingEvent.getName());
+      touched.add(userRemovingEvent);
+      holders.remove(this.usersByName.get(userRemovingEvent.getName()));
+      if (holders.isEmpty()) {
+        this.unregister(eventId);
+      }
+    }
+    this.publishVersions(null, touched);
+  }
+
+  /**
+   * Publishes a new set of users with the given user added at the end.
+   *
+   * @param user user to add
+   */
+  private void publishUser(IUser user) {
+    int size = this.users.size();
+    if (size == this.userSlots.length) {
+      this.userSlots = Arrays.copyOf(this.userSlots, 2 * size + 8);
+    }
+    this.userSlots[size] = user;
+    this.slotsByName.put(user.getName(), size);
+    this.users = new UsersView(this.userSlots, size + 1);
+  }
+
+  /**
+   * Publishes the schedules of the given users as they are now, alongside the schedules of
+   * every other user as they were last published, in a single step. A change touching several
+   * users publishes them all at once, so nobody reading the published schedules sees the change
+   * in some of them and not in the others. Each change copies the array of versions, which is
+   * a single copy of one reference per user.
+   *
+   * @param users every user in the planner, or null if the change added no users
+   * @param changed users whose schedule changed
+   */
+  private void publishVersions(UsersView users, Collection<IUser> changed) {
+    if (users == null && changed.isEmpty()) {
+      return;
+    }
+    ScheduleVersions prev;
+    ScheduleVersions next;
+    do {
+      prev = this.versions.get();
+      UsersView nextUsers = users != null ? users : prev.users;
+      Schedule.Version[] nextVersions = Arrays.copyOf(prev.versions, nextUsers.size());
+      for (IUser user : changed) {
+        Integer slot = this.slotsByName.get(user.getName());
+        // a user outside the planner has no published schedule
+        if (slot != null && slot < nextVersions.length && nextUsers.slots[slot] == user) {
+          nextVersions[slot] = versionOf(user);
+        }
+      }
+      next = new ScheduleVersions(nextUsers, nextVersions, this.slotsByName);
+    } while (!this.versions.compareAndSet(prev, next));
+  }
+
+  /**
+   * Takes the current version of the given user's schedule. A schedule other than a
+   * {@link Schedule} is copied into a version.
+   *
+   * @param user user whose schedule to take
+   * @return the version of their schedule
+   */
+  private static Schedule.Version versionOf(IUser user) {
+    ISchedule schedule = user.getSchedule();
+    if (schedule instanceof Schedule) {
+      return ((Schedule) schedule).version();
     }
+    return Schedule.versionOf(schedule.getEvents());
+  }
+
+  /**
+   * Holds the threads schedules are exported on, one per processor, started the first time
+   * schedules are exported. The threads don't keep the program running.
+   */
+  private static final class ExportPool {
+    private static final ExecutorService POOL = Executors.newFixedThreadPool(
+        Runtime.getRuntime().availableProcessors(), task -> {
+          Thread thread = new Thread(task, "schedule-export");
+          thread.setDaemon(true);
+          return thread;
+        });
   }
 
+  /**
+   * Read-only set of the first users in an array shared between sets.
+   */
+  private static final class UsersView extends AbstractSet<IUser> {
+    private final IUser[] slots;
+    private final int size;
+
+    private UsersView(IUser[] slots, int size) {
+      this.slots = slots;
+      this.size = size;
+    }
+
+    @Override
+    public Iterator<IUser> iterator() {
+      return Arrays.asList(this.slots).subList(0, this.size).iterator();
+    }
+
+    @Override
+    public int size() {
+      return this.size;
+    }
+  }
+
+  /**
+   * Read-only map of the first users in an array shared between sets to the version of each
+   * one's schedule, as published together.
+   */
+  private static final class ScheduleVersions extends AbstractMap<IUser, Schedule.Version> {
+    private final UsersView users;
+    private final Schedule.Version[] versions;
+    // where each user is in the order of users, including users added later
+    private final Map<String, Integer> slotsByName;
+
+    private ScheduleVersions(UsersView users, Schedule.Version[] versions,
+                             Map<String, Integer> slotsByName) {
+      this.users = users;
+      this.versions = versions;
+      this.slotsByName = slotsByName;
+    }
+
+    @Override
+    public Schedule.Version get(Object key) {
+      if (!(key instanceof IUser)) {
+        return null;
+      }
+      Integer slot = this.slotsByName.get(((IUser) key).getName());
+      if (slot == null || slot >= this.versions.length
+              || !this.users.slots[slot].equals(key)) {
+        return null;
+      }
+      return this.versions[slot];
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+      return this.get(key) != null;
+    }
+
+    @Override
+    public Set<Entry<IUser, Schedule.Version>> entrySet() {
+      return new AbstractSet<>() {
+        @Override
+        public Iterator<Entry<IUser, Schedule.Version>> iterator() {
+          return new Iterator<>() {
+            private int slot = 0;
+
+            @Override
+            public boolean hasNext() {
+              return this.slot < ScheduleVersions.this.versions.length;
+            }
+
+            @Override
+            public Entry<IUser, Schedule.Version> next() {
+              if (!this.hasNext()) {
+                throw new NoSuchElementException();
+              }
+              int current = this.slot++;
+              return Map.entry(ScheduleVersions.this.users.slots[current],
+                      ScheduleVersions.this.versions[current]);
+            }
+          };
+        }
+
+        @Override
+        public int size() {
+          return ScheduleVersions.this.versions.length;
+        }
+      };
+    }
+  }
+
+  /**
+   * Gives every event already in the given user's schedule an ID and records that the user
+   * holds it. Events without an ID are replaced in the schedule by a copy with their ID.
+   *
+   * @param user user whose schedule to register
+   */
+  private void registerSchedule(IUser user) {
+    for (IEvent event : new ArrayList<>(user.getSchedule().getEvents())) {
+      long eventId = this.idFor(event);
+      IEvent registered = this.eventsById.get(eventId);
+      IEvent identified = registered != null && registered.equals(event)
+              ? registered : event.withId(eventId);
+      if (identified != event) {
+        replaceEvent(user, identified);
+      }
+      this.register(eventId, identified);
+      this.holdersById.computeIfAbsent(eventId, id -> new LinkedHashSet<>()).add(user);
+    }
+  }
+
+  /**
+   * Replaces the event in a user's schedule equal to the given one by the given one.
+   *
+   * @param user user whose schedule to change
+   * @param event event to put in place of the equal one
+   */
+  private static void replaceEvent(IUser user, IEvent event) {
+    if (user.getSchedule() instanceof Schedule) {
+      ((Schedule) user.getSchedule()).replace(event);
+    }
+    else {
+      user.removeEventForUser(event);
+      user.addEventForUser(event);
+    }
+  }
+
+  /**
+   * Finds the ID of the given event in this planner, either by the event's own ID or by
+   * an equal event already in the planner. An event that has since been modified is no longer
+   * found by its old contents.
+   *
+   * @param event event to look up
+   * @return the event's ID, null if the planner does not know about the event
+   */
+  private Long findId(IEvent event) {
+    IEvent registered = this.eventsById.get(event.getId());
+    if (registered != null && registered.equals(event)) {
+      return event.getId();
+    }
+    return this.idsByEvent.get(event);
+  }
+
+  /**
+   * Finds the ID of the given event, handing out a new one if the event has none and no equal
+   * event is in the planner. The event itself is left as it is.
+   *
+   * @param event event to get an ID for
+   * @return the event's ID
+   */
+  private long idFor(IEvent event) {
+    long eventId = event.getId();
+    if (eventId == IEvent.NO_ID) {
+      Long existing = this.idsByEvent.get(event);
+      eventId = existing != null ? existing : NEXT_ID.getAndIncrement();
+    }
+    return eventId;
+  }
+
+  /**
+   * Records the event with the given ID, unless an event with that ID is already recorded.
+   *
+   * @param eventId ID of the event
+   * @param event the event
+   */
+  private void register(long eventId, IEvent event) {
+    if (this.eventsById.putIfAbsent(eventId, event) != null) {
+      return;
+    }
+    this.idsByEvent.putIfAbsent(event, eventId);
+    for (String invitee : event.getUsers()) {
+      this.idsByInvitee.computeIfAbsent(invitee, name -> new LinkedHashSet<>()).add(eventId);
+    }
+    if (!event.getUsers().isEmpty()) {
+      this.idsByHost.computeIfAbsent(event.getUsers().get(0), name -> new LinkedHashSet<>())
+              .add(eventId);
+    }
+  }
+
+  /**
+   * Forgets about the event with the given ID.
+   *
+   * @param eventId ID of the event
+   */
+  private void unregister(long eventId) {
+    IEvent event = this.eventsById.remove(eventId);
+    this.holdersById.remove(eventId);
+    if (event != null) {
+      this.idsByEvent.remove(event, eventId);
+      for (String invitee : event.getUsers()) {
+        removeFromIndex(this.idsByInvitee, invitee, eventId);
+      }
+      if (!event.getUsers().isEmpty()) {
+        removeFromIndex(this.idsByHost, event.getUsers().get(0), eventId);
+      }
+    }
+  }
+
+  /**
+   * Removes the given ID from the entry for the given name in an index, dropping the entry
+   * once it is empty.
+   *
+   * @param index index to remove from
+   * @param name name the ID is recorded under
+   * @param eventId ID to remove
+   */
+  private static void removeFromIndex(Map<String, Set<Long>> index, String name, long eventId) {
+    Set<Long> ids = index.get(name);
+    if (ids != null && ids.remove(eventId) && ids.isEmpty()) {
+      index.remove(name);
+    }
+  }
+
+  /**
+   * Looks up the events with the given IDs.
+   *
+   * @param eventIds IDs of the events, may be null
+   * @return list of the events, in the order of the IDs
+   */
+  private List<IEvent> eventsWithIds(Set<Long> eventIds) {
+    List<IEvent> events = new ArrayList<>();
+    if (eventIds != null) {
+      for (long eventId : eventIds) {
+        events.add(this.eventsById.get(eventId));
+      }
+    }
+    return events;
+  }
 
 }
@@ -0,0 +1,242 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Packed bitmap of the minutes in a week, with one bit per minute set while that minute is
+ * taken up by an event. A week has 10,080 minutes, so the whole bitmap fits in 158 longs and
+ * checking whether a period of time is free only tests a few words at a time.
+ *
+ * <p> Minute 0 is Sunday @00:00. Ranges are half open, [lo, hi), and are clamped to the week,
+ * so an event going into the following week should be marked as two separate ranges. </p>
+ */
+class OccupancyBitmap {
+  static final int WORDS = (Time.MINUTES_PER_WEEK + 63) / 64;
+
+  private final long[] words;
+
+  /**
+   * Creates a bitmap where every minute of the week is free.
+   */
+  OccupancyBitmap() {
+    this.words = new long[WORDS];
+  }
+
+  /**
+   * Creates a bitmap with the same busy minutes as this one, which can then be changed without
+   * changing this one.
+   *
+   * @return the copy
+   */
+  OccupancyBitmap copy() {
+    OccupancyBitmap copy = new OccupancyBitmap();
+    System.arraycopy(this.words, 0, copy.words, 0, WORDS);
+    return copy;
+  }
+
+  /**
+   * Marks every minute in [lo, hi) as busy.
+   *
+   * @param lo first minute of the range
+   * @param hi minute the range ends at, exclusive
+   */
+  void set(int lo, int hi) {
+    this.apply(lo, hi, true);
+  }
+
+  /**
+   * Marks the minutes from start up to end as busy, going into the following week if the end
+   * is before the start.
+   *
+   * @param start first busy minute of the week
+   * @param end minute of the week the busy period ends at
+   */
+  void setSpan(int start, int end) {
+    if (start < end) {
+      this.set(start, end);
+    }
+    else {
+      this.set(start, Time.MINUTES_PER_WEEK);
+      this.set(0, end);
+    }
+  }
+
+  /**
+   * Marks every minute busy in the other bitmap as busy in this one too, a word at a time.
+   *
+   * @param other bitmap whose busy minutes to add
+   */
+  void or(OccupancyBitmap other) {
+    for (int word = 0; word < WORDS; word++) {
+      this.words[word] |= other.words[word];
+    }
+  }
+
+  /**
+   * Finds the first minute at or after the given one that is busy.
+   *
+   * @param from minute to start looking at
+   * @return the first busy minute, or the number of minutes in a week if there is none
+   */
+  int nextSet(int from) {
+    return this.next(from, 0L);
+  }
+
+  /**
+   * Finds the first minute at or after the given one that is free.
+   *
+   * @param from minute to start looking at
+   * @return the first free minute, or the number of minutes in a week if there is none
+   */
+  int nextClear(int from) {
+    return this.next(from, -1L);
+  }
+
+  /**
+   * Finds the earliest periods of the given length within [lo, hi) where every minute is free.
+   * The periods found do not overlap, each one starts at or after the end of the one before.
+   * Whole runs of busy or free minutes are skipped a word at a time.
+   *
+   * @param length number of minutes each period should last
+   * @param lo first minute a period may start at
+   * @param hi minute every period has to end by
+   * @param maxPeriods most periods to find
+   * @return the first minute of each period found, earliest first
+   * @throws IllegalArgumentException if the length or the number of periods is not positive,
+   *                                  or the range is not within the week
+   */
+  List<Integer> findFree(int length, int lo, int hi, int maxPeriods) {
+    if (length <= 0 || maxPeriods <= 0) {
+      throw new IllegalArgumentException("Duration and number of slots must be positive");
+    }
+    if (lo < 0 || hi > Time.MINUTES_PER_WEEK || lo >= hi) {
+      throw new IllegalArgumentException("Invalid window to find slots in");
+    }
+    List<Integer> starts = new ArrayList<>();
+    int from = lo;
+    while (starts.size() < maxPeriods) {
+      int start = this.nextClear(from);
+      if (start + length > hi) {
+        break;
+      }
+      int end = Math.min(this.nextSet(start), hi);
+      if (end - start >= length) {
+        starts.add(start);
+        from = start + length;
+      }
+      else {
+        from = end;
+      }
+    }
+    return starts;
+  }
+
+  /**
+   * Marks every minute in [lo, hi) as free.
+   *
+   * @param lo first minute of the range
+   * @param hi minute the range ends at, exclusive
+   */
+  void clear(int lo, int hi) {
+    this.apply(lo, hi, false);
+  }
+
+  /**
+   * Determines whether the given minute of the week is busy.
+   *
+   * @param minute minute of the week
+   * @return true if the minute is busy
+   */
+  boolean isSet(int minute) {
+    if (minute < 0 || minute >= Time.MINUTES_PER_WEEK) {
+      return false;
+    }
+    return (this.words[minute >>> 6] & (1L << minute)) != 0;
+  }
+
+  /**
+   * Determines whether any minute in [lo, hi) is busy.
+   *
+   * @param lo first minute of the range
+   * @param hi minute the range ends at, exclusive
+   * @return true if at least one minute in the range is busy
+   */
+  boolean anySet(int lo, int hi) {
+    lo = clamp(lo);
+    hi = clamp(hi);
+    if (lo >= hi) {
+      return false;
+    }
+    int first = lo >>> 6;
+    int last = (hi - 1) >>> 6;
+    long firstMask = -1L << lo;
+    long lastMask = -1L >>> -hi;
+    if (first == last) {
+      return (this.words[first] & firstMask & lastMask) != 0;
+    }
+    if ((this.words[first] & firstMask) != 0) {
+      return true;
+    }
+    for (int word = first + 1; word < last; word++) {
+      if (this.words[word] != 0) {
+        return true;
+      }
+    }
+    return (this.words[last] & lastMask) != 0;
+  }
+
+  /**
+   * Finds the first minute at or after the given one whose bit differs from the given word of
+   * all zeros or all ones.
+   *
+   * @param from minute to start looking at
+   * @param skip word whose bits are being skipped over
+   * @return the first minute found, or the number of minutes in a week if there is none
+   */
+  private int next(int from, long skip) {
+    if (from >= Time.MINUTES_PER_WEEK) {
+      return Time.MINUTES_PER_WEEK;
+    }
+    int word = from >>> 6;
+    long bits = (this.words[word] ^ skip) & (-1L << from);
+    while (bits == 0) {
+      if (++word == WORDS) {
+        return Time.MINUTES_PER_WEEK;
+      }
+      bits = this.words[word] ^ skip;
+    }
+    return Math.min(word * 64 + Long.numberOfTrailingZeros(bits), Time.MINUTES_PER_WEEK);
+  }
+
+  private void apply(int lo, int hi, boolean busy) {
+    lo = clamp(lo);
+    hi = clamp(hi);
+    if (lo >= hi) {
+      return;
+    }
+    int first = lo >>> 6;
+    int last = (hi - 1) >>> 6;
+    long firstMask = -1L << lo;
+    long lastMask = -1L >>> -hi;
+    for (int word = first; word <= last; word++) {
+      long mask = -1L;
+      if (word == first) {
+        mask &= firstMask;
+      }
+      if (word == last) {
+        mask &= lastMask;
+      }
+      if (busy) {
+        this.words[word] |= mask;
+      }
+      else {
+        this.words[word] &= ~mask;
+      }
+    }
+  }
+
+  private static int clamp(int minute) {
+    return Math.max(0, Math.min(minute, Time.MINUTES_PER_WEEK));
+  }
+}
@@ -0,0 +1,112 @@
+package model;
+
+/**
+ * Metrics of one operation of a planner system, as recorded by a {@link MetricsPlanner} up to
+ * the time they were taken. Records how often the operation was called, how often it failed,
+ * and how long the calls took.
+ */
+public class OperationMetrics {
+  private final String name;
+  private final long calls;
+  private final long errors;
+  private final long totalNanos;
+  private final long maxNanos;
+  private final long[] bucketCounts;
+
+  /**
+   * Takes the metrics of an operation.
+   *
+   * @param name name of the operation
+   * @param errors number of failures of the operation
+   * @param latency how long the calls took
+   */
+  public OperationMetrics(String name, long errors, LatencyHistogram latency) {
+    this.name = name;
+    this.bucketCounts = latency.bucketCounts();
+    long counted = 0;
+    for (long bucketCount : this.bucketCounts) {
+      counted += bucketCount;
+    }
+    // the buckets are counted one at a time, so the calls are counted from the same counts
+    this.calls = counted;
+    this.errors = errors;
+    this.totalNanos = latency.getTotalNanos();
+    this.maxNanos = latency.getMaxNanos();
+  }
+
+  /**
+   * Observes the name of the operation, i.e. the name of the planner method.
+   *
+   * @return the name
+   */
+  public String getName() {
+    return this.name;
+  }
+
+  /**
+   * Observes how often the operation was called.
+   *
+   * @return the number of calls
+   */
+  public long getCalls() {
+    return this.calls;
+  }
+
+  /**
+   * Observes how often the operation failed. Every exception thrown counts, as does every
+   * invitee who could not take an event they were added to or modified into.
+   *
+   * @return the number of failures
+   */
+  public long getErrors() {
+    return this.errors;
+  }
+
+  /**
+   * Observes how long a call took on average.
+   *
+   * @return the mean time, in nanoseconds, 0 if there were no calls
+   */
+  public double getMeanNanos() {
+    return this.calls == 0 ? 0 : (double) this.totalNanos / this.calls;
+  }
+
+  /**
+   * Observes how long the slowest call took.
+   *
+   * @return the longest time, in nanoseconds, 0 if there were no calls
+   */
+  public long getMaxNanos() {
+    return this.maxNanos;
+  }
+
+  /**
+   * Finds the time within which the given percentage of calls finished. The time is rounded
+   * up by at most an eighth.
+   *
+   * @param percentile percentage of calls, from 0 to 100
+   * @return the time, in nanoseconds, 0 if there were no calls
+   * @throws IllegalArgumentException if the percentage is not between 0 and 100
+   */
+  public long getPercentileNanos(double percentile) {
+    if (percentile < 0 || percentile > 100) {
+      throw new IllegalArgumentException("Percentile must be between 0 and 100");
+    }
+    long rank = Math.max(1, (long) Math.ceil(percentile / 100 * this.calls));
+    long seen = 0;
+    for (int idx = 0; idx < this.bucketCounts.length; idx++) {
+      seen += this.bucketCounts[idx];
+      if (seen >= rank) {
+        return Math.min(LatencyHistogram.highestValueIn(idx), this.maxNanos);
+      }
+    }
+    return 0;
+  }
+
+  @Override
+  public String toString() {
+    return String.format("%s: %d calls, %d errors, mean %.0fns, p50 %dns, p99 %dns, max %dns",
+            this.name, this.calls, this.errors, this.getMeanNanos(),
+            this.getPercentileNanos(50), this.getPercentileNanos(99), this.maxNanos);
+  }
+}
@@ -0,0 +1,495 @@
+package model;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only journal of the changes made to a planner system, so they survive a restart
+ * without saving every schedule. Every change is appended as a small binary record, and
+ * {@link #replay(String, PlannerSystem)} applies the records to a planner in the order they
+ * were made, e.g. on top of the last {@link PlannerSnapshot}.
+ *
+ * <p> Each record is framed by its length and a checksum. A record that was only partly
+ * written when the program stopped fails its checksum and is dropped, along with anything
+ * after it. </p>
+ *
+ * <p> Appending a record returns a ticket straight away, and {@link #sync(long)} returns once
+ * the record is forced to disk. Records are written in the order they were appended, so a
+ * caller that appends while holding the lock it makes its change under keeps the journal in
+ * the order the changes were made, and only waits for the disk after letting go of it. Records
+ * appended by several threads at about the same time are written and forced together, so a
+ * burst of changes costs one force instead of one per change. </p>
+ *
+ * <p> Events are recorded by their contents rather than their IDs, as IDs are handed out again
+ * each time the planner is started. </p>
+ */
+public class PlannerJournal implements AutoCloseable {
+  private static final byte ADD_USER = 1;
+  private static final byte ADD_EVENT = 2;
+  private static final byte MODIFY_EVENT = 3;
+  private static final byte REMOVE_EVENT = 4;
+  // length and checksum in front of each record
+  private static final int FRAME_HEADER = 8;
+  // longest record contents, so a corrupt length is not taken for a huge record
+  private static final int MAX_RECORD_LENGTH = 1 << 24;
+
+  private final FileChannel channel;
+  private final Object lock;
+  // framed records appended but not written yet
+  private final ByteArrayOutputStream pending;
+  // number of records appended, and number of those forced to disk
+  private long appended;
+  private long durable;
+  private boolean flushing;
+  private IOException failure;
+
+  /**
+   * Opens the journal at the given path for appending, creating it if needed. A record at the
+   * end of the journal that was only partly written is cut off.
+   *
+   * @param filePath where the journal is located
+   * @throws IllegalStateException if the journal can't be opened
+   */
+  public PlannerJournal(String filePath) {
+    try {
+      long validLength = validLength(filePath);
+      this.channel = FileChannel.open(Paths.get(filePath), StandardOpenOption.CREATE,
+              StandardOpenOption.WRITE);
+      this.channel.truncate(validLength);
+      this.channel.position(validLength);
+    } catch (IOException ex) {
+      throw new IllegalStateException("Error in opening the journal");
+    }
+    this.lock = new Object();
+    this.pending = new ByteArrayOutputStream();
+  }
+
+  /**
+   * Records that the given user was added to the planner, along with their schedule.
+   *
+   * @param user user that was added
+   * @return ticket to wait for the record to be on disk with
+   * @throws IllegalStateException if the record is too long
+   */
+  public long logAddUser(IUser user) {
+    return this.append(out -> {
+      out.writeByte(ADD_USER);
+      out.writeUTF(user.getName());
+      List<IEvent> events = user.getSchedule().getEvents();
+      out.writeInt(events.size());
+      for (IEvent event : events) {
+        writeEvent(out, event);
+      }
+    });
+  }
+
+  /**
+   * Records that the given event was added for its invitees.
+   *
+   * @param event event that was added
+   * @return ticket to wait for the record to be on disk with
+   */
+  public long logAddEvent(IEvent event) {
+    return this.append(out -> {
+      out.writeByte(ADD_EVENT);
+      writeEvent(out, event);
+    });
+  }
+
+  /**
+   * Records that several events were added, in the given order, to be forced to disk together.
+   *
+   * @param events events that were added
+   * @return ticket to wait for the records to be on disk with
+   */
+  public long logAddEvents(List<IEvent> events) {
+    List<byte[]> records = new ArrayList<>();
+    for (IEvent event : events) {
+      records.add(frame(out -> {
+        out.writeByte(ADD_EVENT);
+        writeEvent(out, event);
+      }));
+    }
+    // a ticket of 0 is always on disk
+    return records.isEmpty() ? 0 : this.append(records);
+  }
+
+  /**
+   * Records that an event was modified.
+   *
+   * @param prevEvent event before it was modified
+   * @param newEvent what the event was modified to
+   * @return ticket to wait for the record to be on disk with
+   */
+  public long logModifyEvent(IEvent prevEvent, IEvent newEvent) {
+    return this.append(out -> {
+      out.writeByte(MODIFY_EVENT);
+      writeEvent(out, prevEvent);
+      writeEvent(out, newEvent);
+    });
+  }
+
+  /**
+   * Records that a user removed an event.
+   *
+   * @param event event that was removed
+   * @param userName name of the user removing it
+   * @return ticket to wait for the record to be on disk with
+   */
+  public long logRemoveEvent(IEvent event, String userName) {
+    return this.append(out -> {
+      out.writeByte(REMOVE_EVENT);
+      writeEvent(out, event);
+      out.writeUTF(userName);
+    });
+  }
+
+  /**
+   * Empties the journal, e.g. once a snapshot holding every change in it has been written.
+   * Records appended but not on disk yet are forced to disk first, so nobody waiting for them
+   * is told they are on disk before they are.
+   *
+   * @throws IllegalStateException if the journal can't be emptied
+   */
+  public void clear() {
+    synchronized (this.lock) {
+      try {
+        while (this.flushing) {
+          this.lock.wait();
+        }
+        if (this.failure != null) {
+          throw new IllegalStateException("Error in writing the journal");
+        }
+        if (this.pending.size() > 0) {
+          this.writeAndForce(this.pending.toByteArray());
+          this.pending.reset();
+        }
+        this.durable = this.appended;
+        this.lock.notifyAll();
+        this.channel.truncate(0);
+        this.channel.force(true);
+      } catch (InterruptedException ex) {
+        Thread.currentThread().interrupt();
+        throw new IllegalStateException("Interrupted while clearing the journal");
+      } catch (IOException ex) {
+        this.failure = ex;
+        this.lock.notifyAll();
+        throw new IllegalStateException("Error in clearing the journal");
+      }
+    }
+  }
+
+  /**
+   * Waits until the record with the given ticket, and every record appended before it, is
+   * forced to disk. Whichever waiting thread finds no write in progress writes every record
+   * appended so far.
+   *
+   * @param ticket ticket returned when the record was appended
+   * @throws IllegalStateException if the records can't be written
+   */
+  public void sync(long ticket) {
+    while (true) {
+      byte[] batch;
+      long batchEnd;
+      synchronized (this.lock) {
+        try {
+          while (this.flushing && this.durable < ticket && this.failure == null) {
+            this.lock.wait();
+          }
+        } catch (InterruptedException ex) {
+          Thread.currentThread().interrupt();
+          throw new IllegalStateException("Interrupted while writing the journal");
+        }
+        if (this.durable >= ticket) {
+          return;
+        }
+        if (this.failure != null) {
+          throw new IllegalStateException("Error in writing the journal");
+        }
+        this.flushing = true;
+        batch = this.pending.toByteArray();
+        this.pending.reset();
+        batchEnd = this.appended;
+      }
+      IOException error = null;
+      try {
+        this.writeAndForce(batch);
+      } catch (IOException ex) {
+        error = ex;
+      }
+      synchronized (this.lock) {
+        this.flushing = false;
+        if (error == null) {
+          this.durable = batchEnd;
+        }
+        else {
+          this.failure = error;
+        }
+        this.lock.notifyAll();
+      }
+    }
+  }
+
+  /**
+   * Closes the journal file.
+   */
+  @Override
+  public void close() {
+    try {
+      this.channel.close();
+    } catch (IOException ignored) {
+      // nothing more will be written either way
+    }
+  }
+
+  /**
+   * Applies every complete record in the journal at the given path to the given planner, in
+   * the order they were made. Changes that fail the way they failed when they were made, e.g.
+   * an event that overlaps, are applied the same way.
+   *
+   * @param filePath where the journal is located
+   * @param planner planner to apply the changes to
+   * @return the number of records applied, 0 if there is no journal
+   * @throws IllegalStateException if the journal can't be read
+   */
+  public static int replay(String filePath, PlannerSystem planner) {
+    int applied = 0;
+    try (DataInputStream in = new DataInputStream(
+            new BufferedInputStream(new FileInputStream(filePath)))) {
+      byte[] record;
+      while ((record = readRecord(in)) != null) {
+        apply(new DataInputStream(new ByteArrayInputStream(record)), planner);
+        applied++;
+      }
+    } catch (FileNotFoundException ex) {
+      return 0;
+    } catch (IOException ex) {
+      throw new IllegalStateException("Error in reading the journal");
+    }
+    return applied;
+  }
+
+  /**
+   * Writes the contents of a single record.
+   */
+  private interface RecordWriter {
+    void write(DataOutputStream out) throws IOException;
+  }
+
+  /**
+   * Appends a record to the journal, without waiting for it to be written.
+   *
+   * @param writer writes the record's contents
+   * @return ticket to wait for the record to be on disk with
+   * @throws IllegalStateException if the record is too long
+   */
+  private long append(RecordWriter writer) {
+    return this.append(List.of(frame(writer)));
+  }
+
+  /**
+   * Appends framed records to the journal together, without waiting for them to be written.
+   *
+   * @param records the framed records, in order
+   * @return ticket to wait for the records to be on disk with
+   */
+  private long append(List<byte[]> records) {
+    synchronized (this.lock) {
+      for (byte[] record : records) {
+        this.pending.write(record, 0, record.length);
+      }
+      return ++this.appended;
+    }
+  }
+
+  /**
+   * Writes records to the end of the journal and forces them to disk.
+   *
+   * @param batch the framed records
+   * @throws IOException if the records can't be written
+   */
+  private void writeAndForce(byte[] batch) throws IOException {
+    ByteBuffer buffer = ByteBuffer.wrap(batch);
+    while (buffer.hasRemaining()) {
+      this.channel.write(buffer);
+    }
+    this.channel.force(false);
+  }
+
+  /**
+   * Builds a record, framed by its length and checksum.
+   *
+   * @param writer writes the record's contents
+   * @return the framed record
+   * @throws IllegalStateException if the record is too long
+   */
+  private static byte[] frame(RecordWriter writer) {
+    try {
+      ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+      DataOutputStream out = new DataOutputStream(bytes);
+      // room for the length and checksum, filled in once the contents are known
+      out.writeLong(0);
+      writer.write(out);
+      out.flush();
+      if (bytes.size() - FRAME_HEADER > MAX_RECORD_LENGTH) {
+        throw new IllegalStateException("Journal record is too long");
+      }
+      ByteBuffer record = ByteBuffer.wrap(bytes.toByteArray());
+      CRC32 crc = new CRC32();
+      crc.update(record.array(), FRAME_HEADER, record.capacity() - FRAME_HEADER);
+      record.putInt(0, record.capacity() - FRAME_HEADER);
+      record.putInt(4, (int) crc.getValue());
+      return record.array();
+    } catch (IOException ex) {
+      throw new IllegalStateException("Error in writing the journal");
+    }
+  }
+
+  /**
+   * Reads the contents of the next record.
+   *
+   * @param in journal being read
+   * @return the record's contents, null at the end of the journal or at a record that was only
+   *         partly written
+   * @throws IOException if the journal can't be read
+   */
+  private static byte[] readRecord(DataInputStream in) throws IOException {
+    try {
+      int length = in.readInt();
+      int checksum = in.readInt();
+      if (length < 0 || length > MAX_RECORD_LENGTH) {
+        return null;
+      }
+      byte[] record = in.readNBytes(length);
+      if (record.length < length) {
+        return null;
+      }
+      CRC32 crc = new CRC32();
+      crc.update(record);
+      return (int) crc.getValue() == checksum ? record : null;
+    } catch (EOFException ex) {
+      return null;
+    }
+  }
+
+  /**
+   * Finds how much of the journal at the given path holds complete records.
+   *
+   * @param filePath where the journal is located
+   * @return length in bytes of the complete records, 0 if there is no journal
+   * @throws IOException if the journal can't be read
+   */
+  private static long validLength(String filePath) throws IOException {
+    long length = 0;
+    try (DataInputStream in = new DataInputStream(
+            new BufferedInputStream(new FileInputStream(filePath)))) {
+      byte[] record;
+      while ((record = readRecord(in)) != null) {
+        length += FRAME_HEADER + record.length;
+      }
+    } catch (FileNotFoundException ex) {
+      return 0;
+    }
+    return length;
+  }
+
+  /**
+   * Applies a single record to the planner.
+   *
+   * @param in contents of the record
+   * @param planner planner to apply it to
+   * @throws IOException if the record can't be read
+   */
+  private static void apply(DataInputStream in, PlannerSystem planner) throws IOException {
+    byte type = in.readByte();
+    try {
+      switch (type) {
+        case ADD_USER:
+          String userName = in.readUTF();
+          ArrayList<IEvent> events = new ArrayList<>();
+          int eventCount = in.readInt();
+          for (int idx = 0; idx < eventCount; idx++) {
+            events.add(readEvent(in));
+          }
+          planner.addUser(new User(userName, new Schedule(events)));
+          break;
+        case ADD_EVENT:
+          planner.addEventForRelevantUsers(readEvent(in));
+          break;
+        case MODIFY_EVENT:
+          planner.modifyEvent(readEvent(in), readEvent(in));
+          break;
+        case REMOVE_EVENT:
+          IEvent event = readEvent(in);
+          String removingName = in.readUTF();
+          IUser removing = planner.getUser(removingName);
+          if (removing == null) {
+            removing = new User(removingName, new Schedule(new ArrayList<>()));
+          }
+          planner.removeEventForRelevantUsers(event, removing);
+          break;
+        default:
+          throw new IOException("Unknown journal record " + type);
+      }
+    } catch (IllegalArgumentException ignored) {
+      // the change failed the same way when it was made
+    }
+  }
+
+  /**
+   * Writes an event's contents.
+   *
+   * @param out where to write the event
+   * @param event event to write
+   * @throws IOException if the event can't be written
+   */
+  private static void writeEvent(DataOutputStream out, IEvent event) throws IOException {
+    out.writeUTF(event.getEventName());
+    out.writeShort(event.getStartTime().minuteOfWeek());
+    out.writeShort(event.getEndTime().minuteOfWeek());
+    out.writeBoolean(event.getOnline());
+    out.writeBoolean(event.getLocation() != null);
+    if (event.getLocation() != null) {
+      out.writeUTF(event.getLocation());
+    }
+    out.writeInt(event.getUsers().size());
+    for (String invitee : event.getUsers()) {
+      out.writeUTF(invitee);
+    }
+  }
+
+  /**
+   * Reads an event's contents written by {@link #writeEvent(DataOutputStream, IEvent)}.
+   *
+   * @param in where to read the event from
+   * @return the event
+   * @throws IOException if the event can't be read
+   */
+  private static IEvent readEvent(DataInputStream in) throws IOException {
+    String eventName = in.readUTF();
+    Time startTime = Time.ofMinuteOfWeek(in.readUnsignedShort());
+    Time endTime = Time.ofMinuteOfWeek(in.readUnsignedShort());
+    boolean online = in.readBoolean();
+    String location = in.readBoolean() ? in.readUTF() : null;
+    List<String> invitees = new ArrayList<>();
+    int inviteeCount = in.readInt();
+    for (int idx = 0; idx < inviteeCount; idx++) {
+      invitees.add(in.readUTF());
+    }
+    return new Event(eventName, startTime, endTime, online, location, invitees);
+  }
+}
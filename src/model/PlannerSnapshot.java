@@ -0,0 +1,286 @@
+package model;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Reads and writes a compact binary snapshot of a whole planner system, for restarting the
+ * planner quickly. XML stays the format for exchanging schedules, the snapshot only stores the
+ * planner's state so it can be read back in one pass without parsing any text.
+ *
+ * <p> A snapshot is laid out as: </p>
+ * <ul>
+ *   <li> a header of the magic number, the format version and the position of each of the
+ *        following sections </li>
+ *   <li> a string dictionary holding every user name, event name, location and invitee once </li>
+ *   <li> the events, each packed as its name, location (-1 if it has none), start and end
+ *        minute of the week, whether it is online and the dictionary indices of its
+ *        invitees </li>
+ *   <li> the users, each as its name and the indices of the events in its schedule, in
+ *        schedule order </li>
+ * </ul>
+ *
+ * <p> Each section starts with its number of records and the position of every record in the
+ * file, so a single record can be read without reading the ones before it, see
+ * {@link MappedPlanner}. </p>
+ *
+ * <p> An event held by several users is only stored once, and is read back as a single event
+ * shared by their schedules, the same way the planner holds it. Event IDs are not stored,
+ * the planner reading the snapshot gives the events new ones. </p>
+ */
+public class PlannerSnapshot {
+  // "NUPL"
+  static final int MAGIC = 0x4E55504C;
+  static final int VERSION = 2;
+  // stands in for the dictionary index of a missing location
+  static final int NO_STRING = -1;
+  // magic number, version and the positions of the three sections
+  static final int HEADER_SIZE = 18;
+  // bytes in an event before its invitees, and in a user before its events
+  static final int EVENT_FIXED_SIZE = 17;
+  static final int USER_FIXED_SIZE = 8;
+
+  /**
+   * Writes a snapshot of every user and event in the given planner to the given file.
+   * Calling this method twice will overwrite the current file in the given location.
+   *
+   * @param planner planner to take a snapshot of
+   * @param filePath where to save the snapshot
+   * @throws IllegalStateException if the file can't be written
+   */
+  public static void write(ReadOnlyPlanner planner, String filePath) {
+    Map<String, Integer> stringIdx = new HashMap<>();
+    List<String> strings = new ArrayList<>();
+    Map<IEvent, Integer> eventIdx = new HashMap<>();
+    List<IEvent> events = new ArrayList<>();
+    List<IUser> users = new ArrayList<>(planner.getUsers());
+    for (IUser user : users) {
+      addString(user.getName(), stringIdx, strings);
+      for (IEvent event : user.getSchedule().getEvents()) {
+        if (eventIdx.putIfAbsent(event, events.size()) == null) {
+          events.add(event);
+          addString(event.getEventName(), stringIdx, strings);
+          if (event.getLocation() != null) {
+            addString(event.getLocation(), stringIdx, strings);
+          }
+          for (String invitee : event.getUsers()) {
+            addString(invitee, stringIdx, strings);
+          }
+        }
+      }
+    }
+
+    // the size of every record is known up front, so the offset tables are written first
+    int[] stringSizes = new int[strings.size()];
+    for (int idx = 0; idx < stringSizes.length; idx++) {
+      stringSizes[idx] = 2 + utfLength(strings.get(idx));
+    }
+    int[] eventSizes = new int[events.size()];
+    for (int idx = 0; idx < eventSizes.length; idx++) {
+      eventSizes[idx] = EVENT_FIXED_SIZE + 4 * events.get(idx).getUsers().size();
+    }
+    int[] userSizes = new int[users.size()];
+    for (int idx = 0; idx < userSizes.length; idx++) {
+      userSizes[idx] = USER_FIXED_SIZE + 4 * users.get(idx).getSchedule().getEvents().size();
+    }
+    int stringsPos = HEADER_SIZE;
+    int eventsPos = sectionEnd(stringsPos, stringSizes);
+    int usersPos = sectionEnd(eventsPos, eventSizes);
+
+    try (DataOutputStream out = new DataOutputStream(
+            new BufferedOutputStream(new FileOutputStream(filePath)))) {
+      out.writeInt(MAGIC);
+      out.writeShort(VERSION);
+      out.writeInt(stringsPos);
+      out.writeInt(eventsPos);
+      out.writeInt(usersPos);
+
+      writeOffsets(out, stringsPos, stringSizes);
+      for (String string : strings) {
+        out.writeUTF(string);
+      }
+
+      writeOffsets(out, eventsPos, eventSizes);
+      for (IEvent event : events) {
+        out.writeInt(stringIdx.get(event.getEventName()));
+        out.writeInt(event.getLocation() == null ? NO_STRING : stringIdx.get(event.getLocation()));
+        out.writeShort(event.getStartTime().minuteOfWeek());
+        out.writeShort(event.getEndTime().minuteOfWeek());
+        out.writeBoolean(event.getOnline());
+        out.writeInt(event.getUsers().size());
+        for (String invitee : event.getUsers()) {
+          out.writeInt(stringIdx.get(invitee));
+        }
+      }
+
+      writeOffsets(out, usersPos, userSizes);
+      for (IUser user : users) {
+        List<IEvent> userEvents = user.getSchedule().getEvents();
+        out.writeInt(stringIdx.get(user.getName()));
+        out.writeInt(userEvents.size());
+        for (IEvent event : userEvents) {
+          out.writeInt(eventIdx.get(event));
+        }
+      }
+    } catch (IOException ex) {
+      throw new IllegalStateException("Error in writing the snapshot");
+    }
+  }
+
+  /**
+   * Reads a snapshot written by {@link #write(ReadOnlyPlanner, String)} into a new planner.
+   *
+   * @param filePath where the snapshot is located
+   * @return a planner holding the users and events in the snapshot
+   * @throws IllegalStateException if the file can't be opened, is not a planner snapshot or
+   *                               was written by an unsupported version
+   */
+  public static PlannerSystem read(String filePath) {
+    try (DataInputStream in = new DataInputStream(
+            new BufferedInputStream(new FileInputStream(filePath)))) {
+      checkHeader(in.readInt(), in.readUnsignedShort());
+      // the positions of the sections are only needed to jump straight to a record
+      in.skipBytes(12);
+
+      String[] strings = new String[in.readInt()];
+      in.skipBytes(4 * strings.length);
+      for (int idx = 0; idx < strings.length; idx++) {
+        strings[idx] = in.readUTF();
+      }
+
+      IEvent[] events = new IEvent[in.readInt()];
+      in.skipBytes(4 * events.length);
+      for (int idx = 0; idx < events.length; idx++) {
+        String eventName = strings[in.readInt()];
+        int locationIdx = in.readInt();
+        String location = locationIdx == NO_STRING ? null : strings[locationIdx];
+        Time startTime = Time.ofMinuteOfWeek(in.readUnsignedShort());
+        Time endTime = Time.ofMinuteOfWeek(in.readUnsignedShort());
+        boolean online = in.readBoolean();
+        String[] invitees = new String[in.readInt()];
+        for (int inviteeIdx = 0; inviteeIdx < invitees.length; inviteeIdx++) {
+          invitees[inviteeIdx] = strings[in.readInt()];
+        }
+        events[idx] = new Event(eventName, startTime, endTime, online, location,
+                Arrays.asList(invitees));
+      }
+
+      Set<IUser> users = new LinkedHashSet<>();
+      int userCount = in.readInt();
+      in.skipBytes(4 * userCount);
+      for (int idx = 0; idx < userCount; idx++) {
+        String userName = strings[in.readInt()];
+        ArrayList<IEvent> userEvents = new ArrayList<>();
+        int eventCount = in.readInt();
+        for (int eventIdx = 0; eventIdx < eventCount; eventIdx++) {
+          userEvents.add(events[in.readInt()]);
+        }
+        users.add(new User(userName, new Schedule(userEvents)));
+      }
+      return new NUPlanner(users);
+    } catch (IOException | IndexOutOfBoundsException | NegativeArraySizeException
+             | IllegalArgumentException ex) {
+      throw new IllegalStateException("Error in reading the snapshot");
+    }
+  }
+
+  /**
+   * Checks that a snapshot starts with the magic number and a supported version.
+   *
+   * @param magic the snapshot's magic number
+   * @param version the snapshot's format version
+   * @throws IllegalStateException if the snapshot can't be read
+   */
+  static void checkHeader(int magic, int version) {
+    if (magic != MAGIC) {
+      throw new IllegalStateException("File is not a planner snapshot");
+    }
+    if (version != VERSION) {
+      throw new IllegalStateException("Unsupported snapshot version " + version);
+    }
+  }
+
+  /**
+   * Writes the offset table of a section, i.e. the number of records followed by the position
+   * of each record in the file.
+   *
+   * @param out where to write the table
+   * @param sectionPos position of the section in the file
+   * @param sizes size of each record in the section
+   * @throws IOException if the table can't be written
+   */
+  private static void writeOffsets(DataOutputStream out, int sectionPos, int[] sizes)
+          throws IOException {
+    out.writeInt(sizes.length);
+    int offset = sectionPos + 4 + 4 * sizes.length;
+    for (int size : sizes) {
+      out.writeInt(offset);
+      offset += size;
+    }
+  }
+
+  /**
+   * Finds where a section ends, which is where the next one starts.
+   *
+   * @param sectionPos position of the section in the file
+   * @param sizes size of each record in the section
+   * @return position right after the section
+   */
+  private static int sectionEnd(int sectionPos, int[] sizes) {
+    int end = sectionPos + 4 + 4 * sizes.length;
+    for (int size : sizes) {
+      end += size;
+    }
+    return end;
+  }
+
+  /**
+   * Counts the bytes {@link DataOutputStream#writeUTF(String)} writes for a string, not
+   * including the two byte length in front of it.
+   *
+   * @param string string to measure
+   * @return length of the encoded string
+   */
+  private static int utfLength(String string) {
+    int length = 0;
+    for (int idx = 0; idx < string.length(); idx++) {
+      char ch = string.charAt(idx);
+      if (ch >= 0x0001 && ch <= 0x007F) {
+        length += 1;
+      }
+      else if (ch <= 0x07FF) {
+        length += 2;
+      }
+      else {
+        length += 3;
+      }
+    }
+    return length;
+  }
+
+  /**
+   * Adds the given string to the dictionary, unless it is already there.
+   *
+   * @param string string to add
+   * @param stringIdx index of each string in the dictionary
+   * @param strings strings in the dictionary, in order
+   */
+  private static void addString(String string, Map<String, Integer> stringIdx,
+                                List<String> strings) {
+    if (stringIdx.putIfAbsent(string, strings.size()) == null) {
+      strings.add(string);
+    }
+  }
+}
@@ -1,5 +1,8 @@
 package model;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 /**
@@ -12,8 +15,38 @@ public interface PlannerSystem extends ReadOnlyPlanner {
    */
   void exportScheduleAsXML(String filePath);
 
+  /**
+   * Save the schedules that changed since they were last saved as XML files. If the schedules
+   * were last saved somewhere else, or never saved, every schedule is saved.
+   *
+   * @param filePath where to save the XML files
+   * @return the number of schedules saved
+   */
+  int saveChangedSchedules(String filePath);
+
   Set<IUser> getUsers();
 
+  /**
+   * Observes the schedule of every user in the planner, all taken at the same point in time.
+   * Each change to the planner is either in every schedule it touches or in none of them, so
+   * the whole planner can be read from the map without seeing a change half made. The map
+   * never changes once handed out.
+   *
+   * @return each user's schedule, in the order the users were added
+   */
+  Map<IUser, Schedule.Version> scheduleVersions();
+
+  /**
+   * Loads every user schedule XML file in the given directory, i.e. every file ending in
+   * "_schedule.xml", and adds the users to the planner. Files are read in parallel and the
+   * users are added once every file is read.
+   *
+   * @param directoryPath path of the directory holding the schedule files
+   * @return the outcome of loading each file, in order of file name
+   * @throws IllegalArgumentException if the path is not a readable directory
+   */
+  List<ScheduleLoadResult> loadSchedules(String directoryPath);
+
   /**
    * Remove an event from planner system for relevant users.
    * If host (first user in invitee list) is removing event, remove for all users.
@@ -25,20 +58,56 @@ public interface PlannerSystem extends ReadOnlyPlanner {
   void removeEventForRelevantUsers(IEvent eventToRemove, IUser userRemovingEvent);
 
   /**
-   * Events can only be modified if all users can attend the event.
+   * Remove the event with the given ID from planner system for relevant users.
+   * If host (first user in invitee list) is removing event, remove for all users.
+   * If any other user, only remove event from their schedule.
+   *
+   * @param eventId ID of the event to remove from planner system
+   * @param userRemovingEvent user removing the event
+   * @throws IllegalArgumentException if no event has that ID
+   */
+  void removeEventForRelevantUsers(long eventId, IUser userRemovingEvent);
+
+  /**
+   * Events can only be modified if all users can attend the event. If any of them can't,
+   * nothing changes.
    * @param prevEvent event to be modified
    * @param newEvent what the previous event should be modified to
-   * @throws IllegalArgumentException if user listed cannot attend the modified event
+   * @throws EventConflictException if user listed cannot attend the modified event
    **/
   void modifyEvent(IEvent prevEvent, IEvent newEvent);
 
+  /**
+   * Modifies the event with the given ID. The modified event keeps the same ID.
+   * Events can only be modified if all users can attend the event. If any of them can't,
+   * nothing changes.
+   * @param eventId ID of the event to be modified
+   * @param newEvent what the previous event should be modified to
+   * @throws IllegalArgumentException if no event has that ID, or the new event is already
+   *         known by a different ID
+   * @throws EventConflictException if user listed cannot attend the modified event
+   **/
+  void modifyEvent(long eventId, IEvent newEvent);
+
   /**
    * Add events for the users listed in the event's invitee list.
+   * The event is given an ID if it does not have one yet.
    *
    * @param eventToAdd event to add to the relevant user schedule
+   * @throws IllegalArgumentException if the event's ID now belongs to a modified version of it
    */
   void addEventForRelevantUsers(IEvent eventToAdd);
 
+  /**
+   * Add many events for the users listed in each event's invitee list at once. Every
+   * schedule is checked before any event is added. Where events in the batch overlap for an
+   * invitee, the one starting first is added.
+   *
+   * @param eventsToAdd events to add to the relevant user schedules
+   * @return the outcome of adding each event, in the order the events were given
+   */
+  List<EventAddResult> addEventsForRelevantUsers(Collection<IEvent> eventsToAdd);
+
 
   // could take in a string (make a user with an empty schedule)
   // or a User (with a schedule)
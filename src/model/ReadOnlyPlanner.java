@@ -1,5 +1,6 @@
 package model;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Set;
 
@@ -24,6 +25,14 @@ public interface ReadOnlyPlanner {
    */
   Set<IUser> getUsers();
 
+  /**
+   * Retrieves the user in the planner system with the given name.
+   *
+   * @param name name of the user
+   * @return the user with that name, null if there is no such user
+   */
+  IUser getUser(String name);
+
   /**
    * Retrieves the events in this user's schedule.
    *
@@ -32,4 +41,58 @@ public interface ReadOnlyPlanner {
    */
   List<IEvent> retrieveUserEvents(IUser user);
 
+  /**
+   * Retrieves the events in the planner that the user with the given name is invited to,
+   * including the ones they host.
+   *
+   * @param userName name of the user
+   * @return list of events the user is invited to
+   */
+  List<IEvent> eventsInvitedTo(String userName);
+
+  /**
+   * Retrieves the events in the planner hosted by the user with the given name.
+   *
+   * @param userName name of the host
+   * @return list of events the user hosts
+   */
+  List<IEvent> eventsHostedBy(String userName);
+
+  /**
+   * Finds the earliest times within the given window at which every given user is free for
+   * the given number of minutes. The slots found do not overlap, each one starts at or after
+   * the end of the one before. Names of users not in the planner are ignored.
+   *
+   * @param userNames names of the users who all need to be free
+   * @param durationMinutes how long each slot lasts, in minutes
+   * @param windowStart earliest time a slot may start at
+   * @param windowEnd time every slot has to end by
+   * @param maxSlots most slots to find
+   * @return the start time of each slot found, earliest first
+   * @throws IllegalArgumentException if the duration or number of slots is not positive, or the
+   *                                  window ends before it starts
+   */
+  List<ITime> findFreeSlots(Collection<String> userNames, int durationMinutes,
+                            ITime windowStart, ITime windowEnd, int maxSlots);
+
+  /**
+   * Finds the earliest time in the week at which every given user is free for the given number
+   * of minutes. Names of users not in the planner are ignored.
+   *
+   * @param userNames names of the users who all need to be free
+   * @param durationMinutes how long the slot lasts, in minutes
+   * @return the start time of the slot, null if there is no such time
+   * @throws IllegalArgumentException if the duration is not positive
+   */
+  ITime findFreeSlot(Collection<String> userNames, int durationMinutes);
+
+  /**
+   * Retrieves the event with the given ID.
+   *
+   * @param eventId ID of the event
+   * @return the event with that ID
+   * @throws IllegalArgumentException if no event in the planner has that ID
+   */
+  IEvent getEvent(long eventId);
+
 }
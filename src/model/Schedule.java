@@ -1,20 +1,236 @@
 package model;
 
+import java.io.IOException;
+import java.util.AbstractList;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * Represents a schedule in the planner system.
+ *
+ * <p> Events are kept in the order they were added, alongside two interval trees ordered by
+ * start time so that overlapping events can be found without looking at every event. The
+ * timeline splits an event going into the following week at the end of the week, so it
+ * also covers the start of this week. The conflict tree compares the start and end times
+ * exactly the way {@link IEvent#overlappingEvents(IEvent)} does. </p>
+ *
+ * <p> A bitmap of the busy minutes of the week is kept up to date with the timeline, so
+ * checking whether the user is free at a time or over a period rarely needs the trees. </p>
+ *
+ * <p> The events, trees and bitmap of a schedule are never changed in place. Each change
+ * builds a new version of them, sharing what it can with the current one, and swaps it in
+ * with a single atomic step. Reading a schedule never waits for a change and always sees one
+ * whole version, so the list from {@link #getEvents()} can be iterated while the schedule is
+ * being changed. </p>
  */
 public class Schedule implements ISchedule {
-  private final ArrayList<IEvent> events;
+  private final AtomicReference<Version> current;
 
+  /**
+   * Everything known about the schedule at one point in time. A version is never changed
+   * once it is published, so it can be read from any thread.
+   *
+   * <p> The events are stored at the start of an array that later versions may share, each
+   * version only looking at its own number of events. Adding events to the newest version
+   * fills in the free slots after its events instead of copying the array, unless another
+   * version already took those slots. </p>
+   */
+  public static final class Version {
+    // the schedule without any events
+    private static final Version EMPTY = new Version(new IEvent[0], 0, new AtomicInteger(),
+            EventIntervalTree.EMPTY, EventIntervalTree.EMPTY, new OccupancyBitmap());
+
+    private final IEvent[] slots;
+    private final int size;
+    // how many slots of the array are taken, by this version or a later one
+    private final AtomicInteger taken;
+    private final List<IEvent> events;
+    private final EventIntervalTree timeline;
+    private final EventIntervalTree conflicts;
+    private final OccupancyBitmap busy;
+
+    private Version(IEvent[] slots, int size, AtomicInteger taken, EventIntervalTree timeline,
+                    EventIntervalTree conflicts, OccupancyBitmap busy) {
+      this.slots = slots;
+      this.size = size;
+      this.taken = taken;
+      this.events = new EventsView(slots, size);
+      this.timeline = timeline;
+      this.conflicts = conflicts;
+      this.busy = busy;
+    }
+
+    /**
+     * Observes the events in this version of the schedule.
+     *
+     * @return the events, in the order they were added
+     */
+    public List<IEvent> getEvents() {
+      return this.events;
+    }
+
+    /**
+     * Creating an association between day of the week and the events in this version
+     * starting that day.
+     *
+     * @return a HashMap relating each day of the week to a list of events
+     */
+    public HashMap<Time.Day, List<IEvent>> dayToEventsMappping() {
+      HashMap<Time.Day, List<IEvent>> dayToEvent = new LinkedHashMap<>();
+      dayToEvent.put(Time.Day.SUNDAY, new ArrayList<>());
+      dayToEvent.put(Time.Day.MONDAY, new ArrayList<>());
+      dayToEvent.put(Time.Day.TUESDAY, new ArrayList<>());
+      dayToEvent.put(Time.Day.WEDNESDAY, new ArrayList<>());
+      dayToEvent.put(Time.Day.THURSDAY, new ArrayList<>());
+      dayToEvent.put(Time.Day.FRIDAY, new ArrayList<>());
+      dayToEvent.put(Time.Day.SATURDAY, new ArrayList<>());
+
+      for (IEvent eventToSchedule: this.events) {
+        dayToEvent.get(eventToSchedule.getStartTime().getDate()).add(eventToSchedule);
+      }
+      return dayToEvent;
+    }
+
+    /**
+     * Builds the version with the given events added after the ones already in it, without
+     * checking them for overlaps.
+     *
+     * @param added events to add
+     * @return the new version
+     */
+    private Version adding(List<IEvent> added) {
+      int newSize = this.size + added.size();
+      IEvent[] newSlots = this.slots;
+      AtomicInteger newTaken = this.taken;
+      if (newSize > newSlots.length || !newTaken.compareAndSet(this.size, newSize)) {
+        newSlots = Arrays.copyOf(this.slots, Math.max(newSize, 2 * this.size + 8));
+        newTaken = new AtomicInteger(newSize);
+      }
+      EventIntervalTree newTimeline = this.timeline;
+      EventIntervalTree newConflicts = this.conflicts;
+      OccupancyBitmap newBusy = this.busy.copy();
+      int slot = this.size;
+      for (IEvent event : added) {
+        newSlots[slot++] = event;
+        int start = event.getStartTime().minuteOfWeek();
+        int end = event.getEndTime().minuteOfWeek();
+        newConflicts = newConflicts.insert(start, end, event);
+        if (start < end) {
+          newTimeline = newTimeline.insert(start, end, event);
+        }
+        else {
+          // event goes to following week, so splitting it at the end of this week
+          newTimeline = newTimeline.insert(start, Time.MINUTES_PER_WEEK, event);
+          if (end > 0) {
+            newTimeline = newTimeline.insert(0, end, event);
+          }
+        }
+        newBusy.setSpan(start, end);
+      }
+      return new Version(newSlots, newSize, newTaken, newTimeline, newConflicts, newBusy);
+    }
+
+    /**
+     * Builds the version without the events equal to the given event. Its minutes are freed
+     * up, except for the ones still taken up by other events.
+     *
+     * @param removed event to remove
+     * @return the new version, or this one if it has no such event
+     */
+    private Version removing(IEvent removed) {
+      List<IEvent> newEvents = new ArrayList<>(this.events);
+      if (!newEvents.removeIf(thisEvent -> thisEvent.equals(removed))) {
+        return this;
+      }
+      IEvent[] newSlots = newEvents.toArray(new IEvent[0]);
+      int start = removed.getStartTime().minuteOfWeek();
+      int end = removed.getEndTime().minuteOfWeek();
+      EventIntervalTree newConflicts = this.conflicts.remove(start, removed);
+      EventIntervalTree newTimeline = this.timeline.remove(start, removed);
+      OccupancyBitmap newBusy = this.busy.copy();
+      if (start < end) {
+        releaseBusy(newBusy, newTimeline, start, end);
+      }
+      else {
+        if (end > 0) {
+          newTimeline = newTimeline.remove(0, removed);
+        }
+        releaseBusy(newBusy, newTimeline, start, Time.MINUTES_PER_WEEK);
+        releaseBusy(newBusy, newTimeline, 0, end);
+      }
+      return new Version(newSlots, newSlots.length, new AtomicInteger(newSlots.length),
+              newTimeline, newConflicts, newBusy);
+    }
 
+    /**
+     * Determines whether every minute from start up to end is free, going into the following
+     * week if the end is before the start.
+     *
+     * @param start first minute of the week to check
+     * @param end minute of the week the period ends at
+     * @return true if no event takes up any of those minutes
+     */
+    private boolean isFree(int start, int end) {
+      if (start < end) {
+        return !this.busy.anySet(start, end);
+      }
+      return !this.busy.anySet(start, Time.MINUTES_PER_WEEK)
+              && !this.busy.anySet(0, end);
+    }
+
+    /**
+     * Determines whether an event from start up to end can't be added, because it overlaps
+     * another event.
+     *
+     * @param start first minute of the week the event takes up
+     * @param end minute of the week the event ends at
+     * @return true if the event overlaps another one
+     */
+    private boolean clashes(int start, int end) {
+      // an event overlapping another one always takes up a busy minute, so only the events
+      // that might conflict need to go through the conflict tree
+      return !this.isFree(start, end) && this.conflicts.overlapsAny(start, end);
+    }
+  }
+
+  /**
+   * Read-only list of the first events in an array shared between versions.
+   */
+  private static final class EventsView extends AbstractList<IEvent> implements RandomAccess {
+    private final IEvent[] slots;
+    private final int size;
+
+    private EventsView(IEvent[] slots, int size) {
+      this.slots = slots;
+      this.size = size;
+    }
+
+    @Override
+    public IEvent get(int index) {
+      Objects.checkIndex(index, this.size);
+      return this.slots[index];
+    }
+
+    @Override
+    public int size() {
+      return this.size;
+    }
+  }
+
+  /**
+   * Creates a schedule holding the given events.
+   *
+   * @param events events already in this schedule
+   */
   public Schedule(ArrayList<IEvent> events) {
-    this.events = Objects.requireNonNull(events);
+    this.current = new AtomicReference<>(Version.EMPTY.adding(Objects.requireNonNull(events)));
   }
 
   /**
@@ -26,18 +242,91 @@ public class Schedule implements ISchedule {
    */
 
   public void addEvent(IEvent event) {
-    int countOverlapping = 0;
-    for (IEvent existingEvent: this.events) {
-      if (existingEvent.overlappingEvents(event)) {
-        countOverlapping++;
+    int start = event.getStartTime().minuteOfWeek();
+    int end = event.getEndTime().minuteOfWeek();
+    Version prev;
+    Version next;
+    do {
+      prev = this.current.get();
+      if (prev.clashes(start, end)) {
+        throw new IllegalArgumentException("Event coincides with another event");
+      }
+      next = prev.adding(List.of(event));
+    } while (!this.current.compareAndSet(prev, next));
+  }
+
+  /**
+   * Finds which of the given events could be added to this schedule, without adding any.
+   * The events are checked in one pass, each against the events already in this schedule and
+   * the given events found to fit before it, by the same rule as {@link #addEvent(IEvent)}.
+   *
+   * @param candidates events to check, ordered by start time
+   * @return whether each event fits, in the same order
+   */
+  boolean[] fitting(List<IEvent> candidates) {
+    Version version = this.current.get();
+    boolean[] fits = new boolean[candidates.size()];
+    EventIntervalTree accepted = EventIntervalTree.EMPTY;
+    for (int idx = 0; idx < fits.length; idx++) {
+      IEvent candidate = candidates.get(idx);
+      int start = candidate.getStartTime().minuteOfWeek();
+      int end = candidate.getEndTime().minuteOfWeek();
+      fits[idx] = !version.clashes(start, end) && !accepted.overlapsAny(start, end);
+      if (fits[idx]) {
+        accepted = accepted.insert(start, end, candidate);
       }
     }
-    if (countOverlapping != 0) {
-      throw new IllegalArgumentException("Event coincides with another event");
-    }
-    else {
-      this.events.add(event);
+    return fits;
+  }
+
+  /**
+   * Finds the events in this schedule that would stop the given event from being added, by
+   * the same rule as {@link #addEvent(IEvent)}, as if the replaced event were not in it.
+   *
+   * @param event event to check
+   * @param replaced event the given event would replace, null if it replaces none
+   * @return the events in the way, ordered by start time
+   */
+  List<IEvent> conflictsWith(IEvent event, IEvent replaced) {
+    Version version = this.current.get();
+    int start = event.getStartTime().minuteOfWeek();
+    int end = event.getEndTime().minuteOfWeek();
+    if (version.isFree(start, end)) {
+      return new ArrayList<>();
     }
+    List<IEvent> found = version.conflicts.overlapping(start, end);
+    found.removeIf(existing -> existing.equals(replaced));
+    return found;
+  }
+
+  /**
+   * Adds events already found to fit by {@link #fitting(List)}, without checking them again.
+   *
+   * @param checked events that fit together in this schedule
+   */
+  void addChecked(List<IEvent> checked) {
+    Version prev;
+    Version next;
+    do {
+      prev = this.current.get();
+      next = prev.adding(checked);
+    } while (!this.current.compareAndSet(prev, next));
+  }
+
+  /**
+   * Puts the given event in place of the equal event in this schedule, e.g. a copy of it with
+   * an ID. Does nothing if no event in this schedule is equal to it.
+   *
+   * @param event event to put in place of the equal one
+   */
+  void replace(IEvent event) {
+    Version prev;
+    Version next;
+    do {
+      prev = this.current.get();
+      Version without = prev.removing(event);
+      next = without == prev ? prev : without.adding(List.of(event));
+    } while (next != prev && !this.current.compareAndSet(prev, next));
   }
 
   /**
@@ -48,7 +337,33 @@ public class Schedule implements ISchedule {
    */
 
   public void removeEvent(IEvent otherEvent) {
-    this.events.removeIf(thisEvent -> thisEvent.equals(otherEvent));
+    Version prev;
+    Version next;
+    do {
+      prev = this.current.get();
+      next = prev.removing(otherEvent);
+    } while (next != prev && !this.current.compareAndSet(prev, next));
+  }
+
+  /**
+   * Frees up the minutes in [lo, hi) of the given bitmap and marks the events still in the
+   * timeline over that range as busy again.
+   *
+   * @param busy bitmap to free the minutes in
+   * @param timeline the events still in the schedule
+   * @param lo first minute of the range
+   * @param hi minute the range ends at
+   */
+  private static void releaseBusy(OccupancyBitmap busy, EventIntervalTree timeline,
+                                  int lo, int hi) {
+    if (lo >= hi) {
+      return;
+    }
+    busy.clear(lo, hi);
+    for (IEvent remaining : timeline.overlapping(lo, hi)) {
+      busy.setSpan(remaining.getStartTime().minuteOfWeek(),
+              remaining.getEndTime().minuteOfWeek());
+    }
   }
 
   /**
@@ -57,7 +372,7 @@ public class Schedule implements ISchedule {
    * @return the list of the schedule's events.
    */
   public List<IEvent> getEvents() {
-    return this.events;
+    return this.current.get().events;
   }
 
   /**
@@ -66,19 +381,7 @@ public class Schedule implements ISchedule {
    * @return a HashMap relating each day of the week to a list of events
    */
   public HashMap<Time.Day, List<IEvent>> dayToEventsMappping() {
-    HashMap<Time.Day, List<IEvent>> dayToEvent = new LinkedHashMap<>();
-    dayToEvent.put(Time.Day.SUNDAY, new ArrayList<>());
-    dayToEvent.put(Time.Day.MONDAY, new ArrayList<>());
-    dayToEvent.put(Time.Day.TUESDAY, new ArrayList<>());
-    dayToEvent.put(Time.Day.WEDNESDAY, new ArrayList<>());
-    dayToEvent.put(Time.Day.THURSDAY, new ArrayList<>());
-    dayToEvent.put(Time.Day.FRIDAY, new ArrayList<>());
-    dayToEvent.put(Time.Day.SATURDAY, new ArrayList<>());
-
-    for (IEvent eventToSchedule: this.events) {
-      dayToEvent.get(eventToSchedule.getStartTime().getDate()).add(eventToSchedule);
-    }
-    return dayToEvent;
+    return this.current.get().dayToEventsMappping();
   }
 
   /**
@@ -88,31 +391,119 @@ public class Schedule implements ISchedule {
    */
   public String scheduleToXMLFormat() {
     StringBuilder scheduleXML = new StringBuilder();
-    for (IEvent event: this.events) {
-      scheduleXML.append(event.eventToXMLFormat() + "\n");
+    try {
+      this.writeXML(scheduleXML);
+    } catch (IOException ex) {
+      // appending to a StringBuilder never fails
+      throw new IllegalStateException(ex);
     }
     return scheduleXML.toString();
   }
 
   /**
-   * Return the event occurring at a given time. Schedule can only have one event at any given time
+   * Writes the schedule in XML format straight to the given output, one event at a time,
+   * without building the whole schedule as a String first.
+   *
+   * @param out where to write the XML
+   * @throws IOException if writing to the output fails
+   */
+  public void writeXML(Appendable out) throws IOException {
+    for (IEvent event: this.current.get().events) {
+      out.append(event.eventToXMLFormat()).append('\n');
+    }
+  }
+
+  /**
+   * Observes the current version of this schedule, which later changes leave as it is.
+   *
+   * @return the current version
+   */
+  Version version() {
+    return this.current.get();
+  }
+
+  /**
+   * Builds a version of a schedule holding the given events, without checking them for
+   * overlaps, e.g. to take a version of a schedule other than a {@link Schedule}.
+   *
+   * @param events events in the schedule
+   * @return the version holding those events
+   */
+  static Version versionOf(List<IEvent> events) {
+    return Version.EMPTY.adding(new ArrayList<>(events));
+  }
+
+  /**
+   * Marks every minute this schedule is busy as busy in the given bitmap.
+   *
+   * @param bitmap bitmap to mark the busy minutes in
+   */
+  void markBusyIn(OccupancyBitmap bitmap) {
+    bitmap.or(this.current.get().busy);
+  }
+
+  /**
+   * Return the event occurring at a given time. Schedule can only have one event at any given time.
+   * An event that goes into the following week is also occurring at the start of this week,
+   * up until its end time.
    * @param time the time to search for events occurring during
    * @return the event at the given time. returns null if no event is occurring
    */
   public IEvent eventOccurring(ITime time) {
+    Version version = this.current.get();
+    int minute = time.minuteOfWeek();
+    // an event is also occurring at its end time, which is the minute after its last busy one
+    if (!version.busy.isSet(minute) && !version.busy.isSet(minute - 1)) {
+      return null;
+    }
+    return version.timeline.eventAt(minute);
+  }
 
-    for (IEvent event: this.events) {
-      ITime tempEndTime = event.getEndTime();
-      // event goes to following week, so artificially ending at end of this week
-      if (event.getStartTime().compareTimes(event.getEndTime()) >= 0) {
-        tempEndTime = new Time(Time.Day.SATURDAY, 23, 59);
-      }
-      if (event.getStartTime().compareTimes(time) <= 0
-              && tempEndTime.compareTimes(time) >= 0) {
-        return event;
+  /**
+   * Determines whether an event is taking up the given time. Unlike
+   * {@link #eventOccurring(ITime)}, an event is not taking up the minute it ends at.
+   *
+   * @param time time to check
+   * @return true if the schedule is busy at that time
+   */
+  public boolean isBusyAt(ITime time) {
+    return this.current.get().busy.isSet(time.minuteOfWeek());
+  }
+
+  /**
+   * Determines whether no event takes up any time from the start time up to the end time.
+   * If the end time is before the start time, the period goes into the following week.
+   *
+   * @param start start of the period
+   * @param end end of the period, exclusive
+   * @return true if the whole period is free
+   */
+  public boolean isFree(ITime start, ITime end) {
+    return this.current.get().isFree(start.minuteOfWeek(), end.minuteOfWeek());
+  }
+
+  /**
+   * Finds the events overlapping the period from the start time up to the end time.
+   * If the end time is before the start time, the period goes into the following week.
+   *
+   * @param start start of the period
+   * @param end end of the period, exclusive
+   * @return the overlapping events, ordered by start time
+   */
+  public List<IEvent> eventsOverlapping(ITime start, ITime end) {
+    EventIntervalTree timeline = this.current.get().timeline;
+    int startMinute = start.minuteOfWeek();
+    int endMinute = end.minuteOfWeek();
+    if (startMinute < endMinute) {
+      return timeline.overlapping(startMinute, endMinute);
+    }
+    List<IEvent> overlapping = timeline.overlapping(startMinute, Time.MINUTES_PER_WEEK);
+    for (IEvent event : timeline.overlapping(0, endMinute)) {
+      if (!overlapping.contains(event)) {
+        overlapping.add(event);
       }
     }
-    return null;
+    return overlapping;
   }
 
 }
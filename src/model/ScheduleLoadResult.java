@@ -0,0 +1,95 @@
+package model;
+
+/**
+ * Outcome of loading a single user's schedule XML file into the planner system, as reported
+ * by {@link PlannerSystem#loadSchedules(String)}. Records which user the file belonged to,
+ * how many of its events were loaded and how long the file took, or why it failed.
+ */
+public class ScheduleLoadResult {
+  private final String filePath;
+  private final String userName;
+  private final int eventCount;
+  private final long elapsedNanos;
+  private final String failure;
+
+  /**
+   * Creates the outcome of loading a file.
+   *
+   * @param filePath path of the file
+   * @param userName name of the user the schedule belongs to, null if the file failed
+   * @param eventCount number of events loaded from the file
+   * @param elapsedNanos time taken to read the file, in nanoseconds
+   * @param failure why the file failed, null if it was loaded
+   */
+  public ScheduleLoadResult(String filePath, String userName, int eventCount,
+                            long elapsedNanos, String failure) {
+    this.filePath = filePath;
+    this.userName = userName;
+    this.eventCount = eventCount;
+    this.elapsedNanos = elapsedNanos;
+    this.failure = failure;
+  }
+
+  /**
+   * Observes the path of the file.
+   *
+   * @return the file path
+   */
+  public String getFilePath() {
+    return this.filePath;
+  }
+
+  /**
+   * Observes the name of the user the schedule belongs to.
+   *
+   * @return the user's name, null if the file failed
+   */
+  public String getUserName() {
+    return this.userName;
+  }
+
+  /**
+   * Observes how many events were loaded from the file.
+   *
+   * @return number of events loaded
+   */
+  public int getEventCount() {
+    return this.eventCount;
+  }
+
+  /**
+   * Observes how long it took to read the file.
+   *
+   * @return the time taken, in nanoseconds
+   */
+  public long getElapsedNanos() {
+    return this.elapsedNanos;
+  }
+
+  /**
+   * Observes why the file failed to load.
+   *
+   * @return description of the failure, null if the file was loaded
+   */
+  public String getFailure() {
+    return this.failure;
+  }
+
+  /**
+   * Determines whether the file was loaded into the planner.
+   *
+   * @return true if the file was loaded
+   */
+  public boolean succeeded() {
+    return this.failure == null;
+  }
+
+  @Override
+  public String toString() {
+    String took = String.format("%.3f ms", this.elapsedNanos / 1_000_000.0);
+    if (this.succeeded()) {
+      return this.filePath + ": " + this.userName + ", " + this.eventCount + " events in " + took;
+    }
+    return this.filePath + ": failed after " + took + " (" + this.failure + ")";
+  }
+}
@@ -1,7 +1,5 @@
 package model;
 
-import java.util.List;
-
 /**
  * Represents a time, which includes a day of the week and the time up to minute granularity.
  * The day of the week is relative to this current week and is not associated with a specific
@@ -10,8 +8,35 @@ import java.util.List;
  */
 public class Time implements ITime {
 
-  private final int hours;
-  private final int minutes;
+  /**
+   * Number of minutes in a week, i.e. the number of distinct times.
+   */
+  public static final int MINUTES_PER_WEEK = 7 * 24 * 60;
+
+  private static final int MINUTES_PER_DAY = 24 * 60;
+  private static final Day[] DAYS = Day.values();
+  // every possible time, indexed by its minute of the week, shared by the static factories,
+  // ending with Saturday @24:00
+  private static final Time[] CANONICAL = new Time[MINUTES_PER_WEEK + 1];
+
+  // 24:00 of each day, the same minute as 00:00 of the following day but still on this day,
+  // ending with Saturday @24:00
+  private static final Time[] END_OF_DAY = new Time[DAYS.length];
+
+  static {
+    for (int minute = 0; minute <= MINUTES_PER_WEEK; minute++) {
+      CANONICAL[minute] = new Time(minute, DAYS[Math.min(minute / MINUTES_PER_DAY,
+              DAYS.length - 1)]);
+    }
+    for (int dayIdx = 0; dayIdx < DAYS.length - 1; dayIdx++) {
+      END_OF_DAY[dayIdx] = new Time((dayIdx + 1) * MINUTES_PER_DAY, DAYS[dayIdx]);
+    }
+    END_OF_DAY[DAYS.length - 1] = CANONICAL[MINUTES_PER_WEEK];
+  }
+
+  // minutes since Sunday @00:00, MINUTES_PER_WEEK for Saturday @24:00
+  private final int minuteOfWeek;
+  // day the time is on, the day before the minute's own day for 24:00
   private final Day date;
 
   /**
@@ -46,22 +71,76 @@ public class Time implements ITime {
   }
 
   /**
-   * Creates a Time object.
+   * Creates a Time object. Prefer {@link #of(Day, int, int)}, which reuses an existing instance.
+   * 24:00 is the end of the given day. It stays on that day, but is the same minute of the week
+   * as 00:00 of the following day, so the two times are equal. On Saturday it is the end of
+   * the week. Hour 24 only goes with minute 0.
    * @param date date of this Time
    * @param hours hours of this Time in 24 hour time (0-24)
    * @param minutes minutes of this Time
    */
   public Time(Day date, int hours, int minutes) {
+    this(of(date, hours, minutes));
+  }
+
+  private Time(Time time) {
+    this(time.minuteOfWeek, time.date);
+  }
+
+  private Time(int minuteOfWeek, Day date) {
+    this.minuteOfWeek = minuteOfWeek;
+    this.date = date;
+  }
+
+  /**
+   * Gets the time at the given day, hours and minutes. All times are created up front, so
+   * this never makes a new object.
+   * @param date date of the time
+   * @param hours hours of the time in 24 hour time (0-24)
+   * @param minutes minutes of the time
+   * @return the time
+   * @throws IllegalArgumentException if the hours or minutes are out of range
+   */
+  public static Time of(Day date, int hours, int minutes) {
+    int minuteOfWeek = toMinuteOfWeek(date, hours, minutes);
+    return hours == 24 ? END_OF_DAY[date.getDayIdx()] : CANONICAL[minuteOfWeek];
+  }
+
+  /**
+   * Gets the time at the given minute of the week, Sunday @00:00 being minute 0 and
+   * Saturday @24:00, the end of the week, being {@link #MINUTES_PER_WEEK}.
+   * @param minuteOfWeek minutes since the start of the week
+   * @return the time
+   * @throws IllegalArgumentException if the minute is not within a week
+   */
+  public static Time ofMinuteOfWeek(int minuteOfWeek) {
+    if (minuteOfWeek < 0 || minuteOfWeek > MINUTES_PER_WEEK) {
+      throw new IllegalArgumentException("Invalid time");
+    }
+    return CANONICAL[minuteOfWeek];
+  }
+
+  /**
+   * Validates the given day and time and packs them into a single minute of the week.
+   * @param date day of the week
+   * @param hours hours in 24 hour time (0-24)
+   * @param minutes minutes
+   * @return minutes since the start of the week
+   * @throws IllegalArgumentException if the hours or minutes are out of range, or the hour is
+   *                                  24 and the minutes are not 0
+   */
+  private static int toMinuteOfWeek(Day date, int hours, int minutes) {
     if (hours < 0 || hours > 24) {
       throw new IllegalArgumentException("Invalid time");
     }
     if (minutes < 0 || minutes > 59) {
       throw new IllegalArgumentException("Invalid time");
     }
-
-    this.hours = hours;
-    this.minutes = minutes;
-    this.date = date;
+    // 24:00 ends the day, there is nothing after it on the same day
+    if (hours == 24 && minutes > 0) {
+      throw new IllegalArgumentException("Invalid time");
+    }
+    return date.getDayIdx() * MINUTES_PER_DAY + hours * 60 + minutes;
   }
 
   /**
@@ -69,7 +148,7 @@ public class Time implements ITime {
    * @return this Time's hours.
    */
   public int getHours() {
-    return this.hours;
+    return this.minutesSinceMidnight() / 60;
   }
 
   /**
@@ -77,7 +156,7 @@ public class Time implements ITime {
    * @return this Time's minutes.
    */
   public int getMinutes() {
-    return this.minutes;
+    return this.minuteOfWeek % 60;
   }
 
   /**
@@ -87,7 +166,16 @@ public class Time implements ITime {
    * @return # of minutes since midnight until beginning of event
    */
   public int minutesSinceMidnight() {
-    return 60 * this.getHours() + this.getMinutes();
+    return this.minuteOfWeek - this.date.getDayIdx() * MINUTES_PER_DAY;
+  }
+
+  /**
+   * Calculates the # of minutes since the start of the week (Sunday @00:00).
+   *
+   * @return # of minutes since the start of the week
+   */
+  public int minuteOfWeek() {
+    return this.minuteOfWeek;
   }
 
   /**
@@ -106,23 +194,29 @@ public class Time implements ITime {
    *         1 if this time comes after that time
    */
   public int compareTimes(ITime refTime) {
-    if (this.date.dayIdx < refTime.getDate().dayIdx) {
-      return -1;
-    }
-    else if (this.date.dayIdx > refTime.getDate().dayIdx) {
-      return 1;
-    }
-    else { // same day
-      if (this.hours < refTime.getHours()) {
-        return -1;
-      }
-      else if (this.hours > refTime.getHours()) {
-        return 1;
-      }
-      else { // same day + hour, so comparing minutes
-        return Integer.compare(this.minutes, refTime.getMinutes());
-      }
+    return Integer.compare(this.minuteOfWeek, refTime.minuteOfWeek());
+  }
+
+  /**
+   * Two times are equal if they fall on the same minute of the week.
+   * @param other object to compare to
+   * @return true if the other object is the same time
+   */
+  @Override
+  public boolean equals(Object other) {
+    if (!(other instanceof Time)) {
+      return false;
     }
+    return this.minuteOfWeek == ((Time) other).minuteOfWeek;
+  }
+
+  /**
+   * Equals method was overriden, so overriding hashCode as well.
+   * @return the minute of the week of this time
+   */
+  @Override
+  public int hashCode() {
+    return this.minuteOfWeek;
   }
 
   /**
@@ -135,30 +229,25 @@ public class Time implements ITime {
    *         ex. day does not exist, or time isn't in proper format
    */
   public static Time stringToTime(String day, String time) {
-    List<String> daysofTheWeek =
-            List.of("monday", "tuesday", "wednesday", "thursday", "friday", "saturday", "sunday");
-    Day tempDay = Day.SATURDAY;
-    int tempHours = 0;
-    int tempMin = 0;
+    Day tempDay = null;
     // throw exception if given day isn't in Day Enum
-    if (!daysofTheWeek.contains(day.toLowerCase())) {
-      throw new IllegalArgumentException("invalid day");
-    }
-
-    for (Day constDay : Day.values()) {
+    for (Day constDay : DAYS) {
       if (day.equalsIgnoreCase(constDay.getDayString())) {
         tempDay = constDay;
       }
     }
+    if (tempDay == null) {
+      throw new IllegalArgumentException("invalid day");
+    }
     if (time.length() != 4) {
       throw new IllegalArgumentException("invalid time input");
     }
 
-    tempHours = Integer.parseInt(time.charAt(0) + String.valueOf(time.charAt(1)));
-    tempMin = Integer.parseInt(time.charAt(2) + String.valueOf(time.charAt(3)));
+    int tempHours = Integer.parseInt(time, 0, 2, 10);
+    int tempMin = Integer.parseInt(time, 2, 4, 10);
 
     try {
-      return new Time(tempDay, tempHours, tempMin);
+      return of(tempDay, tempHours, tempMin);
     }
     catch (IllegalArgumentException e) {
       throw new IllegalArgumentException("invalid hours and/or minutes");
@@ -175,16 +264,14 @@ public class Time implements ITime {
    */
   public static Time indexToTime(int dayIndex, int totMinutes) {
     Day tempDay = Day.SUNDAY;
-    for (Day constDay : Day.values()) {
-      if (dayIndex == constDay.getDayIdx()) {
-        tempDay = constDay;
-      }
+    if (dayIndex >= 0 && dayIndex < DAYS.length) {
+      tempDay = DAYS[dayIndex];
     }
 
     int hours = totMinutes / 60;
     int minutes = totMinutes % 60;
 
-    return new Time(tempDay, hours, minutes);
+    return of(tempDay, hours, minutes);
   }
 
 }
\ No newline at end of file
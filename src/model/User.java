@@ -57,8 +57,7 @@ public class User implements IUser {
    * @param filePathToSave path to save the XML written by the user
    */
   public void userSchedToXML(String filePathToSave) {
-    writeToFile(filePathToSave + this.name + "_schedule.xml", this.name,
-            this.schedule.scheduleToXMLFormat());
+    writeToFile(filePathToSave + this.name + "_schedule.xml", this.name, this.schedule);
   }
 
   /**
@@ -206,6 +205,32 @@ public class User implements IUser {
     //return null;
   }
 
+  /**
+   * Two users are the same if they have the same name, as names are distinct
+   * in the planner system.
+   * @param other object to compare against
+   * @return true if the other object is a user with the same name
+   */
+  @Override
+  public boolean equals(Object other) {
+    if (this == other) {
+      return true;
+    }
+    if (!(other instanceof User)) {
+      return false;
+    }
+    return this.name.equals(((User) other).name);
+  }
+
+  /**
+   * Hash code of the user, based on their name.
+   * @return the hash code
+   */
+  @Override
+  public int hashCode() {
+    return this.name.hashCode();
+  }
+
   /**
    * Adds an event to a user's schedule.
    * @param event event to add
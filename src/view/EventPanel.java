@@ -22,9 +22,8 @@ import javax.swing.event.MouseInputAdapter;
 
 import controller.ViewFeatures;
 import model.IEvent;
+import model.ITime;
 import model.IUser;
-import model.NUPlanner;
-import model.PlannerSystem;
 import model.ReadOnlyPlanner;
 import model.Time;
 
@@ -49,8 +48,10 @@ public class EventPanel extends JPanel implements IEventView {
   private final JButton modifyEvent;
   private final JButton removeEvent;
   private final JButton saveEvent;
+  private final JButton findTime;
 
-  private IScheduleTextView textV;
+  // ID of the event shown in the panel, NO_ID when creating a new event
+  private long openedEventId;
 
 
   /**
@@ -73,6 +74,7 @@ public class EventPanel extends JPanel implements IEventView {
    */
   public EventPanel(ReadOnlyPlanner model) {
     this.model = Objects.requireNonNull(model);
+    this.openedEventId = IEvent.NO_ID;
     List<ViewFeatures> featuresListeners = new ArrayList<>();
 
     MouseListener listener = new MouseEventsListener();
@@ -155,8 +157,14 @@ public class EventPanel extends JPanel implements IEventView {
     modifyEvent.setVisible(true);
     removeEvent = new JButton("Remove Event");
     removeEvent.setVisible(true);
+    // nothing to modify or remove until an event is opened
+    modifyEvent.setEnabled(false);
+    removeEvent.setEnabled(false);
     saveEvent = new JButton("Create Event");
     saveEvent.setVisible(true);
+    findTime = new JButton("Find Time");
+    findTime.setVisible(true);
+    buttonPanel.add(findTime);
     buttonPanel.add(saveEvent);
     buttonPanel.add(modifyEvent);
     buttonPanel.add(removeEvent);
@@ -179,6 +187,7 @@ public class EventPanel extends JPanel implements IEventView {
    * @param event event to visualize in the event panel.
    */
   public void populateEventContents(IEvent event) {
+    this.setOpenedEvent(event.getId());
     eventName.setText(event.getEventName());
     startDay.setSelectedIndex(event.getStartTime().getDate().getDayIdx());
     startTime.setText(event.getStartTime().getHours()
@@ -195,12 +204,10 @@ public class EventPanel extends JPanel implements IEventView {
     }
 
     usersList.clearSelection();
-    for (IUser plannerUsers : model.getUsers()) {
-      for (int currIndex = 0; currIndex < event.getUsers().size(); currIndex++) {
-        String currUserName = event.getUsers().get(currIndex);
-        if (currUserName.equals(plannerUsers.getName())) {
-          usersList.addSelectionInterval(currIndex, currIndex);
-        }
+    for (int currIndex = 0; currIndex < event.getUsers().size(); currIndex++) {
+      String currUserName = event.getUsers().get(currIndex);
+      if (model.getUser(currUserName) != null) {
+        usersList.addSelectionInterval(currIndex, currIndex);
       }
     }
   }
@@ -266,6 +273,18 @@ public class EventPanel extends JPanel implements IEventView {
     return new Dimension(100, 100);
   }
 
+  /**
+   * Records which event is shown in the panel. The event can only be modified or removed
+   * if it is one the planner knows about.
+   *
+   * @param eventId ID of the event, NO_ID when creating a new event
+   */
+  private void setOpenedEvent(long eventId) {
+    openedEventId = eventId;
+    modifyEvent.setEnabled(eventId != IEvent.NO_ID);
+    removeEvent.setEnabled(eventId != IEvent.NO_ID);
+  }
+
   /**
    * Resets the panel to its originally empty fields. Useful for trying to create a new event
    * after an event has already been created.
@@ -273,6 +292,7 @@ public class EventPanel extends JPanel implements IEventView {
    * @param host host of the event
    */
   public void resetPanel(String host) {
+    this.setOpenedEvent(IEvent.NO_ID);
     eventName.setText("");
     startTime.setText("");
     endTime.setText("");
@@ -286,6 +306,20 @@ public class EventPanel extends JPanel implements IEventView {
     }
   }
 
+  /**
+   * Fills in the start and end of the event with the given times, in the same format the
+   * times are typed in.
+   *
+   * @param start start time to show
+   * @param end end time to show
+   */
+  public void fillTimes(ITime start, ITime end) {
+    startDay.setSelectedIndex(start.getDate().getDayIdx());
+    startTime.setText(String.format("%02d%02d", start.getHours(), start.getMinutes()));
+    endDay.setSelectedIndex(end.getDate().getDayIdx());
+    endTime.setText(String.format("%02d%02d", end.getHours(), end.getMinutes()));
+  }
+
   /**
    * Open the event view for the user to see.
    */
@@ -319,15 +353,18 @@ public class EventPanel extends JPanel implements IEventView {
    */
   @Override
   public void addFeatures(ViewFeatures features) {
+    findTime.addActionListener(evt -> features.findEventTime());
+
     saveEvent.addActionListener(evt -> features.createEvent());
     saveEvent.addActionListener(evt -> features.closeEventView());
     saveEvent.addActionListener(evt -> features.openScheduleView());
 
-    removeEvent.addActionListener(evt -> features.removeEvent(makeEvent(features.storeEvent())));
+    removeEvent.addActionListener(evt -> features.removeEvent(openedEventId));
     removeEvent.addActionListener(evt -> features.closeEventView());
     removeEvent.addActionListener(evt -> features.openScheduleView());
 
-    modifyEvent.addActionListener(evt -> features.modifyEvent(makeEvent(features.storeEvent())));
+    modifyEvent.addActionListener(evt ->
+            features.modifyEvent(openedEventId, makeEvent(features.storeEvent())));
     modifyEvent.addActionListener(evt -> features.closeEventView());
     modifyEvent.addActionListener(evt -> features.openScheduleView());
   }
@@ -357,37 +394,6 @@ public class EventPanel extends JPanel implements IEventView {
     return eventMap;
   }
 
-  /**
-   * Store the user's input as an event that is added to their schedule.
-   */
-  public void createEvent() {
-    PlannerSystem modelForTextView = new NUPlanner(model.getUsers());
-    IScheduleTextView textV = new ScheduleTextView(modelForTextView, new StringBuilder());
-    HashMap<String, String[]> eventMap = this.storeOpenedEventMap();
-    try {
-      IEvent eventMade = makeEvent(eventMap);
-      System.out.println("Create event: ");
-      System.out.println(textV.eventToString(eventMade));
-
-    } catch (NullPointerException | IllegalArgumentException ignored) {
-      System.out.println("Could not create event: "
-              + "Event info not fully entered, error in given values, "
-              + "or event already exists at that time");
-    }
-  }
-
-  /**
-   * Modify an event with the user's new input to the event panel.
-   *
-   * @param event represents the updated event
-   */
-  public void modifyEvent(IEvent event) {
-    PlannerSystem modelForTextView = new NUPlanner(model.getUsers());
-    IScheduleTextView textV = new ScheduleTextView(modelForTextView, new StringBuilder());
-    System.out.println("Modify event: ");
-    System.out.println(textV.eventToString(event));
-  }
-
   /**
    * Mouse Events Listener to implement methods relevant to a user's mouse click.
    */
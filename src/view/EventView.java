@@ -7,6 +7,7 @@ import javax.swing.JFrame;
 import controller.ViewFeatures;
 
 import model.IEvent;
+import model.ITime;
 
 import model.ReadOnlyPlanner;
 
@@ -31,14 +32,6 @@ public class EventView extends JFrame implements IEventView {
     this.pack();
   }
 
-  /**
-   * Store the user's input as an event that is added to their schedule.
-   * Delegate to the panel.
-   */
-  public void createEvent() {
-    panel.createEvent();
-  }
-
   /**
    * Set the event fields on the panel to the given event's fields.
    * Visualizes a user's entry for an event in the event panel text fields.
@@ -90,6 +83,17 @@ public class EventView extends JFrame implements IEventView {
     panel.resetPanel(host);
   }
 
+  /**
+   * Fills in the start and end of the event in the panel with the given times.
+   * Delegate to the panel.
+   *
+   * @param start start time to show
+   * @param end end time to show
+   */
+  public void fillTimes(ITime start, ITime end) {
+    panel.fillTimes(start, end);
+  }
+
   /**
    * Get the user's input for the event list of users.
    * Delegate to the panel.
@@ -112,16 +116,6 @@ public class EventView extends JFrame implements IEventView {
     return panel.storeOpenedEventMap();
   }
 
-  /**
-   * Modify an event with the user's new input to the event panel.
-   * Delegate to the panel.
-   *
-   * @param event represents the updated event
-   */
-  public void modifyEvent(IEvent event) {
-    panel.modifyEvent(event);
-  }
-
   /**
    * Allow the user to interact with the calendar through the features present
    * in the event view.
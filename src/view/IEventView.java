@@ -4,6 +4,7 @@ import java.util.HashMap;
 
 import controller.ViewFeatures;
 import model.IEvent;
+import model.ITime;
 
 /**
  * Frame for the event window.
@@ -53,12 +54,6 @@ public interface IEventView {
    */
   String[] getUsersInput();
 
-  /**
-   * Modify an event with the user's new input to the event panel.
-   * @param event represents the updated event
-   */
-  void modifyEvent(IEvent event);
-
   /**
    * Resets the panel to its originally empty fields. Useful for trying to create a new event
    * after an event has already been created.
@@ -67,6 +62,14 @@ public interface IEventView {
    */
   void resetPanel(String host);
 
+  /**
+   * Fills in the start and end of the event in the panel with the given times.
+   *
+   * @param start start time to show
+   * @param end end time to show
+   */
+  void fillTimes(ITime start, ITime end);
+
   /**
    * Resets the panel to its originally empty fields. Useful for trying to create a new event
    * after an event has already been created.
@@ -79,9 +82,4 @@ public interface IEventView {
    * @return a map of strings to string[]
    */
   HashMap<String, String[]> storeOpenedEventMap();
-
-  /**
-   * Store the user's input as an event that is added to their schedule.
-   */
-  void createEvent();
 }
@@ -72,8 +72,10 @@ public interface IScheduleView {
   /**
    * Allowing user to select a folder where they will export the user schedules.
    * Automatically starts in current directory.
+   *
+   * @return path of the selected folder ending in a separator, null if none was selected
    */
-  void saveCalendarInfo();
+  String saveCalendarInfo();
 
   /**
    * Finds the event that is occurring at the specified time. If two events start and end at the
@@ -42,6 +42,8 @@ import static model.Time.indexToTime;
 
 public class PlannerPanel extends JPanel implements IScheduleView {
 
+  private static final ITime END_OF_WEEK = Time.of(Time.Day.SATURDAY, 23, 59);
+
   private final ReadOnlyPlanner model;
   private IUser currentUser;
 
@@ -131,13 +133,8 @@ public class PlannerPanel extends JPanel implements IScheduleView {
    * Sets the current user to what is selected in the appropriate button in the schedule view.
    */
   public void setCurrentUser() {
-    this.currentUser = null;
-    for (IUser user : model.getUsers()) {
-      if (user.getName().equals(
-              Objects.requireNonNull(selectUserButton.getSelectedItem()).toString())) {
-        this.currentUser = user;
-      }
-    }
+    this.currentUser = model.getUser(
+            Objects.requireNonNull(selectUserButton.getSelectedItem()).toString());
   }
 
   /**
@@ -196,10 +193,9 @@ public class PlannerPanel extends JPanel implements IScheduleView {
   @Override
   public void openScheduleView() {
     try {
-      for (IUser user : model.getUsers()) {
-        if (user.getName().equals(currentUser.getName())) {
-          this.displayUserSchedule(user.getName());
-        }
+      IUser user = model.getUser(currentUser.getName());
+      if (user != null) {
+        this.displayUserSchedule(user.getName());
       }
     } catch (NullPointerException ignored) {
       this.paintGridLines(this.getGraphics());
@@ -263,7 +259,7 @@ public class PlannerPanel extends JPanel implements IScheduleView {
 
     scheduleEventButton.addActionListener(evt -> features.openEventView());
     scheduleEventButton.addActionListener(evt ->
-            features.resetPanelView(this.getCurrentUser().getName()));
+            features.scheduleEventView(this.getCurrentUser().getName()));
 
 
   }
@@ -295,14 +291,14 @@ public class PlannerPanel extends JPanel implements IScheduleView {
     } else {
       // event goes to next week, changing end time to Sunday @23:59
       if (eventEndCoords[0] < eventStartCoords[0]) {
-        endTime = new Time(Time.Day.SATURDAY, 23, 59);
+        endTime = END_OF_WEEK;
         int[] sunday2359 = this.timeToPaintLoc(endTime);
         eventEndCoords[0] = sunday2359[0];
         eventEndCoords[1] = sunday2359[1];
       }
 
       int endOfFirstDay =
-              (int) Math.round(this.minLoc(new Time(Time.Day.SATURDAY, 23, 59))
+              (int) Math.round(this.minLoc(END_OF_WEEK)
                       * this.getHeight()); // day doesn't matter, only time
       int rectHeightFirstDay = endOfFirstDay - eventStartCoords[1];
       g2d.fillRect(eventStartCoords[0], eventStartCoords[1], dayWidth, rectHeightFirstDay);
@@ -482,18 +478,22 @@ public class PlannerPanel extends JPanel implements IScheduleView {
   /**
    * Allowing user to select a folder where they will export the user schedules.
    * Automatically starts in current directory.
+   *
+   * @return path of the selected folder ending in a separator, null if none was selected
    */
   @Override
-  public void saveCalendarInfo() {
+  public String saveCalendarInfo() {
     JFileChooser chooser = new JFileChooser();
     chooser.setFileSelectionMode(JFileChooser.DIRECTORIES_ONLY);
     File workingDirectory = new File(System.getProperty("user.dir"));
     chooser.setCurrentDirectory(workingDirectory);
     int returnVal = chooser.showOpenDialog(saveCalendar);
     if (returnVal == JFileChooser.APPROVE_OPTION) {
-      System.out.println("Selected folder for saving each xml: "
-              + chooser.getCurrentDirectory() + "\\" + chooser.getSelectedFile().getName());
+      String folder = chooser.getSelectedFile().getPath() + File.separator;
+      System.out.println("Selected folder for saving each xml: " + folder);
+      return folder;
     }
+    return null;
   }
 
   /**
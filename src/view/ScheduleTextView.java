@@ -3,12 +3,14 @@ package view;
 import java.io.IOException;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import model.IEvent;
 import model.ISchedule;
 import model.ITime;
 import model.IUser;
 import model.PlannerSystem;
+import model.Schedule;
 import model.Time;
 
 /**
@@ -31,13 +33,16 @@ public class ScheduleTextView implements IScheduleTextView {
   }
 
   /**
-   * Generate a string text view of each user's schedule.
+   * Generate a string text view of each user's schedule. Every schedule is taken at the same
+   * point in time, so a change made while the view is generated is in all of them or none.
    * @return a string of every user's schedule
    */
   public String plannerSystemString() {
     StringBuilder planner = new StringBuilder();
-    for (IUser user: this.plannerSystem.getUsers()) {
-      planner.append(this.userToString(user) + "\n");
+    for (Map.Entry<IUser, Schedule.Version> entry
+            : this.plannerSystem.scheduleVersions().entrySet()) {
+      planner.append("User: " + entry.getKey().getName() + "\n"
+              + this.eventsMapToString(entry.getValue().dayToEventsMappping()) + "\n");
     }
     return planner.toString();
   }
@@ -57,8 +62,18 @@ public class ScheduleTextView implements IScheduleTextView {
    * @return a string representing the schedule
    */
   public String scheduleToString(ISchedule schedule) {
+    return this.eventsMapToString(schedule.dayToEventsMappping());
+  }
+
+  /**
+   * Lists the events of each day of the week, in the format of
+   * {@link #scheduleToString(ISchedule)}.
+   *
+   * @param eventsMap each day of the week -> the events starting that day
+   * @return a string representing the events
+   */
+  private String eventsMapToString(HashMap<Time.Day, List<IEvent>> eventsMap) {
     StringBuilder scheduleStr = new StringBuilder();
-    HashMap<Time.Day, List<IEvent>> eventsMap = schedule.dayToEventsMappping();
     for (Time.Day dayOfTheWeek: eventsMap.keySet()) {
       scheduleStr.append(dayOfTheWeek.getDayString() + ": " + "\n");
       for (IEvent eventsInMap: eventsMap.get(dayOfTheWeek)) {
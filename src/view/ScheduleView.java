@@ -86,11 +86,12 @@ public class ScheduleView extends JFrame implements IScheduleView {
   /**
    * Allowing user to select a folder where they will export the user schedules.
    * Automatically starts in current directory.
+   *
+   * @return path of the selected folder ending in a separator, null if none was selected
    */
   @Override
-  public void saveCalendarInfo() {
-    panel.saveCalendarInfo();
-
+  public String saveCalendarInfo() {
+    return panel.saveCalendarInfo();
   }
 
   /**
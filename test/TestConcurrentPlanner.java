@@ -0,0 +1,242 @@
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import model.ConcurrentPlanner;
+import model.Event;
+import model.IEvent;
+import model.IUser;
+import model.NUPlanner;
+import model.Schedule;
+import model.Time;
+import model.User;
+
+/**
+ * Class to test that a ConcurrentPlanner can be changed by many threads at once.
+ */
+public class TestConcurrentPlanner {
+  private static final int THREADS = 8;
+  private static final int USERS = 32;
+
+  private ConcurrentPlanner planner;
+
+  @Before
+  public void setUp() {
+    this.planner = new ConcurrentPlanner(new NUPlanner(), 4);
+    for (int idx = 0; idx < USERS; idx++) {
+      this.planner.addUser(new User("user" + idx, new Schedule(new ArrayList<>())));
+    }
+  }
+
+  /**
+   * Makes an hour long event on Monday, hosted by the first user and starting at the given hour.
+   *
+   * @param hour hour the event starts at
+   * @param invitees names of the invitees, host first
+   * @return the event
+   */
+  private static IEvent meeting(int hour, String... invitees) {
+    return new Event("meeting " + hour + " " + invitees[0],
+            new Time(Time.Day.MONDAY, hour, 0),
+            new Time(Time.Day.MONDAY, hour + 1, 0),
+            true,
+            "Zoom",
+            List.of(invitees));
+  }
+
+  /**
+   * Runs the given task on many threads at once, each given its own index, and waits for all
+   * of them.
+   *
+   * @param task task to run, taking the index of the thread running it
+   */
+  private static void runOnThreads(ThreadTask task) throws Exception {
+    ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+    try {
+      List<Future<?>> running = new ArrayList<>();
+      for (int thread = 0; thread < THREADS; thread++) {
+        int threadIdx = thread;
+        running.add(pool.submit(() -> {
+          task.run(threadIdx);
+          return null;
+        }));
+      }
+      for (Future<?> future : running) {
+        future.get();
+      }
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  /**
+   * Task run by each thread.
+   */
+  private interface ThreadTask {
+    void run(int threadIdx) throws Exception;
+  }
+
+  /**
+   * Test that events added by many threads for different pairs of users all end up in the
+   * schedules.
+   */
+  @Test
+  public void testDisjointChanges() throws Exception {
+    runOnThreads(thread -> {
+      for (int idx = thread; idx < USERS; idx += THREADS) {
+        String host = "user" + idx;
+        String guest = "user" + ((idx + 1) % USERS);
+        for (int hour = 0; hour < 20; hour += 2) {
+          this.planner.addEventForRelevantUsers(meeting(hour + idx % 2, host, guest));
+        }
+      }
+    });
+    for (IUser user : this.planner.getUsers()) {
+      Assert.assertEquals(20, this.planner.retrieveUserEvents(user).size());
+    }
+  }
+
+  /**
+   * Test that overlapping events added by many threads to the same users are only added once,
+   * and that every change to an event goes to every schedule holding it.
+   */
+  @Test
+  public void testSharedUsers() throws Exception {
+    runOnThreads(thread -> {
+      for (int hour = 0; hour < 20; hour++) {
+        // every thread tries to take the same hours for the first three users
+        this.planner.addEventForRelevantUsers(meeting(hour, "user" + thread % 3, "user0",
+                "user1", "user2"));
+      }
+    });
+    List<IEvent> events = this.planner.retrieveUserEvents(this.planner.getUser("user0"));
+    Assert.assertEquals(20, events.size());
+    Assert.assertEquals(events,
+            this.planner.retrieveUserEvents(this.planner.getUser("user2")));
+
+    runOnThreads(thread -> {
+      for (int idx = thread; idx < events.size(); idx += THREADS) {
+        IEvent event = events.get(idx);
+        if (idx % 2 == 0) {
+          this.planner.removeEventForRelevantUsers(event.getId(),
+                  this.planner.getUser(event.getUsers().get(0)));
+        }
+        else {
+          this.planner.modifyEvent(event.getId(), new Event("moved",
+                  event.getStartTime(), event.getEndTime(), false, "Room", event.getUsers()));
+        }
+      }
+    });
+    for (int idx = 0; idx < 3; idx++) {
+      List<IEvent> remaining =
+              this.planner.retrieveUserEvents(this.planner.getUser("user" + idx));
+      Assert.assertEquals(10, remaining.size());
+      for (IEvent event : remaining) {
+        Assert.assertEquals("moved", event.getEventName());
+        Assert.assertEquals(event, this.planner.getEvent(event.getId()));
+      }
+    }
+  }
+
+  /**
+   * Test that schedules read while they are being changed are always a whole version of the
+   * schedule, never one with an event half added.
+   */
+  @Test
+  public void testReadsWhileChanging() throws Exception {
+    IUser reader = this.planner.getUser("user0");
+    runOnThreads(thread -> {
+      if (thread % 2 == 0) {
+        for (int hour = thread / 2; hour < 20; hour += THREADS / 2) {
+          this.planner.addEventForRelevantUsers(meeting(hour, "user0", "user1"));
+        }
+        return;
+      }
+      int seen = 0;
+      for (int read = 0; read < 200; read++) {
+        List<IEvent> events = this.planner.retrieveUserEvents(reader);
+        Assert.assertTrue(events.size() >= seen);
+        seen = events.size();
+        for (IEvent event : events) {
+          Assert.assertEquals(event, this.planner.retrieveUserScheduleAtTime(reader,
+                  Time.ofMinuteOfWeek(event.getStartTime().minuteOfWeek() + 30)));
+        }
+      }
+    });
+    Assert.assertEquals(20, this.planner.retrieveUserEvents(reader).size());
+    Assert.assertEquals(List.of(Time.of(Time.Day.MONDAY, 20, 0)),
+            this.planner.findFreeSlots(List.of("user0", "user1"), 60,
+                    Time.of(Time.Day.MONDAY, 0, 0), Time.of(Time.Day.TUESDAY, 0, 0), 1));
+  }
+
+  /**
+   * Test that the whole planner read from one set of schedule versions, while events are being
+   * moved, holds every event for all of its invitees or for none of them.
+   */
+  @Test
+  public void testVersionsWhileModifying() throws Exception {
+    String[] invitees = {"user0", "user1", "user2", "user3"};
+    for (int hour = 0; hour < 20; hour += 2) {
+      this.planner.addEventForRelevantUsers(meeting(hour, invitees));
+    }
+    List<IEvent> events = this.planner.retrieveUserEvents(this.planner.getUser("user0"));
+    Map<IUser, Schedule.Version> before = this.planner.scheduleVersions();
+    runOnThreads(thread -> {
+      if (thread % 2 == 0) {
+        for (int round = 1; round <= 50; round++) {
+          for (int idx = thread / 2; idx < events.size(); idx += THREADS / 2) {
+            // moves the event between the two hours set aside for it
+            int hour = 2 * idx + round % 2;
+            this.planner.modifyEvent(events.get(idx).getId(), new Event("moved " + round,
+                    new Time(Time.Day.MONDAY, hour, 0), new Time(Time.Day.MONDAY, hour + 1, 0),
+                    true, "Zoom", List.of(invitees)));
+          }
+        }
+        return;
+      }
+      for (int read = 0; read < 200; read++) {
+        Map<IEvent, Set<String>> holders = new HashMap<>();
+        for (Map.Entry<IUser, Schedule.Version> entry
+                : this.planner.scheduleVersions().entrySet()) {
+          for (IEvent event : entry.getValue().getEvents()) {
+            holders.computeIfAbsent(event, held -> new HashSet<>())
+                    .add(entry.getKey().getName());
+          }
+        }
+        Assert.assertEquals(events.size(), holders.size());
+        for (Map.Entry<IEvent, Set<String>> entry : holders.entrySet()) {
+          Assert.assertEquals(Set.of(invitees), entry.getValue());
+        }
+      }
+    });
+    Map<IUser, Schedule.Version> after = this.planner.scheduleVersions();
+    Assert.assertEquals(USERS, after.size());
+    Assert.assertEquals(this.planner.retrieveUserEvents(this.planner.getUser("user3")),
+            after.get(this.planner.getUser("user3")).getEvents());
+    // the versions handed out before are not changed by later changes
+    Assert.assertEquals(events, before.get(this.planner.getUser("user0")).getEvents());
+  }
+
+  /**
+   * Test that the set of users handed out does not change as users are added.
+   */
+  @Test
+  public void testUsersSnapshot() {
+    Set<IUser> users = this.planner.getUsers();
+    this.planner.addUser(new User("late", new Schedule(new ArrayList<>())));
+    Assert.assertEquals(USERS, users.size());
+    Assert.assertEquals(USERS + 1, this.planner.getUsers().size());
+    Assert.assertThrows(IllegalArgumentException.class,
+        () -> new ConcurrentPlanner(new NUPlanner(), 0));
+  }
+}
@@ -4,8 +4,10 @@ import org.junit.Test;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashSet;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 
 import model.Event;
 import model.NUPlanner;
@@ -256,6 +258,29 @@ public class TestEvent {
     Assert.assertNotEquals(this.morningLec, this.afternoonLec);
   }
 
+  /**
+   * Test that equal events hash the same, regardless of the order of their invitees.
+   */
+  @Test
+  public void testHashCode() {
+    Event morningLecReordered = new Event("CS3500 Morning Lecture",
+            Time.of(Time.Day.TUESDAY, 9, 50),
+            Time.of(Time.Day.TUESDAY, 11, 30),
+            false,
+            "Churchill Hall 101",
+            List.of("Chat", "Prof. Lucia", "Student Anon", "Chat"));
+
+    Assert.assertEquals(this.morningLec, morningLecReordered);
+    Assert.assertEquals(this.morningLec.hashCode(), morningLecReordered.hashCode());
+    // order of the invitees is still kept for the host
+    Assert.assertEquals("Chat", morningLecReordered.getUsers().get(0));
+
+    Set<Event> events = new HashSet<>(List.of(this.morningLec, this.afternoonLec));
+    Assert.assertTrue(events.contains(morningLecReordered));
+    events.add(morningLecReordered);
+    Assert.assertEquals(2, events.size());
+  }
+
 
   /**
    * Test that an events fields can be correctly tagged for XML exports.
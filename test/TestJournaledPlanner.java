@@ -0,0 +1,234 @@
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+
+import model.Event;
+import model.IEvent;
+import model.IUser;
+import model.JournaledPlanner;
+import model.Schedule;
+import model.Time;
+import model.User;
+
+/**
+ * Class to test that changes made through a JournaledPlanner survive a restart.
+ */
+public class TestJournaledPlanner {
+  private String snapshotPath;
+  private String journalPath;
+  private IEvent morningLec;
+  private IEvent afternoonLec;
+
+  @Before
+  public void setUp() throws IOException {
+    Path directory = Files.createTempDirectory("journal");
+    this.snapshotPath = directory.resolve("planner.snapshot").toString();
+    this.journalPath = directory.resolve("planner.journal").toString();
+    this.morningLec = new Event("CS3500 Morning Lecture",
+            new Time(Time.Day.TUESDAY, 9, 50),
+            new Time(Time.Day.TUESDAY, 11, 30),
+            false,
+            "Churchill Hall 101",
+            new ArrayList<>(Arrays.asList("Prof. Lucia",
+                    "Student Anon",
+                    "Chat")));
+    this.afternoonLec = new Event("CS3500 Afternoon Lecture",
+            new Time(Time.Day.TUESDAY, 13, 35),
+            new Time(Time.Day.TUESDAY, 15, 15),
+            false,
+            "Churchill Hall 101",
+            new ArrayList<>(Arrays.asList("Prof. Lucia",
+                    "Chat")));
+  }
+
+  /**
+   * Makes changes to a new journaled planner, then restarts it.
+   *
+   * @return the restarted planner
+   */
+  private JournaledPlanner changeAndRestart() {
+    JournaledPlanner planner = JournaledPlanner.recover(this.snapshotPath, this.journalPath);
+    planner.addUser(new User("Prof. Lucia", new Schedule(new ArrayList<>())));
+    planner.addUser(new User("Student Anon", new Schedule(new ArrayList<>())));
+    planner.addUser(new User("Chat",
+            new Schedule(new ArrayList<>(List.of(this.afternoonLec)))));
+    planner.addEventForRelevantUsers(this.morningLec);
+    planner.addEventForRelevantUsers(this.afternoonLec);
+    IEvent movedLec = new Event("CS3500 Morning Lecture",
+            new Time(Time.Day.FRIDAY, 9, 50),
+            new Time(Time.Day.FRIDAY, 11, 30),
+            false,
+            "Churchill Hall 101",
+            new ArrayList<>(Arrays.asList("Prof. Lucia",
+                    "Student Anon",
+                    "Chat")));
+    long morningLecId = planner.retrieveUserScheduleAtTime(planner.getUser("Student Anon"),
+            this.morningLec.getStartTime()).getId();
+    planner.modifyEvent(morningLecId, movedLec);
+    planner.removeEventForRelevantUsers(movedLec, planner.getUser("Chat"));
+    planner.close();
+    return JournaledPlanner.recover(this.snapshotPath, this.journalPath);
+  }
+
+  /**
+   * Checks that the restarted planner has every change made before the restart.
+   *
+   * @param planner the restarted planner
+   */
+  private void assertChangesKept(JournaledPlanner planner) {
+    Assert.assertEquals(3, planner.getUsers().size());
+    IUser lucia = planner.getUser("Prof. Lucia");
+    IUser chat = planner.getUser("Chat");
+    Assert.assertEquals(2, lucia.getSchedule().getEvents().size());
+    Assert.assertEquals(this.afternoonLec, lucia.getSchedule().getEvents().get(0));
+    Assert.assertEquals(new Time(Time.Day.FRIDAY, 9, 50),
+            lucia.getSchedule().getEvents().get(1).getStartTime());
+    Assert.assertEquals(List.of(this.afternoonLec), chat.getSchedule().getEvents());
+    Assert.assertEquals(1, planner.getUser("Student Anon").getSchedule().getEvents().size());
+  }
+
+  /**
+   * Test that changes are replayed from the journal after a restart.
+   */
+  @Test
+  public void testReplayJournal() {
+    this.assertChangesKept(this.changeAndRestart());
+  }
+
+  /**
+   * Test that a checkpoint keeps every change and empties the journal.
+   */
+  @Test
+  public void testCheckpoint() throws IOException {
+    JournaledPlanner planner = this.changeAndRestart();
+    planner.checkpoint(this.snapshotPath);
+    Assert.assertEquals(0, Files.size(Path.of(this.journalPath)));
+    planner.close();
+    this.assertChangesKept(JournaledPlanner.recover(this.snapshotPath, this.journalPath));
+  }
+
+  /**
+   * Test that a record only partly written when the program stopped is dropped.
+   */
+  @Test
+  public void testPartlyWrittenRecord() throws IOException {
+    this.changeAndRestart().close();
+    long length = Files.size(Path.of(this.journalPath));
+    Files.write(Path.of(this.journalPath), new byte[]{0, 0, 0, 40, 1, 2},
+            StandardOpenOption.APPEND);
+    JournaledPlanner planner = JournaledPlanner.recover(this.snapshotPath, this.journalPath);
+    this.assertChangesKept(planner);
+    Assert.assertEquals(length, Files.size(Path.of(this.journalPath)));
+  }
+
+  /**
+   * Test that events added in a batch are added for the same users after a restart.
+   */
+  @Test
+  public void testReplayBatch() {
+    JournaledPlanner planner = JournaledPlanner.recover(this.snapshotPath, this.journalPath);
+    planner.addUser(new User("Prof. Lucia", new Schedule(new ArrayList<>())));
+    planner.addUser(new User("Chat", new Schedule(new ArrayList<>())));
+    IEvent lateStart = new Event("late start", new Time(Time.Day.TUESDAY, 11, 0),
+            new Time(Time.Day.TUESDAY, 12, 0), true, "Zoom", List.of("Chat", "Prof. Lucia"));
+    planner.addEventsForRelevantUsers(List.of(lateStart, this.morningLec));
+    planner.close();
+
+    planner = JournaledPlanner.recover(this.snapshotPath, this.journalPath);
+    Assert.assertEquals(List.of(this.morningLec),
+            planner.getUser("Chat").getSchedule().getEvents());
+    Assert.assertEquals(List.of(this.morningLec),
+            planner.getUser("Prof. Lucia").getSchedule().getEvents());
+  }
+
+  /**
+   * Adds events for Prof. Lucia from several threads at once, each event overlapping the ones
+   * next to it, so which of two events gets in depends on the order they are added in.
+   *
+   * @param planner planner to add the events to
+   * @param checkpointPath where to take checkpoints while adding, null to take none
+   * @throws InterruptedException if interrupted while waiting for the threads
+   */
+  private static void addOverlappingEvents(JournaledPlanner planner, String checkpointPath)
+          throws InterruptedException {
+    List<Thread> threads = new ArrayList<>();
+    for (int threadIdx = 0; threadIdx < 4; threadIdx++) {
+      int first = threadIdx;
+      threads.add(new Thread(() -> {
+        for (int idx = first; idx < 200; idx += 4) {
+          int start = 30 * idx;
+          planner.addEventForRelevantUsers(new Event("event " + idx,
+                  Time.indexToTime(start / 1440, start % 1440),
+                  Time.indexToTime((start + 45) / 1440, (start + 45) % 1440),
+                  false, "Churchill Hall 101", List.of("Prof. Lucia")));
+          if (checkpointPath != null && idx % 25 == 0) {
+            planner.checkpoint(checkpointPath);
+          }
+        }
+      }));
+    }
+    for (Thread thread : threads) {
+      thread.start();
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+  }
+
+  /**
+   * Test that changes made from several threads at once are replayed in the order they were
+   * made, so the restarted planner keeps the same events.
+   */
+  @Test
+  public void testReplayConcurrentChanges() throws InterruptedException {
+    JournaledPlanner planner = JournaledPlanner.recover(this.snapshotPath, this.journalPath);
+    planner.addUser(new User("Prof. Lucia", new Schedule(new ArrayList<>())));
+    addOverlappingEvents(planner, null);
+    List<IEvent> kept = planner.getUser("Prof. Lucia").getSchedule().getEvents();
+    planner.close();
+
+    planner = JournaledPlanner.recover(this.snapshotPath, this.journalPath);
+    Assert.assertEquals(kept, planner.getUser("Prof. Lucia").getSchedule().getEvents());
+  }
+
+  /**
+   * Test that no change made while checkpoints are taken is left out of both the snapshot and
+   * the journal.
+   */
+  @Test
+  public void testCheckpointWhileChanging() throws InterruptedException {
+    JournaledPlanner planner = JournaledPlanner.recover(this.snapshotPath, this.journalPath);
+    planner.addUser(new User("Prof. Lucia", new Schedule(new ArrayList<>())));
+    addOverlappingEvents(planner, this.snapshotPath);
+    List<IEvent> kept = planner.getUser("Prof. Lucia").getSchedule().getEvents();
+    planner.close();
+
+    planner = JournaledPlanner.recover(this.snapshotPath, this.journalPath);
+    Assert.assertEquals(new HashSet<>(kept),
+            new HashSet<>(planner.getUser("Prof. Lucia").getSchedule().getEvents()));
+  }
+
+  /**
+   * Test that a record claiming to be longer than any record can be is taken as the end of the
+   * journal, instead of being read into memory.
+   */
+  @Test
+  public void testCorruptRecordLength() throws IOException {
+    this.changeAndRestart().close();
+    long length = Files.size(Path.of(this.journalPath));
+    Files.write(Path.of(this.journalPath), new byte[]{0x7F, -1, -1, -1, 1, 2, 3, 4},
+            StandardOpenOption.APPEND);
+    JournaledPlanner planner = JournaledPlanner.recover(this.snapshotPath, this.journalPath);
+    this.assertChangesKept(planner);
+    Assert.assertEquals(length, Files.size(Path.of(this.journalPath)));
+  }
+}
@@ -0,0 +1,125 @@
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import model.Event;
+import model.EventConflictException;
+import model.IEvent;
+import model.LatencyHistogram;
+import model.MetricsPlanner;
+import model.NUPlanner;
+import model.OperationMetrics;
+import model.Schedule;
+import model.Time;
+import model.User;
+
+/**
+ * Class to test that a MetricsPlanner counts the calls and failures of each operation.
+ */
+public class TestMetricsPlanner {
+  private MetricsPlanner planner;
+
+  @Before
+  public void setUp() {
+    this.planner = new MetricsPlanner(new NUPlanner());
+    this.planner.addUser(new User("Prof. Lucia", new Schedule(new ArrayList<>())));
+    this.planner.addUser(new User("Chat", new Schedule(new ArrayList<>())));
+  }
+
+  /**
+   * Makes an event on Tuesday.
+   *
+   * @param name name of the event
+   * @param startHour hour the event starts at
+   * @param invitees names of the invitees, host first
+   * @return an hour long event
+   */
+  private static IEvent event(String name, int startHour, String... invitees) {
+    return new Event(name, new Time(Time.Day.TUESDAY, startHour, 0),
+            new Time(Time.Day.TUESDAY, startHour + 1, 0), false, "Churchill Hall 101",
+            List.of(invitees));
+  }
+
+  /**
+   * Test that calls, thrown exceptions and invitees who could not take an event are counted.
+   */
+  @Test
+  public void testCounts() {
+    IEvent lecture = event("lecture", 9, "Prof. Lucia", "Chat");
+    this.planner.addEventForRelevantUsers(lecture);
+    // Chat is busy, so only Prof. Lucia gets office hours
+    this.planner.addEventForRelevantUsers(event("study", 12, "Chat"));
+    IEvent officeHours = event("office hours", 12, "Prof. Lucia", "Chat");
+    this.planner.addEventForRelevantUsers(officeHours);
+    long lectureId = this.planner.eventsHostedBy("Prof. Lucia").get(0).getId();
+    Assert.assertThrows(IllegalArgumentException.class, () -> this.planner.getEvent(-5));
+    Assert.assertThrows(EventConflictException.class,
+        () -> this.planner.modifyEvent(lectureId,
+                event("lecture", 12, "Prof. Lucia", "Chat")));
+    // leaving out the host leaves the event as it is
+    this.planner.modifyEvent(lectureId, event("lecture", 14, "Chat"));
+    Assert.assertEquals(lecture, this.planner.getEvent(lectureId));
+
+    Map<String, OperationMetrics> metrics = this.planner.getMetrics();
+    Assert.assertEquals(2, metrics.get("addUser").getCalls());
+    Assert.assertEquals(0, metrics.get("addUser").getErrors());
+    Assert.assertEquals(3, metrics.get("addEventForRelevantUsers").getCalls());
+    Assert.assertEquals(1, metrics.get("addEventForRelevantUsers").getErrors());
+    Assert.assertEquals(2, metrics.get("getEvent").getCalls());
+    Assert.assertEquals(1, metrics.get("getEvent").getErrors());
+    Assert.assertEquals(2, metrics.get("modifyEvent").getCalls());
+    Assert.assertEquals(2, metrics.get("modifyEvent").getErrors());
+    Assert.assertEquals(0, metrics.get("findFreeSlot").getCalls());
+    Assert.assertEquals(0, metrics.get("findFreeSlot").getPercentileNanos(99));
+
+    // the metrics taken before are not changed by later calls
+    this.planner.getUsers();
+    Assert.assertEquals(0, metrics.get("getUsers").getCalls());
+    Assert.assertEquals(1, this.planner.getMetrics().get("getUsers").getCalls());
+  }
+
+  /**
+   * Test that an event starting when another ends is not counted as a failure, though the
+   * invitees have the other event at its start time.
+   */
+  @Test
+  public void testBackToBackNotCounted() {
+    this.planner.addEventForRelevantUsers(event("lecture", 9, "Prof. Lucia", "Chat"));
+    this.planner.addEventForRelevantUsers(event("lab", 10, "Prof. Lucia", "Chat"));
+
+    Assert.assertEquals(2, this.planner.eventsHostedBy("Prof. Lucia").size());
+    Assert.assertEquals(0, this.planner.getMetrics().get("addEventForRelevantUsers")
+            .getErrors());
+  }
+
+  /**
+   * Test that the percentiles of the times recorded are known to within an eighth.
+   */
+  @Test
+  public void testPercentiles() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    for (int nanos = 1; nanos <= 10000; nanos++) {
+      histogram.record(nanos);
+    }
+    OperationMetrics metrics = new OperationMetrics("test", 0, histogram);
+    Assert.assertEquals(10000, metrics.getCalls());
+    Assert.assertEquals(5000.5, metrics.getMeanNanos(), 0.001);
+    Assert.assertTrue(metrics.getPercentileNanos(50) >= 5000);
+    Assert.assertTrue(metrics.getPercentileNanos(50) <= 5000 * 9 / 8);
+    Assert.assertTrue(metrics.getPercentileNanos(99) >= 9900);
+    Assert.assertEquals(10000, metrics.getPercentileNanos(100));
+    Assert.assertEquals(1, metrics.getPercentileNanos(0));
+
+    histogram.record(Long.MAX_VALUE);
+    histogram.record(-3);
+    OperationMetrics extremes = new OperationMetrics("test", 0, histogram);
+    Assert.assertEquals(10002, histogram.getCount());
+    Assert.assertEquals(Long.MAX_VALUE, extremes.getPercentileNanos(100));
+    Assert.assertEquals(0, extremes.getPercentileNanos(0));
+    Assert.assertThrows(IllegalArgumentException.class, () -> extremes.getPercentileNanos(101));
+  }
+}
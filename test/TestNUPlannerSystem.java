@@ -3,6 +3,10 @@ import org.junit.Before;
 import org.junit.Test;
 import org.w3c.dom.Document;
 
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.LinkedHashSet;
@@ -10,11 +14,17 @@ import java.util.List;
 import java.util.Set;
 
 import model.Event;
+import model.EventAddResult;
+import model.EventConflictException;
 import model.IEvent;
 import model.IUser;
 import model.NUPlanner;
+import model.MappedPlanner;
+import model.PlannerSnapshot;
 import model.PlannerSystem;
+import model.ReadOnlyPlanner;
 import model.Schedule;
+import model.ScheduleLoadResult;
 import model.Time;
 import model.User;
 import view.IScheduleTextView;
@@ -164,6 +174,21 @@ public class TestNUPlannerSystem {
     this.plannerSystem = new NUPlanner(users);
   }
 
+  /**
+   * Finds the ID the planner knows an event by, from the events its host is invited to.
+   *
+   * @param event event to look up
+   * @return the ID of the equal event in the planner, NO_ID if there is none
+   */
+  private long idOf(IEvent event) {
+    for (IEvent invited : plannerSystem.eventsInvitedTo(event.getUsers().get(0))) {
+      if (invited.equals(event)) {
+        return invited.getId();
+      }
+    }
+    return IEvent.NO_ID;
+  }
+
   /**
    * Test the observational methods - getUsers().
    */
@@ -175,6 +200,14 @@ public class TestNUPlannerSystem {
     usersCompare.add(this.chatUser);
     Assert.assertEquals(3, this.plannerSystem.getUsers().size());
     Assert.assertEquals(usersCompare, this.plannerSystem.getUsers());
+
+    // users are looked up by name
+    Assert.assertSame(this.chatUser, this.plannerSystem.getUser("Chat"));
+    Assert.assertNull(this.plannerSystem.getUser("Nobody"));
+    // a user with a name already in the system is not added again
+    this.plannerSystem.addUser(new User("Chat", new Schedule(new ArrayList<>())));
+    Assert.assertEquals(3, this.plannerSystem.getUsers().size());
+    Assert.assertSame(this.chatUser, this.plannerSystem.getUser("Chat"));
   }
 
   /**
@@ -324,15 +357,20 @@ public class TestNUPlannerSystem {
     Assert.assertFalse(studentAnonUser.getSchedule().getEvents().contains(this.morningLec));
     Assert.assertFalse(chatUser.getSchedule().getEvents().contains(this.morningLec));
     Assert.assertFalse(profLuciaUser.getSchedule().getEvents().contains(this.morningLec));
-    // Try to modify the same event that we just changed - doesn't exist, throws an exception
-    plannerSystem.modifyEvent(this.morningLec, tryAgainMorning);
+    // Try to modify the same event that we just changed - doesn't exist, so it is added,
+    // but it overlaps the modified lecture
+    Assert.assertThrows(EventConflictException.class,
+        () -> plannerSystem.modifyEvent(this.morningLec, tryAgainMorning));
     Assert.assertFalse(profLuciaUser.getSchedule().getEvents().contains(this.morningLec));
     Assert.assertFalse(chatUser.getSchedule().getEvents().contains(this.morningLec));
     Assert.assertFalse(profLuciaUser.getSchedule().getEvents().contains(tryAgainMorning));
     Assert.assertFalse(chatUser.getSchedule().getEvents().contains(tryAgainMorning));
 
     // try to modify an event with another event occurring at the same time as an existing event
-    plannerSystem.modifyEvent(this.morningLec, nap);
+    EventConflictException conflict = Assert.assertThrows(EventConflictException.class,
+        () -> plannerSystem.modifyEvent(this.morningLec, nap));
+    Assert.assertEquals(List.of("Prof. Lucia", "Chat"), conflict.getConflictingUsers());
+    Assert.assertEquals(List.of(this.afternoonLec), conflict.getConflicts().get("Chat"));
     Assert.assertEquals(this.afternoonLec,
             plannerSystem.retrieveUserScheduleAtTime(profLuciaUser,
                     new Time(Time.Day.TUESDAY, 13, 35)));
@@ -379,4 +417,375 @@ public class TestNUPlannerSystem {
     Assert.assertFalse(this.studentAnonUser.getSchedule().getEvents().contains(this.afternoonLec));
     Assert.assertFalse(this.chatUser.getSchedule().getEvents().contains(this.afternoonLec));
   }
-}
\ No newline at end of file
+
+  /**
+   * Test that events are given IDs and can be looked up, modified and removed by them.
+   */
+  @Test
+  public void testEventIds() {
+    long morningLecId = this.idOf(this.morningLec);
+    Assert.assertNotEquals(IEvent.NO_ID, morningLecId);
+    Assert.assertNotEquals(morningLecId, this.idOf(this.afternoonLec));
+    Assert.assertEquals(this.morningLec, plannerSystem.getEvent(morningLecId));
+    // the planner keeps copies with the IDs, leaving the events it was given alone
+    Assert.assertEquals(IEvent.NO_ID, this.morningLec.getId());
+    Assert.assertEquals(morningLecId, plannerSystem.retrieveUserScheduleAtTime(
+            this.studentAnonUser, this.morningLec.getStartTime()).getId());
+
+    // modified event keeps the ID of the event it replaces
+    IEvent movedLec = new Event("CS3500 Morning Lecture",
+            new Time(Time.Day.WEDNESDAY, 9, 50),
+            new Time(Time.Day.WEDNESDAY, 11, 30),
+            false,
+            "Churchill Hall 101",
+            new ArrayList<>(Arrays.asList("Prof. Lucia",
+                    "Student Anon",
+                    "Chat")));
+    plannerSystem.modifyEvent(morningLecId, movedLec);
+    Assert.assertEquals(morningLecId, plannerSystem.getEvent(morningLecId).getId());
+    Assert.assertEquals(movedLec, plannerSystem.getEvent(morningLecId));
+    Assert.assertFalse(this.studentAnonUser.getSchedule().getEvents().contains(this.morningLec));
+    Assert.assertTrue(this.studentAnonUser.getSchedule().getEvents().contains(movedLec));
+
+    // invitee removing by ID only removes it for them
+    plannerSystem.removeEventForRelevantUsers(morningLecId, this.chatUser);
+    Assert.assertFalse(this.chatUser.getSchedule().getEvents().contains(movedLec));
+    Assert.assertTrue(this.profLuciaUser.getSchedule().getEvents().contains(movedLec));
+
+    // host removing by ID removes it for everyone and forgets the ID
+    plannerSystem.removeEventForRelevantUsers(morningLecId, this.profLuciaUser);
+    Assert.assertFalse(this.profLuciaUser.getSchedule().getEvents().contains(movedLec));
+    Assert.assertFalse(this.studentAnonUser.getSchedule().getEvents().contains(movedLec));
+    Assert.assertThrows(IllegalArgumentException.class,
+        () -> plannerSystem.getEvent(morningLecId));
+  }
+
+  /**
+   * Test that the events each user is invited to and hosts are kept up to date.
+   */
+  @Test
+  public void testEventsByInviteeAndHost() {
+    Assert.assertEquals(Arrays.asList(this.morningLec, this.afternoonLec, this.sleep),
+            plannerSystem.eventsHostedBy("Prof. Lucia"));
+    Assert.assertEquals(Arrays.asList(this.morningLec, this.afternoonLec),
+            plannerSystem.eventsInvitedTo("Chat"));
+    Assert.assertEquals(List.of(), plannerSystem.eventsHostedBy("Chat"));
+
+    // modifying an event replaces it in the index
+    IEvent movedLec = new Event("CS3500 Afternoon Lecture",
+            new Time(Time.Day.THURSDAY, 13, 35),
+            new Time(Time.Day.THURSDAY, 15, 15),
+            false,
+            "Churchill Hall 101",
+            new ArrayList<>(Arrays.asList("Prof. Lucia",
+                    "Student Anon")));
+    plannerSystem.modifyEvent(this.afternoonLec, movedLec);
+    Assert.assertEquals(List.of(this.morningLec), plannerSystem.eventsInvitedTo("Chat"));
+    Assert.assertEquals(Arrays.asList(this.morningLec, movedLec),
+            plannerSystem.eventsInvitedTo("Student Anon"));
+
+    // host removing an event removes it from the index
+    plannerSystem.removeEventForRelevantUsers(this.morningLec, this.profLuciaUser);
+    Assert.assertEquals(List.of(), plannerSystem.eventsInvitedTo("Chat"));
+    Assert.assertEquals(Arrays.asList(this.sleep, movedLec),
+            plannerSystem.eventsHostedBy("Prof. Lucia"));
+  }
+
+  /**
+   * Test that a directory of exported schedules can be loaded into a planner, with each
+   * file's outcome reported.
+   */
+  @Test
+  public void testLoadSchedules() throws IOException {
+    Path directory = Files.createTempDirectory("schedules");
+    plannerSystem.exportScheduleAsXML(directory + File.separator);
+    Files.writeString(directory.resolve("Broken_schedule.xml"), "<schedule><event>");
+    Files.writeString(directory.resolve("notes.txt"), "not a schedule");
+
+    PlannerSystem loaded = new NUPlanner();
+    List<ScheduleLoadResult> results = loaded.loadSchedules(directory.toString());
+    // one result per schedule file, in order of file name
+    Assert.assertEquals(4, results.size());
+    Assert.assertFalse(results.get(0).succeeded());
+    Assert.assertEquals("Chat", results.get(1).getUserName());
+    Assert.assertEquals(2, results.get(1).getEventCount());
+    Assert.assertEquals("Prof. Lucia", results.get(2).getUserName());
+    Assert.assertEquals(3, results.get(2).getEventCount());
+    Assert.assertTrue(results.get(3).succeeded());
+
+    Assert.assertEquals(3, loaded.getUsers().size());
+    Assert.assertEquals(this.profLuciaUser.getSchedule().getEvents(),
+            loaded.getUser("Prof. Lucia").getSchedule().getEvents());
+    Assert.assertEquals(loaded.getEvent(loaded.getUser("Chat").getSchedule()
+            .getEvents().get(0).getId()), this.morningLec);
+
+    // users already in the planner are not loaded again
+    results = loaded.loadSchedules(directory.toString());
+    Assert.assertFalse(results.get(1).succeeded());
+    Assert.assertEquals(3, loaded.getUsers().size());
+    Assert.assertThrows(IllegalArgumentException.class,
+        () -> loaded.loadSchedules(directory.resolve("notes.txt").toString()));
+  }
+
+  /**
+   * Test that a schedule that can't be written fails the export, keeping why it failed.
+   */
+  @Test
+  public void testExportFailure() throws IOException {
+    Path missing = Files.createTempDirectory("schedules").resolve("missing");
+    IllegalStateException failure = Assert.assertThrows(IllegalStateException.class,
+        () -> plannerSystem.exportScheduleAsXML(missing + File.separator));
+    // the failure of the file keeps the error it was written with
+    Assert.assertTrue(failure.getCause().getCause() instanceof IOException);
+  }
+
+  /**
+   * Test that a schedule file failing in an unexpected way only fails that file.
+   */
+  @Test
+  public void testLoadSchedulesMalformedEvent() throws IOException {
+    Path directory = Files.createTempDirectory("schedules");
+    // the event's time has no end
+    Files.writeString(directory.resolve("Chat_schedule.xml"), "<schedule id=\"Chat\">"
+            + "<event><name>lecture</name><time><start-day>Monday</start-day></time>"
+            + "<location><online>false</online><place>Churchill</place></location>"
+            + "<users><uid>Chat</uid></users></event></schedule>");
+    Files.writeString(directory.resolve("Student Anon_schedule.xml"),
+            "<schedule id=\"Student Anon\"></schedule>");
+
+    PlannerSystem loaded = new NUPlanner();
+    List<ScheduleLoadResult> results = loaded.loadSchedules(directory.toString());
+    Assert.assertFalse(results.get(0).succeeded());
+    Assert.assertNotNull(results.get(0).getFailure());
+    Assert.assertTrue(results.get(1).succeeded());
+    Assert.assertEquals(1, loaded.getUsers().size());
+  }
+
+  /**
+   * Test that saving only writes the schedules that changed since they were last saved.
+   */
+  @Test
+  public void testSaveChangedSchedules() throws IOException {
+    Path directory = Files.createTempDirectory("schedules");
+    String folder = directory + File.separator;
+    // never saved there before, so every schedule is written
+    Assert.assertEquals(3, plannerSystem.saveChangedSchedules(folder));
+    Assert.assertEquals(0, plannerSystem.saveChangedSchedules(folder));
+
+    Files.delete(directory.resolve("Student Anon_schedule.xml"));
+    Files.delete(directory.resolve("Chat_schedule.xml"));
+    // only the host and the invitee holding the event changed
+    plannerSystem.removeEventForRelevantUsers(this.afternoonLec, this.profLuciaUser);
+    Assert.assertEquals(2, plannerSystem.saveChangedSchedules(folder));
+    Assert.assertFalse(Files.exists(directory.resolve("Student Anon_schedule.xml")));
+    Assert.assertEquals(List.of(this.morningLec),
+            interpretXML(readXML(folder + "Chat_schedule.xml")));
+
+    // saving somewhere else writes everything again
+    Path otherDirectory = Files.createTempDirectory("schedules");
+    Assert.assertEquals(3, plannerSystem.saveChangedSchedules(otherDirectory + File.separator));
+  }
+
+  /**
+   * Test that a planner can be written to a binary snapshot and read back.
+   */
+  @Test
+  public void testSnapshot() throws IOException {
+    Path snapshot = Files.createTempFile("planner", ".snapshot");
+    PlannerSnapshot.write(plannerSystem, snapshot.toString());
+    PlannerSystem restored = PlannerSnapshot.read(snapshot.toString());
+
+    Assert.assertEquals(plannerSystem.getUsers(), restored.getUsers());
+    for (IUser user : plannerSystem.getUsers()) {
+      Assert.assertEquals(user.getSchedule().getEvents(),
+              restored.getUser(user.getName()).getSchedule().getEvents());
+    }
+    // an event held by several users is read back as the same event
+    Assert.assertSame(restored.getUser("Chat").getSchedule().getEvents().get(0),
+            restored.getUser("Student Anon").getSchedule().getEvents().get(0));
+    Assert.assertEquals(List.of(this.morningLec, this.afternoonLec),
+            restored.eventsInvitedTo("Chat"));
+
+    Files.writeString(snapshot, "<schedule></schedule>");
+    Assert.assertThrows(IllegalStateException.class,
+        () -> PlannerSnapshot.read(snapshot.toString()));
+  }
+
+  /**
+   * Test that a snapshot mapped into memory answers the same way as the planner it was
+   * taken of.
+   */
+  @Test
+  public void testMappedPlanner() throws IOException {
+    Path snapshot = Files.createTempFile("planner", ".snapshot");
+    PlannerSnapshot.write(plannerSystem, snapshot.toString());
+    ReadOnlyPlanner mapped = new MappedPlanner(snapshot.toString());
+
+    Assert.assertEquals(3, mapped.getUsers().size());
+    Assert.assertNull(mapped.getUser("Nobody"));
+    for (IUser user : plannerSystem.getUsers()) {
+      IUser mappedUser = mapped.getUser(user.getName());
+      Assert.assertEquals(user.getName(), mappedUser.getName());
+      Assert.assertEquals(user.getSchedule().getEvents(), mapped.retrieveUserEvents(mappedUser));
+      for (int minute = 0; minute < Time.MINUTES_PER_WEEK; minute += 5) {
+        Time time = Time.ofMinuteOfWeek(minute);
+        Assert.assertEquals(plannerSystem.retrieveUserScheduleAtTime(user, time),
+                mapped.retrieveUserScheduleAtTime(mappedUser, time));
+      }
+    }
+    Assert.assertEquals(plannerSystem.eventsInvitedTo("Chat"), mapped.eventsInvitedTo("Chat"));
+    Assert.assertEquals(plannerSystem.eventsHostedBy("Prof. Lucia"),
+            mapped.eventsHostedBy("Prof. Lucia"));
+    IEvent first = mapped.retrieveUserEvents(mapped.getUser("Chat")).get(0);
+    Assert.assertEquals(first, mapped.getEvent(first.getId()));
+    Assert.assertThrows(IllegalStateException.class,
+        () -> mapped.getUser("Chat").addEventForUser(this.sleep));
+  }
+
+  /**
+   * Test that a truncated snapshot is refused when it is mapped, not when it is read.
+   */
+  @Test
+  public void testMappedPlannerTruncated() throws IOException {
+    Path snapshot = Files.createTempFile("planner", ".snapshot");
+    PlannerSnapshot.write(plannerSystem, snapshot.toString());
+    byte[] written = Files.readAllBytes(snapshot);
+    Files.write(snapshot, Arrays.copyOf(written, written.length - 1));
+    Assert.assertThrows(IllegalStateException.class,
+        () -> new MappedPlanner(snapshot.toString()));
+
+    Files.write(snapshot, Arrays.copyOf(written, 30));
+    Assert.assertThrows(IllegalStateException.class,
+        () -> new MappedPlanner(snapshot.toString()));
+  }
+
+  /**
+   * Test finding times at which every given user is free.
+   */
+  @Test
+  public void testFindFreeSlots() throws IOException {
+    // Prof. Lucia sleeps until Sunday noon
+    Assert.assertEquals(Time.of(Time.Day.SUNDAY, 12, 0),
+            plannerSystem.findFreeSlot(List.of("Prof. Lucia", "Chat"), 60));
+    Assert.assertEquals(Time.of(Time.Day.SUNDAY, 0, 0),
+            plannerSystem.findFreeSlot(List.of("Chat", "Nobody"), 60));
+
+    // only the gap between the two lectures is long enough on Tuesday morning
+    List<Time> expected = List.of(Time.of(Time.Day.TUESDAY, 11, 30),
+            Time.of(Time.Day.TUESDAY, 12, 30));
+    Assert.assertEquals(expected, plannerSystem.findFreeSlots(List.of("Prof. Lucia", "Chat"),
+            60, Time.of(Time.Day.TUESDAY, 9, 0), Time.of(Time.Day.TUESDAY, 16, 0), 5));
+    Assert.assertEquals(expected.subList(0, 1),
+            plannerSystem.findFreeSlots(List.of("Prof. Lucia", "Chat"), 60,
+                    Time.of(Time.Day.TUESDAY, 9, 0), Time.of(Time.Day.TUESDAY, 16, 0), 1));
+    Assert.assertTrue(plannerSystem.findFreeSlots(List.of("Chat"), 200,
+            Time.of(Time.Day.TUESDAY, 9, 0), Time.of(Time.Day.TUESDAY, 16, 0), 5).isEmpty());
+    Assert.assertThrows(IllegalArgumentException.class,
+        () -> plannerSystem.findFreeSlot(List.of("Chat"), 0));
+
+    // a slot found can always be booked
+    Event meeting = new Event("meeting", Time.of(Time.Day.TUESDAY, 11, 30),
+            Time.of(Time.Day.TUESDAY, 12, 30), true, "Zoom", List.of("Prof. Lucia", "Chat"));
+    plannerSystem.addEventForRelevantUsers(meeting);
+    Assert.assertTrue(chatUser.getSchedule().getEvents().contains(meeting));
+    Assert.assertEquals(expected.subList(1, 2),
+            plannerSystem.findFreeSlots(List.of("Prof. Lucia", "Chat"), 60,
+                    Time.of(Time.Day.TUESDAY, 9, 0), Time.of(Time.Day.TUESDAY, 16, 0), 5));
+
+    Path snapshot = Files.createTempFile("planner", ".snapshot");
+    PlannerSnapshot.write(plannerSystem, snapshot.toString());
+    ReadOnlyPlanner mapped = new MappedPlanner(snapshot.toString());
+    Assert.assertEquals(plannerSystem.findFreeSlots(List.of("Prof. Lucia", "Student Anon"), 45,
+            Time.of(Time.Day.SUNDAY, 0, 0), Time.of(Time.Day.SATURDAY, 23, 59), 20),
+            mapped.findFreeSlots(List.of("Prof. Lucia", "Student Anon"), 45,
+                    Time.of(Time.Day.SUNDAY, 0, 0), Time.of(Time.Day.SATURDAY, 23, 59), 20));
+
+    // the last hour of the week is a whole hour free
+    IEvent allWeek = new Event("all week", Time.of(Time.Day.SUNDAY, 0, 0),
+            Time.of(Time.Day.SATURDAY, 23, 0), true, "Zoom", List.of("Night Owl"));
+    ReadOnlyPlanner nightOwl = new NUPlanner(new LinkedHashSet<>(List.of(
+            new User("Night Owl", new Schedule(new ArrayList<>(List.of(allWeek)))))));
+    Assert.assertEquals(Time.of(Time.Day.SATURDAY, 23, 0),
+            nightOwl.findFreeSlot(List.of("Night Owl"), 60));
+    Assert.assertNull(nightOwl.findFreeSlot(List.of("Night Owl"), 61));
+  }
+
+  /**
+   * Test adding many events at once, with a report for each event.
+   */
+  @Test
+  public void testAddEventsForRelevantUsers() {
+    Event clash = new Event("clash", Time.of(Time.Day.TUESDAY, 10, 0),
+            Time.of(Time.Day.TUESDAY, 11, 0), true, "Zoom", List.of("Chat", "Nobody"));
+    Event review = new Event("review", Time.of(Time.Day.WEDNESDAY, 10, 0),
+            Time.of(Time.Day.WEDNESDAY, 11, 0), true, "Zoom", List.of("Student Anon"));
+    Event standup = new Event("standup", Time.of(Time.Day.WEDNESDAY, 9, 30),
+            Time.of(Time.Day.WEDNESDAY, 10, 30), true, "Zoom", List.of("Student Anon", "Chat"));
+    List<EventAddResult> results = plannerSystem.addEventsForRelevantUsers(
+            List.of(this.officeHours, clash, review, standup, this.officeHours));
+
+    Assert.assertEquals(5, results.size());
+    Assert.assertEquals(List.of("Student Anon", "Prof. Lucia"), results.get(0).getAddedFor());
+    Assert.assertTrue(results.get(0).accepted());
+    // overlaps Chat's morning lecture, and Nobody is not in the planner
+    Assert.assertFalse(results.get(1).accepted());
+    Assert.assertEquals(List.of("Chat"), results.get(1).getRejectedBy());
+    // the standup starts first, so it wins the overlap with the review
+    Assert.assertEquals(List.of("Student Anon"), results.get(2).getRejectedBy());
+    Assert.assertEquals(List.of("Student Anon", "Chat"), results.get(3).getAddedFor());
+    Assert.assertNotNull(results.get(4).getFailure());
+
+    Assert.assertTrue(studentAnonUser.getSchedule().getEvents().contains(this.officeHours));
+    Assert.assertTrue(profLuciaUser.getSchedule().getEvents().contains(this.officeHours));
+    Assert.assertTrue(chatUser.getSchedule().getEvents().contains(standup));
+    Assert.assertFalse(chatUser.getSchedule().getEvents().contains(clash));
+    Assert.assertFalse(studentAnonUser.getSchedule().getEvents().contains(review));
+    long standupId = results.get(3).getEvent().getId();
+    Assert.assertEquals(standup, plannerSystem.getEvent(standupId));
+    // nobody took the clash, so it is handed back without an ID
+    Assert.assertSame(clash, results.get(1).getEvent());
+    Assert.assertEquals(IEvent.NO_ID, clash.getId());
+    Assert.assertEquals(standup, plannerSystem.retrieveUserScheduleAtTime(studentAnonUser,
+            Time.of(Time.Day.WEDNESDAY, 10, 15)));
+
+    // adding again leaves the schedules alone
+    results = plannerSystem.addEventsForRelevantUsers(List.of(standup));
+    Assert.assertTrue(results.get(0).getAddedFor().isEmpty());
+    Assert.assertTrue(results.get(0).getRejectedBy().isEmpty());
+    Assert.assertEquals(3, chatUser.getSchedule().getEvents().size());
+  }
+
+  /**
+   * Test that modifying an event changes every schedule holding it or none of them.
+   */
+  @Test
+  public void testModifyEventAllOrNothing() {
+    long lecId = this.idOf(this.morningLec);
+    // Student Anon is free on Tuesday afternoon, but Prof. Lucia and Chat have a lecture
+    Event moved = new Event("CS3500 Morning Lecture",
+            new Time(Time.Day.TUESDAY, 14, 0),
+            new Time(Time.Day.TUESDAY, 15, 0),
+            false,
+            "Churchill Hall 101",
+            List.of("Prof. Lucia", "Student Anon", "Chat"));
+    EventConflictException conflict = Assert.assertThrows(EventConflictException.class,
+        () -> plannerSystem.modifyEvent(lecId, moved));
+    Assert.assertEquals(List.of("Prof. Lucia", "Chat"), conflict.getConflictingUsers());
+    Assert.assertTrue(studentAnonUser.getSchedule().getEvents().contains(this.morningLec));
+    Assert.assertFalse(studentAnonUser.getSchedule().getEvents().contains(moved));
+    Assert.assertEquals(this.morningLec, plannerSystem.getEvent(lecId));
+
+    // moving the lecture so it overlaps where it used to be is fine
+    Event later = new Event("CS3500 Morning Lecture",
+            new Time(Time.Day.TUESDAY, 10, 0),
+            new Time(Time.Day.TUESDAY, 11, 40),
+            false,
+            "Churchill Hall 101",
+            List.of("Prof. Lucia", "Student Anon", "Chat"));
+    plannerSystem.modifyEvent(lecId, later);
+    for (IUser user : plannerSystem.getUsers()) {
+      Assert.assertTrue(user.getSchedule().getEvents().contains(later));
+      Assert.assertFalse(user.getSchedule().getEvents().contains(this.morningLec));
+    }
+  }
+}
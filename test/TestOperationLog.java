@@ -0,0 +1,227 @@
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+import controller.OperationLog;
+import controller.OperationRecord;
+import model.IEvent;
+
+/**
+ * Class to test that an OperationLog writes the records handed over to it, in order, without
+ * making the threads handing them over wait.
+ */
+public class TestOperationLog {
+  private StringBuilder out;
+  private OperationLog log;
+
+  @Before
+  public void setUp() {
+    this.out = new StringBuilder();
+    this.log = new OperationLog(this.out);
+  }
+
+  @After
+  public void tearDown() {
+    this.log.close();
+  }
+
+  /**
+   * Makes the record of an operation on an event.
+   *
+   * @param operation the operation
+   * @param eventId ID of the event
+   * @param outcome whether it worked
+   * @return a record of the operation by Prof. Lucia
+   */
+  private static OperationRecord record(OperationRecord.Operation operation, long eventId,
+                                        OperationRecord.Outcome outcome) {
+    return new OperationRecord(operation, "Prof. Lucia", eventId, outcome, 2500, "lecture");
+  }
+
+  @Test
+  public void testRecordsWrittenInOrder() {
+    for (long id = 1; id <= 3; id++) {
+      Assert.assertTrue(this.log.record(record(OperationRecord.Operation.CREATE_EVENT, id,
+              OperationRecord.Outcome.SUCCEEDED)));
+    }
+    this.log.flush();
+
+    String[] lines = this.out.toString().split("\n");
+    Assert.assertEquals(3, lines.length);
+    for (int idx = 0; idx < lines.length; idx++) {
+      String[] fields = lines[idx].split("\t");
+      Assert.assertEquals("CREATE_EVENT", fields[1]);
+      Assert.assertEquals("Prof. Lucia", fields[2]);
+      Assert.assertEquals(String.valueOf(idx + 1), fields[3]);
+      Assert.assertEquals("SUCCEEDED", fields[4]);
+      Assert.assertEquals("2us", fields[5]);
+      Assert.assertEquals("lecture", fields[6]);
+    }
+    Assert.assertEquals(3, this.log.getRecords().size());
+    Assert.assertEquals(0, this.log.getDropped());
+  }
+
+  @Test
+  public void testMissingUserAndEventWrittenAsDash() {
+    this.log.record(new OperationRecord(OperationRecord.Operation.SAVE_SCHEDULES, null,
+            IEvent.NO_ID, OperationRecord.Outcome.SUCCEEDED, 0, "Saved schedules: 2"));
+    this.log.flush();
+
+    String[] fields = this.out.toString().trim().split("\t");
+    Assert.assertEquals("-", fields[2]);
+    Assert.assertEquals("-", fields[3]);
+    Assert.assertEquals("Saved schedules: 2", fields[6]);
+  }
+
+  @Test
+  public void testQuery() {
+    this.log.record(record(OperationRecord.Operation.CREATE_EVENT, 1,
+            OperationRecord.Outcome.SUCCEEDED));
+    this.log.record(record(OperationRecord.Operation.MODIFY_EVENT, 1,
+            OperationRecord.Outcome.FAILED));
+    this.log.record(record(OperationRecord.Operation.REMOVE_EVENT, 1,
+            OperationRecord.Outcome.SUCCEEDED));
+    this.log.flush();
+
+    List<OperationRecord> failed = this.log.query(
+        r -> r.getOutcome() == OperationRecord.Outcome.FAILED);
+    Assert.assertEquals(1, failed.size());
+    Assert.assertEquals(OperationRecord.Operation.MODIFY_EVENT, failed.get(0).getOperation());
+    Assert.assertEquals(2, this.log.query(r -> r.getEventId() == 1
+            && r.getOutcome() == OperationRecord.Outcome.SUCCEEDED).size());
+  }
+
+  @Test
+  public void testDropsWhenFullInsteadOfWaiting() throws InterruptedException {
+    CountDownLatch writing = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    StringBuilder written = new StringBuilder();
+    Appendable stuck = new Appendable() {
+      @Override
+      public Appendable append(CharSequence csq) {
+        writing.countDown();
+        try {
+          release.await();
+        } catch (InterruptedException ex) {
+          Thread.currentThread().interrupt();
+        }
+        written.append(csq);
+        return this;
+      }
+
+      @Override
+      public Appendable append(CharSequence csq, int start, int end) {
+        return this.append(csq.subSequence(start, end));
+      }
+
+      @Override
+      public Appendable append(char c) {
+        written.append(c);
+        return this;
+      }
+    };
+    OperationLog full = new OperationLog(stuck, 2);
+    try {
+      // the writer gets stuck writing the first record, which keeps its slot until written
+      Assert.assertTrue(full.record(record(OperationRecord.Operation.CREATE_EVENT, 1,
+              OperationRecord.Outcome.SUCCEEDED)));
+      writing.await();
+      Assert.assertTrue(full.record(record(OperationRecord.Operation.CREATE_EVENT, 2,
+              OperationRecord.Outcome.SUCCEEDED)));
+      Assert.assertFalse(full.record(record(OperationRecord.Operation.CREATE_EVENT, 3,
+              OperationRecord.Outcome.SUCCEEDED)));
+      Assert.assertEquals(1, full.getDropped());
+    } finally {
+      release.countDown();
+      full.close();
+    }
+    Assert.assertEquals(2, written.toString().split("\n").length);
+    Assert.assertEquals(2, full.getRecords().size());
+  }
+
+  @Test
+  public void testRecordsAfterCloseDropped() {
+    this.log.record(record(OperationRecord.Operation.CREATE_EVENT, 1,
+            OperationRecord.Outcome.SUCCEEDED));
+    this.log.close();
+
+    Assert.assertEquals(1, this.log.getRecords().size());
+    Assert.assertFalse(this.log.record(record(OperationRecord.Operation.CREATE_EVENT, 2,
+            OperationRecord.Outcome.SUCCEEDED)));
+    Assert.assertEquals(1, this.log.getDropped());
+  }
+
+  @Test
+  public void testWriterSurvivesFailingOutput() {
+    StringBuilder written = new StringBuilder();
+    Appendable failing = new Appendable() {
+      @Override
+      public Appendable append(CharSequence csq) {
+        if (csq.toString().contains("\t1\t")) {
+          throw new IllegalStateException("output is gone");
+        }
+        written.append(csq);
+        return this;
+      }
+
+      @Override
+      public Appendable append(CharSequence csq, int start, int end) {
+        return this.append(csq.subSequence(start, end));
+      }
+
+      @Override
+      public Appendable append(char c) {
+        written.append(c);
+        return this;
+      }
+    };
+    OperationLog failingLog = new OperationLog(failing);
+    for (long id = 1; id <= 2; id++) {
+      failingLog.record(record(OperationRecord.Operation.CREATE_EVENT, id,
+              OperationRecord.Outcome.SUCCEEDED));
+    }
+    failingLog.close();
+
+    Assert.assertEquals(2, failingLog.getRecords().size());
+    // the first record is lost, the second is still written
+    Assert.assertEquals(1, written.toString().split("\n").length);
+    Assert.assertTrue(written.toString().contains("\t2\t"));
+  }
+
+  @Test
+  public void testRecordsAcceptedWhileClosingWritten() throws InterruptedException {
+    List<Thread> producers = new ArrayList<>();
+    AtomicLong accepted = new AtomicLong();
+    for (int thread = 0; thread < 4; thread++) {
+      producers.add(new Thread(() -> {
+        for (long id = 0; id < 10_000; id++) {
+          if (this.log.record(record(OperationRecord.Operation.CREATE_EVENT, id,
+                  OperationRecord.Outcome.SUCCEEDED))) {
+            accepted.incrementAndGet();
+          }
+        }
+      }));
+    }
+    for (Thread producer : producers) {
+      producer.start();
+    }
+    this.log.close();
+    for (Thread producer : producers) {
+      producer.join();
+    }
+
+    Assert.assertEquals(accepted.get(), this.out.toString().split("\n", -1).length - 1);
+    Assert.assertEquals(40_000, accepted.get() + this.log.getDropped());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testCapacityNotPowerOfTwo() {
+    new OperationLog(new StringBuilder(), 3);
+  }
+}
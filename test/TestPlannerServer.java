@@ -0,0 +1,173 @@
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import controller.PlannerServer;
+import model.ConcurrentPlanner;
+import model.Event;
+import model.IEvent;
+import model.Time;
+
+/**
+ * Class to test talking to a planner over the line protocol of a PlannerServer.
+ */
+public class TestPlannerServer {
+  private ConcurrentPlanner planner;
+  private PlannerServer server;
+  private Socket socket;
+  private BufferedReader in;
+  private PrintWriter out;
+
+  @Before
+  public void setUp() throws IOException {
+    this.planner = new ConcurrentPlanner();
+    this.server = new PlannerServer(this.planner, 0);
+    this.server.start();
+    this.socket = new Socket(InetAddress.getLoopbackAddress(), this.server.getPort());
+    this.in = new BufferedReader(
+            new InputStreamReader(this.socket.getInputStream(), StandardCharsets.UTF_8));
+    this.out = new PrintWriter(this.socket.getOutputStream(), true, StandardCharsets.UTF_8);
+  }
+
+  @After
+  public void tearDown() throws IOException {
+    this.socket.close();
+    this.server.close();
+  }
+
+  /**
+   * Sends a request made of the given fields and reads the first line of the answer.
+   *
+   * @param fields fields of the request
+   * @return the first line of the answer
+   */
+  private String send(String... fields) throws IOException {
+    this.out.println(String.join("\t", fields));
+    return this.in.readLine();
+  }
+
+  /**
+   * Test adding, modifying, querying and removing events over the server.
+   */
+  @Test
+  public void testOperations() throws IOException {
+    Assert.assertEquals("OK", this.send("USER", "Prof. Lucia"));
+    Assert.assertEquals("OK", this.send("USER", "Chat"));
+    String added = this.send("ADD", "lecture", "Tuesday", "0950", "Tuesday", "1130", "false",
+            "Churchill Hall 101", "Prof. Lucia", "Chat");
+    Assert.assertTrue(added.startsWith("OK\t"));
+    String id = added.substring(3);
+    Assert.assertEquals(1, this.planner.retrieveUserEvents(this.planner.getUser("Chat")).size());
+
+    Assert.assertEquals("OK\t1", this.send("EVENTS", "Chat"));
+    Assert.assertEquals(id + "\tlecture\tTuesday\t0950\tTuesday\t1130\tfalse"
+            + "\tChurchill Hall 101\tProf. Lucia\tChat", this.in.readLine());
+    Assert.assertEquals("OK\t1", this.send("AT", "Prof. Lucia", "Tuesday", "1000"));
+    this.in.readLine();
+    Assert.assertEquals("OK\t0", this.send("AT", "Prof. Lucia", "Tuesday", "1200"));
+
+    Assert.assertEquals("OK\t2", this.send("FREE", "120", "2", "Prof. Lucia", "Chat"));
+    Assert.assertEquals("Sunday\t0000", this.in.readLine());
+    Assert.assertEquals("Sunday\t0200", this.in.readLine());
+
+    // a second event at the same time can't be taken by anyone
+    Assert.assertEquals("CONFLICT\tChat\tProf. Lucia", this.send("ADD", "nap", "Tuesday",
+            "1000", "Tuesday", "1100", "false", "home", "Chat", "Prof. Lucia"));
+    Assert.assertTrue(this.send("ADD", "office hours", "Monday", "1200", "Monday", "1300",
+            "false", "Room", "Chat").startsWith("OK\t"));
+    Assert.assertEquals("CONFLICT\tChat", this.send("MODIFY", id, "lecture", "Monday",
+            "1230", "Monday", "1400", "false", "Room", "Prof. Lucia", "Chat"));
+    Assert.assertEquals("OK", this.send("MODIFY", id, "lecture", "Monday", "1400",
+            "Monday", "1500", "true", "Zoom", "Prof. Lucia", "Chat"));
+    Assert.assertEquals("OK\t1", this.send("EVENT", id));
+    Assert.assertTrue(this.in.readLine().contains("\tMonday\t1400\tMonday\t1500\ttrue\tZoom"));
+
+    Assert.assertEquals("OK", this.send("REMOVE", id, "Prof. Lucia"));
+    Assert.assertEquals(1, this.planner.retrieveUserEvents(this.planner.getUser("Chat")).size());
+    Assert.assertEquals("OK\t0", this.send("EVENTS", "Prof. Lucia"));
+  }
+
+  /**
+   * Test that bad requests are answered with an error, and the connection stays usable.
+   */
+  @Test
+  public void testErrors() throws IOException {
+    Assert.assertTrue(this.send("DANCE").startsWith("ERROR\t"));
+    Assert.assertTrue(this.send("EVENTS", "nobody").startsWith("ERROR\t"));
+    Assert.assertTrue(this.send("EVENT", "twelve").startsWith("ERROR\t"));
+    Assert.assertTrue(this.send("ADD", "lecture", "Someday", "0950", "Tuesday", "1130",
+            "false", "Room", "Chat").startsWith("ERROR\t"));
+    Assert.assertTrue(this.send("REMOVE", "1").startsWith("ERROR\t"));
+    Assert.assertEquals("OK", this.send("USER", "Chat"));
+    Assert.assertEquals("OK\t1", this.send("USERS"));
+    Assert.assertEquals("Chat", this.in.readLine());
+  }
+
+  /**
+   * Test that a request failing in an unexpected way is answered with an error, and the
+   * connection stays usable.
+   */
+  @Test
+  public void testUnexpectedFailure() throws IOException {
+    ConcurrentPlanner failing = new ConcurrentPlanner() {
+      @Override
+      public IEvent getEvent(long eventId) {
+        throw new UnsupportedOperationException();
+      }
+    };
+    this.socket.close();
+    this.server.close();
+    this.server = new PlannerServer(failing, 0);
+    this.server.start();
+    this.socket = new Socket(InetAddress.getLoopbackAddress(), this.server.getPort());
+    this.in = new BufferedReader(
+            new InputStreamReader(this.socket.getInputStream(), StandardCharsets.UTF_8));
+    this.out = new PrintWriter(this.socket.getOutputStream(), true, StandardCharsets.UTF_8);
+    Assert.assertEquals("ERROR\tjava.lang.UnsupportedOperationException",
+            this.send("EVENT", "1"));
+    Assert.assertEquals("OK\t0", this.send("USERS"));
+  }
+
+  /**
+   * Test that a request that is too long is refused without ending the connection.
+   */
+  @Test
+  public void testRequestTooLong() throws IOException {
+    String name = "x".repeat(PlannerServer.MAX_REQUEST_LENGTH);
+    Assert.assertTrue(this.send("USER", name).startsWith("ERROR\t"));
+    Assert.assertNull(this.planner.getUser(name));
+    Assert.assertEquals("OK\t0", this.send("USERS"));
+  }
+
+  /**
+   * Test that tabs and line breaks in fields are escaped both ways, so they can't break up the
+   * lines of an answer.
+   */
+  @Test
+  public void testEscapedFields() throws IOException {
+    Assert.assertEquals("OK", this.send("USER", "Chat"));
+    this.planner.addEventForRelevantUsers(new Event("stand\tup\nnow",
+            Time.of(Time.Day.MONDAY, 9, 0), Time.of(Time.Day.MONDAY, 10, 0), true,
+            "C:\\rooms", List.of("Chat")));
+    Assert.assertEquals("OK\t1", this.send("EVENTS", "Chat"));
+    String[] fields = this.in.readLine().split("\t");
+    Assert.assertEquals("stand\\tup\\nnow", fields[1]);
+    Assert.assertEquals("C:\\\\rooms", fields[7]);
+
+    Assert.assertEquals("OK", this.send("USER", "Student\\tAnon"));
+    Assert.assertNotNull(this.planner.getUser("Student\tAnon"));
+    Assert.assertEquals("OK\t2", this.send("USERS"));
+    Assert.assertEquals("Chat", this.in.readLine());
+    Assert.assertEquals("Student\\tAnon", this.in.readLine());
+  }
+}
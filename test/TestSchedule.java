@@ -2,6 +2,8 @@ import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.io.IOException;
+import java.io.StringWriter;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.LinkedHashSet;
@@ -264,7 +266,7 @@ public class TestSchedule {
    * Test that a schedule can be correctly converted to its XML format.
    */
   @Test
-  public void testScheduleToXML() {
+  public void testScheduleToXML() throws IOException {
     String luciaSchedXML = "<event>\n" +
             "     <name>CS3500 Morning Lecture</name>\n" +
             "     <time>\n" +
@@ -322,6 +324,11 @@ public class TestSchedule {
     emptySchedule.addEvent(this.sleep);
 
     Assert.assertEquals(luciaSchedXML, emptySchedule.scheduleToXMLFormat());
+
+    // writing the events straight to an output gives the same XML
+    StringWriter out = new StringWriter();
+    emptySchedule.writeXML(out);
+    Assert.assertEquals(luciaSchedXML, out.toString());
   }
 
   /**
@@ -358,4 +365,156 @@ public class TestSchedule {
                     new Time(Time.Day.SATURDAY, 9, 50)));
 
   }
+
+  /**
+   * Tests that an event going into the following week is found at the start of this week.
+   */
+  @Test
+  public void testEventOccurringWrapsWeek() {
+    emptySchedule.addEvent(this.sleep);
+    emptySchedule.addEvent(this.officeHours);
+
+    Assert.assertEquals(this.sleep,
+            emptySchedule.eventOccurring(new Time(Time.Day.SUNDAY, 10, 0)));
+    Assert.assertEquals(this.sleep,
+            emptySchedule.eventOccurring(new Time(Time.Day.SATURDAY, 23, 59)));
+    Assert.assertNull(emptySchedule.eventOccurring(new Time(Time.Day.SUNDAY, 12, 1)));
+
+    // overlaps the part of the event at the start of the week
+    Assert.assertEquals(List.of(this.sleep),
+            emptySchedule.eventsOverlapping(new Time(Time.Day.SUNDAY, 11, 0),
+                    new Time(Time.Day.SUNDAY, 13, 0)));
+  }
+
+  /**
+   * Tests that an event ending at Saturday 24:00 ends with the week instead of going into the
+   * following week, so events within it still conflict with it.
+   */
+  @Test
+  public void testEventEndingAtEndOfWeek() {
+    IEvent lateNight = new Event("late night",
+            new Time(Time.Day.SATURDAY, 23, 0),
+            new Time(Time.Day.SATURDAY, 24, 0),
+            false, "home", new ArrayList<>(List.of("Prof. Lucia")));
+    IEvent within = new Event("within",
+            new Time(Time.Day.SATURDAY, 23, 30),
+            new Time(Time.Day.SATURDAY, 23, 45),
+            false, "home", new ArrayList<>(List.of("Prof. Lucia")));
+    IEvent earlySunday = new Event("early sunday",
+            new Time(Time.Day.SUNDAY, 0, 0),
+            new Time(Time.Day.SUNDAY, 1, 0),
+            false, "home", new ArrayList<>(List.of("Prof. Lucia")));
+    emptySchedule.addEvent(lateNight);
+
+    Assert.assertThrows(IllegalArgumentException.class, () -> emptySchedule.addEvent(within));
+    // the event does not take up the start of the week
+    emptySchedule.addEvent(earlySunday);
+    Assert.assertEquals(lateNight,
+            emptySchedule.eventOccurring(new Time(Time.Day.SATURDAY, 24, 0)));
+    Assert.assertTrue(emptySchedule.isBusyAt(new Time(Time.Day.SATURDAY, 23, 59)));
+  }
+
+  /**
+   * Tests that the events overlapping a period of time are found in order of start time.
+   */
+  @Test
+  public void testEventsOverlapping() {
+    emptySchedule.addEvent(this.afternoonLec);
+    emptySchedule.addEvent(this.morningLec);
+    emptySchedule.addEvent(this.sleep);
+    emptySchedule.addEvent(this.officeHours);
+
+    Assert.assertEquals(List.of(this.morningLec, this.afternoonLec),
+            emptySchedule.eventsOverlapping(new Time(Time.Day.TUESDAY, 10, 0),
+                    new Time(Time.Day.TUESDAY, 14, 0)));
+    // touching the end of an event is not overlapping it
+    Assert.assertEquals(List.of(),
+            emptySchedule.eventsOverlapping(new Time(Time.Day.TUESDAY, 11, 30),
+                    new Time(Time.Day.TUESDAY, 13, 35)));
+    // period going into the following week
+    Assert.assertEquals(List.of(this.sleep, this.officeHours),
+            emptySchedule.eventsOverlapping(new Time(Time.Day.SATURDAY, 8, 0),
+                    new Time(Time.Day.MONDAY, 12, 15)));
+
+    emptySchedule.removeEvent(this.sleep);
+    Assert.assertEquals(List.of(this.officeHours),
+            emptySchedule.eventsOverlapping(new Time(Time.Day.SATURDAY, 8, 0),
+                    new Time(Time.Day.MONDAY, 12, 15)));
+  }
+
+  /**
+   * Tests that the busy minutes of a schedule follow events being added and removed.
+   */
+  @Test
+  public void testBusyAndFree() {
+    emptySchedule.addEvent(this.morningLec);
+    emptySchedule.addEvent(this.morningLecEndTime);
+    emptySchedule.addEvent(this.sleep);
+
+    Assert.assertTrue(emptySchedule.isBusyAt(new Time(Time.Day.TUESDAY, 9, 50)));
+    Assert.assertTrue(emptySchedule.isBusyAt(new Time(Time.Day.TUESDAY, 11, 30)));
+    Assert.assertFalse(emptySchedule.isBusyAt(new Time(Time.Day.TUESDAY, 12, 15)));
+    Assert.assertTrue(emptySchedule.isBusyAt(new Time(Time.Day.SUNDAY, 11, 59)));
+    Assert.assertFalse(emptySchedule.isBusyAt(new Time(Time.Day.SUNDAY, 12, 0)));
+
+    Assert.assertTrue(emptySchedule.isFree(new Time(Time.Day.TUESDAY, 12, 15),
+            new Time(Time.Day.TUESDAY, 13, 0)));
+    Assert.assertFalse(emptySchedule.isFree(new Time(Time.Day.TUESDAY, 12, 0),
+            new Time(Time.Day.TUESDAY, 13, 0)));
+    Assert.assertFalse(emptySchedule.isFree(new Time(Time.Day.SATURDAY, 8, 0),
+            new Time(Time.Day.SUNDAY, 1, 0)));
+
+    // the end of the morning lecture is still taken up by the event starting when it ends
+    emptySchedule.removeEvent(this.morningLec);
+    Assert.assertFalse(emptySchedule.isBusyAt(new Time(Time.Day.TUESDAY, 9, 50)));
+    Assert.assertTrue(emptySchedule.isBusyAt(new Time(Time.Day.TUESDAY, 11, 30)));
+    Assert.assertNull(emptySchedule.eventOccurring(new Time(Time.Day.TUESDAY, 10, 0)));
+
+    emptySchedule.removeEvent(this.sleep);
+    Assert.assertTrue(emptySchedule.isFree(new Time(Time.Day.FRIDAY, 0, 0),
+            new Time(Time.Day.SUNDAY, 23, 0)));
+  }
+
+  /**
+   * Tests that a list of events handed out does not change as the schedule changes, and that
+   * the schedule can be read while another thread changes it.
+   */
+  @Test
+  public void testReadWhileChanging() throws InterruptedException {
+    emptySchedule.addEvent(this.morningLec);
+    List<IEvent> before = emptySchedule.getEvents();
+    emptySchedule.addEvent(this.afternoonLec);
+    emptySchedule.removeEvent(this.morningLec);
+    Assert.assertEquals(List.of(this.morningLec), before);
+    Assert.assertEquals(List.of(this.afternoonLec), emptySchedule.getEvents());
+
+    List<IEvent> hours = new ArrayList<>();
+    for (int hour = 0; hour < 24; hour++) {
+      hours.add(new Event("hour " + hour, new Time(Time.Day.MONDAY, hour, 0),
+              new Time(Time.Day.MONDAY, hour, 30), true, "home", List.of("Chat")));
+    }
+    Thread writer = new Thread(() -> {
+      for (int round = 0; round < 200; round++) {
+        for (IEvent hour : hours) {
+          emptySchedule.addEvent(hour);
+        }
+        for (IEvent hour : hours) {
+          emptySchedule.removeEvent(hour);
+        }
+      }
+    });
+    writer.start();
+    while (writer.isAlive()) {
+      int count = 0;
+      for (IEvent event : emptySchedule.getEvents()) {
+        Assert.assertNotNull(event);
+        count++;
+      }
+      Assert.assertTrue(count >= 1 && count <= 25);
+      emptySchedule.eventOccurring(new Time(Time.Day.MONDAY, 5, 15));
+    }
+    writer.join();
+    Assert.assertEquals(List.of(this.afternoonLec), emptySchedule.getEvents());
+    Assert.assertNull(emptySchedule.eventOccurring(new Time(Time.Day.MONDAY, 5, 15)));
+  }
 }
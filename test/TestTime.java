@@ -3,7 +3,9 @@ import org.junit.Before;
 import org.junit.Test;
 
 import java.util.LinkedHashSet;
+import java.util.List;
 
+import model.Event;
 import model.NUPlanner;
 import model.PlannerSystem;
 import model.Time;
@@ -95,4 +97,47 @@ public class TestTime {
     Assert.assertThrows(IllegalArgumentException.class, () ->
             new Time(Time.Day.SUNDAY, 23, -10));
   }
+
+  @Test
+  public void testFactoriesShareInstances() {
+    Assert.assertSame(Time.of(Time.Day.TUESDAY, 9, 50), Time.stringToTime("Tuesday", "0950"));
+    Assert.assertSame(Time.of(Time.Day.SUNDAY, 0, 0), Time.ofMinuteOfWeek(0));
+    Assert.assertSame(Time.of(Time.Day.MONDAY, 1, 0), Time.indexToTime(1, 60));
+    Assert.assertEquals(0, Time.of(Time.Day.SATURDAY, 13, 0).compareTimes(this.satOnePM));
+    Assert.assertSame(Time.of(Time.Day.SATURDAY, 24, 0), Time.ofMinuteOfWeek(10080));
+    Assert.assertThrows(IllegalArgumentException.class, () -> Time.ofMinuteOfWeek(10081));
+    Assert.assertThrows(IllegalArgumentException.class, () -> Time.of(Time.Day.MONDAY, 12, 60));
+  }
+
+  @Test
+  public void testMinuteOfWeek() {
+    Assert.assertEquals(0, new Time(Time.Day.SUNDAY, 0, 0).minuteOfWeek());
+    Assert.assertEquals(2 * 1440 + 600, this.tues10AM.minuteOfWeek());
+    Assert.assertEquals(10079, Time.of(Time.Day.SATURDAY, 23, 59).minuteOfWeek());
+    // 24:00 stays on its day, but is the same minute as midnight of the following day
+    Time mondayMidnight = new Time(Time.Day.MONDAY, 24, 0);
+    Assert.assertEquals(Time.Day.MONDAY, mondayMidnight.getDate());
+    Assert.assertEquals(24, mondayMidnight.getHours());
+    Assert.assertEquals(0, mondayMidnight.getMinutes());
+    Assert.assertEquals(2 * 1440, mondayMidnight.minuteOfWeek());
+    Assert.assertEquals(Time.of(Time.Day.TUESDAY, 0, 0), mondayMidnight);
+    Assert.assertEquals(0, mondayMidnight.compareTimes(Time.of(Time.Day.TUESDAY, 0, 0)));
+    Assert.assertSame(Time.of(Time.Day.MONDAY, 24, 0), Time.stringToTime("Monday", "2400"));
+    Assert.assertEquals(Time.Day.TUESDAY, Time.ofMinuteOfWeek(2 * 1440).getDate());
+    String xml = new Event("late", Time.of(Time.Day.MONDAY, 22, 0), mondayMidnight, false,
+            "Zoom", List.of("Chat")).eventToXMLFormat();
+    Assert.assertTrue(xml.contains("<end-day>MONDAY</end-day>"));
+    Assert.assertTrue(xml.contains("<end>2400</end>"));
+    // hour 24 only goes with minute 0, on every day
+    Assert.assertThrows(IllegalArgumentException.class, () ->
+            new Time(Time.Day.MONDAY, 24, 30));
+    // on Saturday it is the end of the week
+    Time endOfWeek = Time.of(Time.Day.SATURDAY, 24, 0);
+    Assert.assertEquals(10080, endOfWeek.minuteOfWeek());
+    Assert.assertEquals(Time.Day.SATURDAY, endOfWeek.getDate());
+    Assert.assertEquals(24, endOfWeek.getHours());
+    Assert.assertEquals(1, endOfWeek.compareTimes(Time.of(Time.Day.SATURDAY, 23, 59)));
+    Assert.assertThrows(IllegalArgumentException.class, () ->
+            new Time(Time.Day.SATURDAY, 24, 1));
+  }
 }
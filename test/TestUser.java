@@ -8,7 +8,10 @@ import java.util.Arrays;
 import java.util.HashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+import controller.ScheduleXMLReader;
 import model.Event;
 import model.IEvent;
 import model.ISchedule;
@@ -22,6 +25,7 @@ import view.IScheduleTextView;
 import view.ScheduleTextView;
 
 import static controller.UtilsXML.readXML;
+import static controller.UtilsXML.streamEvents;
 import static model.User.interpretXML;
 import static model.User.makeEvent;
 
@@ -287,6 +291,30 @@ public class TestUser {
     Assert.assertEquals(2, chatEvents.size());
   }
 
+  /**
+   * Test that streaming the events of an exported schedule gives the same events as
+   * reading the whole XML document.
+   */
+  @Test
+  public void testStreamSchedXML() {
+    this.profLuciaUser.userSchedToXML("src/controller/");
+    List<IEvent> luciaEvents = interpretXML(readXML("src/controller/Prof. Lucia_schedule.xml"));
+    try (Stream<IEvent> streamed = streamEvents("src/controller/Prof. Lucia_schedule.xml")) {
+      Assert.assertEquals(luciaEvents, streamed.collect(Collectors.toList()));
+    }
+
+    // events are read one at a time
+    ScheduleXMLReader reader = new ScheduleXMLReader("src/controller/Prof. Lucia_schedule.xml");
+    Assert.assertEquals("Prof. Lucia", reader.getUserName());
+    Assert.assertTrue(reader.hasNext());
+    Assert.assertEquals(this.morningLec, reader.next());
+    reader.close();
+    Assert.assertFalse(reader.hasNext());
+
+    Assert.assertThrows(IllegalStateException.class,
+        () -> streamEvents("src/controller/no_such_schedule.xml"));
+  }
+
 
   /**
    * Test if an event can be correctly converted from a hashmap of strings.